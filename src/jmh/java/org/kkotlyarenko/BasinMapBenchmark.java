@@ -0,0 +1,31 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.methods.CancellationToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BasinMapBenchmark {
+
+    @Param({"250", "1000"})
+    public int resolution;
+
+    @Param({"0", "1", "2"})
+    public int systemIndex;
+
+    private SystemFunctionSet.SystemDefinition system;
+
+    @Setup
+    public void setUp() {
+        system = SystemFunctionSet.systems[Indexes.systemIndex(systemIndex)];
+    }
+
+    @Benchmark
+    public int compute() {
+        return BasinMap.compute(system.f1(), system.f2(), -5, 5, -5, 5, resolution, resolution, 1e-9,
+                CancellationToken.NONE).converged();
+    }
+}
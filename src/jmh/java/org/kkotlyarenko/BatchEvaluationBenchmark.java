@@ -0,0 +1,48 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.expression.ExpressionCompiler;
+import org.kkotlyarenko.methods.BatchFunction2Var;
+import org.kkotlyarenko.methods.DualFunction2Var;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** One 400x400 contour grid, point by point versus one batch call. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BatchEvaluationBenchmark {
+
+    private static final int SIDE = 401;
+
+    @Param({"sin(x)+2*y-2", "x^2+y^2-4", "exp(x-y)+x*y-1"})
+    public String expression;
+
+    private DualFunction2Var f;
+    private final double[] xs = new double[SIDE * SIDE];
+    private final double[] ys = new double[SIDE * SIDE];
+    private final double[] out = new double[SIDE * SIDE];
+
+    @Setup
+    public void setUp() {
+        f = ExpressionCompiler.compile2Var(expression);
+        for (int j = 0; j < SIDE; j++) {
+            for (int i = 0; i < SIDE; i++) {
+                xs[j * SIDE + i] = -5 + 10.0 * i / (SIDE - 1);
+                ys[j * SIDE + i] = -5 + 10.0 * j / (SIDE - 1);
+            }
+        }
+    }
+
+    @Benchmark
+    public double[] scalar() {
+        for (int p = 0; p < out.length; p++) out[p] = f.apply(xs[p], ys[p]);
+        return out;
+    }
+
+    @Benchmark
+    public double[] batch() {
+        BatchFunction2Var.of(f).applyBatch(xs, ys, out, out.length);
+        return out;
+    }
+}
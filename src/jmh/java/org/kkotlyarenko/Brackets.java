@@ -0,0 +1,23 @@
+package org.kkotlyarenko;
+
+import java.util.function.DoubleUnaryOperator;
+
+final class Brackets {
+
+    private static final double GRID_OFFSET = 0.137;
+
+    private Brackets() {
+    }
+
+    static double[] find(DoubleUnaryOperator f, double from, double to, double width) {
+        for (double left = from + GRID_OFFSET * width; left < to; left += width) {
+            double right = left + width;
+            double fl = f.applyAsDouble(left);
+            double fr = f.applyAsDouble(right);
+            if (Double.isFinite(fl) && Double.isFinite(fr) && Math.signum(fl) * Math.signum(fr) < 0) {
+                return new double[]{left, right};
+            }
+        }
+        throw new IllegalStateException("No sign change found on [" + from + ", " + to + "]");
+    }
+}
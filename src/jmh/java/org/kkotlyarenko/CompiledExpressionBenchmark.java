@@ -0,0 +1,86 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.expression.ExpressionCompiler;
+import org.kkotlyarenko.methods.DualFunction;
+import org.kkotlyarenko.methods.NewtonSystemSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(CompiledExpressionBenchmark.POINTS)
+public class CompiledExpressionBenchmark {
+
+    static final int POINTS = 1024;
+
+    private static final DoubleUnaryOperator[] HANDWRITTEN = {
+            x -> Math.pow(x, 3) - 8.0,
+            x -> Math.exp(x) - 5.0,
+            x -> 2.0 * x - 3.0,
+            x -> Math.sin(x) - 0.5,
+            x -> 3.0 * x * x - 1.0
+    };
+
+    @Param({"0", "1", "2", "3", "4"})
+    public int functionIndex;
+
+    private DoubleUnaryOperator handwritten;
+    private DualFunction compiled;
+    private NewtonSystemSolver.Function2Var handwritten2Var;
+    private NewtonSystemSolver.Function2Var compiled2Var;
+    private final double[] xs = new double[POINTS];
+    private final double[] dual = new double[2];
+
+    @Setup
+    public void setUp() {
+        Indexes.requireSameSize(HANDWRITTEN, FunctionSet.functions.length, "HANDWRITTEN");
+        handwritten = HANDWRITTEN[Indexes.functionIndex(functionIndex)];
+        compiled = ExpressionCompiler.compile(FunctionSet.descriptions[functionIndex]);
+        handwritten2Var = (x, y) -> Math.exp(x - y) + x * y - 1;
+        compiled2Var = ExpressionCompiler.compile2Var("exp(x-y)+x*y-1");
+        for (int i = 0; i < POINTS; i++) {
+            xs[i] = -2.0 + 4.0 * i / POINTS;
+        }
+    }
+
+    @Benchmark
+    public double handwrittenLambda() {
+        double sum = 0.0;
+        for (double x : xs) sum += handwritten.applyAsDouble(x);
+        return sum;
+    }
+
+    @Benchmark
+    public double compiledExpression() {
+        double sum = 0.0;
+        for (double x : xs) sum += compiled.applyAsDouble(x);
+        return sum;
+    }
+
+    @Benchmark
+    public double dualEvaluation() {
+        double sum = 0.0;
+        for (double x : xs) {
+            compiled.evaluate(x, dual);
+            sum += dual[0] + dual[1];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double handwrittenLambda2Var() {
+        double sum = 0.0;
+        for (double x : xs) sum += handwritten2Var.apply(x, 0.5 * x);
+        return sum;
+    }
+
+    @Benchmark
+    public double compiledExpression2Var() {
+        double sum = 0.0;
+        for (double x : xs) sum += compiled2Var.apply(x, 0.5 * x);
+        return sum;
+    }
+}
@@ -0,0 +1,95 @@
+package org.kkotlyarenko;
+
+import org.jfree.data.xy.XYSeries;
+import org.kkotlyarenko.methods.CancellationToken;
+import org.kkotlyarenko.methods.NewtonSystemSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ContourBenchmark {
+
+    @Param({"400", "2000"})
+    public int resolution;
+
+    private NewtonSystemSolver.Function2Var f;
+
+    @Setup
+    public void setUp() {
+        f = SystemFunctionSet.systems[2].f2();
+    }
+
+    @Benchmark
+    public int marchingSquares() {
+        return MarchingSquares.contour(f, -5, 5, -5, 5, resolution, resolution).count();
+    }
+
+    @Benchmark
+    public int quadtree() {
+        return QuadtreeContour.contour(f, -5, 5, -5, 5, resolution, CancellationToken.NONE).count();
+    }
+
+    /** The previous GraphPanel implementation: row arrays, four Point records per cell, XYSeries output. */
+    @Benchmark
+    public int legacy() {
+        XYSeries series = new XYSeries("f", true, true);
+        double dx = 10.0 / resolution, dy = 10.0 / resolution;
+        double[][] values = new double[resolution + 1][resolution + 1];
+        for (int i = 0; i <= resolution; i++) {
+            for (int j = 0; j <= resolution; j++) {
+                double v = f.apply(-5 + i * dx, -5 + j * dy);
+                values[i][j] = Double.isFinite(v) ? v : Double.NaN;
+            }
+        }
+        for (int i = 0; i < resolution; i++) {
+            for (int j = 0; j < resolution; j++) {
+                double x = -5 + i * dx, y = -5 + j * dy;
+                double v00 = values[i][j], v10 = values[i + 1][j], v01 = values[i][j + 1], v11 = values[i + 1][j + 1];
+                if (Double.isNaN(v00) || Double.isNaN(v10) || Double.isNaN(v01) || Double.isNaN(v11)) continue;
+                int mask = (v00 > 0 ? 1 : 0) | (v10 > 0 ? 2 : 0) | (v11 > 0 ? 4 : 0) | (v01 > 0 ? 8 : 0);
+                Point a = interpolate(x, y, x, y + dy, v00, v01);
+                Point b = interpolate(x, y, x + dx, y, v00, v10);
+                Point c = interpolate(x + dx, y, x + dx, y + dy, v10, v11);
+                Point d = interpolate(x, y + dy, x + dx, y + dy, v01, v11);
+                switch (mask) {
+                    case 1, 14 -> add(series, a, b);
+                    case 2, 13 -> add(series, b, c);
+                    case 3, 12 -> add(series, a, c);
+                    case 4, 11 -> add(series, c, d);
+                    case 6, 9 -> add(series, b, d);
+                    case 7, 8 -> add(series, a, d);
+                    case 5, 10 -> {
+                        double center = f.apply(x + dx / 2, y + dy / 2);
+                        if ((center > 0) == (v00 > 0) == (mask == 5)) {
+                            add(series, a, d);
+                            add(series, b, c);
+                        } else {
+                            add(series, a, b);
+                            add(series, c, d);
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+        return series.getItemCount();
+    }
+
+    private record Point(double x, double y) {
+    }
+
+    private static void add(XYSeries series, Point p, Point q) {
+        series.add(p.x(), p.y());
+        series.add(q.x(), q.y());
+    }
+
+    private static Point interpolate(double x1, double y1, double x2, double y2, double v1, double v2) {
+        if (Math.signum(v1) == Math.signum(v2)) return new Point(Double.NaN, Double.NaN);
+        double t = Math.abs(v1) / (Math.abs(v1) + Math.abs(v2));
+        return new Point(x1 + t * (x2 - x1), y1 + t * (y2 - y1));
+    }
+}
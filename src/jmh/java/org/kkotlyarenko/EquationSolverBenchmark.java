@@ -0,0 +1,63 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.methods.BisectionMethod;
+import org.kkotlyarenko.methods.BrentMethod;
+import org.kkotlyarenko.methods.EquationSolver;
+import org.kkotlyarenko.methods.IterationListener;
+import org.kkotlyarenko.methods.ItpMethod;
+import org.kkotlyarenko.methods.SecantMethod;
+import org.kkotlyarenko.methods.SimpleIterationMethod;
+import org.kkotlyarenko.results.MethodResult;
+import org.kkotlyarenko.results.MutableMethodResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EquationSolverBenchmark {
+
+    @Param({"0", "1", "2", "3", "4"})
+    public int functionIndex;
+
+    @Param({"bisection", "secant", "simpleIteration", "brent", "itp"})
+    public String method;
+
+    @Param({"1e-4", "1e-8", "1e-12"})
+    public double eps;
+
+    private DoubleUnaryOperator f;
+    private EquationSolver solver;
+    private double a;
+    private double b;
+    private final MutableMethodResult sink = new MutableMethodResult();
+
+    @Setup
+    public void setUp() {
+        f = FunctionSet.functions[Indexes.functionIndex(functionIndex)];
+        double[] bracket = Brackets.find(f, -10.0, 10.0, 0.5);
+        a = bracket[0];
+        b = bracket[1];
+        solver = switch (method) {
+            case "bisection" -> new BisectionMethod();
+            case "secant" -> new SecantMethod();
+            case "brent" -> new BrentMethod();
+            case "itp" -> new ItpMethod();
+            case "simpleIteration" -> SimpleIterationMethod.forFunction(FunctionSet.functions[functionIndex], a, b, IterationListener.NONE);
+            default -> throw new IllegalArgumentException("Unknown method: " + method);
+        };
+    }
+
+    @Benchmark
+    public MethodResult solve() {
+        return solver.solve(f, a, b, eps);
+    }
+
+    @Benchmark
+    public double solveIntoSink() {
+        solver.solve(f, a, b, eps, sink, 0);
+        return sink.getRoot();
+    }
+}
@@ -0,0 +1,93 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.methods.AllRootsFinder;
+import org.kkotlyarenko.methods.BisectionMethod;
+import org.kkotlyarenko.methods.BrentMethod;
+import org.kkotlyarenko.methods.CancellationToken;
+import org.kkotlyarenko.methods.EquationSolver;
+import org.kkotlyarenko.methods.ItpMethod;
+import org.kkotlyarenko.methods.SecantMethod;
+import org.kkotlyarenko.results.MethodResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HardFunctionBenchmark {
+
+    @Param({"steep", "flat", "nearlySingular", "multiRoot", "wilkinson"})
+    public String function;
+
+    @Param({"bisection", "secant", "brent", "itp", "portfolio"})
+    public String method;
+
+    @Param({"1e-6", "1e-12"})
+    public double eps;
+
+    private DoubleUnaryOperator f;
+    private EquationSolver solver;
+    private AllRootsFinder allRoots;
+    private double a;
+    private double b;
+
+    @Setup
+    public void setUp() {
+        switch (function) {
+            case "steep" -> {
+                f = x -> Math.atan(1e4 * (x - 0.3));
+                a = 0.0;
+                b = 1.0;
+            }
+            case "flat" -> {
+                f = x -> {
+                    double d = x - 0.7;
+                    return d * d * d * d * d;
+                };
+                a = 0.0;
+                b = 1.0;
+            }
+            case "nearlySingular" -> {
+                f = x -> Math.tan(x) - 1000.0;
+                a = 1.5;
+                b = 1.5707;
+            }
+            case "multiRoot" -> {
+                f = x -> Math.sin(50.0 * x);
+                a = 0.01;
+                b = 1.0;
+            }
+            case "wilkinson" -> {
+                f = x -> {
+                    double p = 1.0;
+                    for (int k = 1; k <= 10; k++) p *= x - k / 10.0;
+                    return p;
+                };
+                a = 0.05;
+                b = 1.02;
+            }
+            default -> throw new IllegalArgumentException("Unknown function: " + function);
+        }
+        solver = switch (method) {
+            case "bisection" -> new BisectionMethod();
+            case "secant" -> new SecantMethod();
+            case "brent" -> new BrentMethod();
+            case "itp" -> new ItpMethod();
+            case "portfolio" -> ProblemSolver.portfolio(CancellationToken.NONE);
+            default -> throw new IllegalArgumentException("Unknown method: " + method);
+        };
+        allRoots = new AllRootsFinder(solver);
+    }
+
+    @Benchmark
+    public MethodResult solve() {
+        return solver.solve(f, a, b, eps);
+    }
+
+    @Benchmark
+    public double[] findAllRoots() {
+        return allRoots.findRoots(f, a, b, eps);
+    }
+}
@@ -0,0 +1,30 @@
+package org.kkotlyarenko;
+
+/** The @Param index lists are spelled out by hand, so each benchmark checks them against the sets. */
+final class Indexes {
+
+    private Indexes() {
+    }
+
+    static int functionIndex(int index) {
+        return check(index, FunctionSet.functions.length, "FunctionSet");
+    }
+
+    static int systemIndex(int index) {
+        return check(index, SystemFunctionSet.systems.length, "SystemFunctionSet");
+    }
+
+    /** Fails when a per-index table of a benchmark no longer matches the size of its set. */
+    static void requireSameSize(Object[] table, int size, String name) {
+        if (table.length != size) {
+            throw new IllegalStateException(name + " has " + table.length + " entries, the set has " + size);
+        }
+    }
+
+    private static int check(int index, int size, String set) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Index " + index + " is outside " + set + " (0.." + (size - 1) + ")");
+        }
+        return index;
+    }
+}
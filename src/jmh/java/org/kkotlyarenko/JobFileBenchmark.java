@@ -0,0 +1,84 @@
+package org.kkotlyarenko;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JobFileBenchmark {
+
+    @Param({"1000000"})
+    public int records;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("jobs", ".txt");
+        Random random = new Random(42);
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            for (int i = 0; i < records; i++) {
+                if (random.nextBoolean()) {
+                    writer.println(ParameterFile.FILE_MARKER_EQUATION);
+                    writer.println(random.nextInt(5));
+                    writer.println(random.nextInt(3));
+                } else {
+                    writer.println(ParameterFile.FILE_MARKER_SYSTEM);
+                    writer.println(random.nextInt(3));
+                }
+                writer.println(-random.nextInt(10) + random.nextInt(1000) / 1000.0);
+                writer.println(random.nextInt(10) + random.nextInt(1000) / 1000.0);
+                writer.println(random.nextBoolean() ? "0.0001" : "1e-8");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public double mappedForEach() throws IOException {
+        double[] sum = new double[1];
+        try (JobFileReader reader = JobFileReader.open(file)) {
+            reader.forEach((task, item, expression, method, a, b, eps) -> sum[0] += a + b + eps + item);
+        }
+        return sum[0];
+    }
+
+    @Benchmark
+    public double mappedParallelStream() throws IOException {
+        try (JobFileReader reader = JobFileReader.open(file)) {
+            return reader.records().parallel().mapToDouble(r -> r.a() + r.b() + r.eps() + r.itemIndex()).sum();
+        }
+    }
+
+    @Benchmark
+    public double bufferedReaderLines() throws IOException {
+        double sum = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                boolean equation = line.equals(ParameterFile.FILE_MARKER_EQUATION);
+                if (!equation && !line.equals(ParameterFile.FILE_MARKER_SYSTEM)) continue;
+                sum += Integer.parseInt(reader.readLine().trim());
+                if (equation) Integer.parseInt(reader.readLine().trim());
+                sum += Double.parseDouble(reader.readLine().trim().replace(',', '.'));
+                sum += Double.parseDouble(reader.readLine().trim().replace(',', '.'));
+                sum += Double.parseDouble(reader.readLine().trim().replace(',', '.'));
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,63 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.methods.JacobianFunction;
+import org.kkotlyarenko.methods.JacobianUpdate;
+import org.kkotlyarenko.methods.NewtonVectorSolver;
+import org.kkotlyarenko.methods.VectorFunction;
+import org.kkotlyarenko.results.SystemResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NewtonVectorBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int n;
+
+    @Param({"1e-8"})
+    public double eps;
+
+    @Param({"NEWTON", "BROYDEN_GOOD", "BROYDEN_BAD"})
+    public JacobianUpdate update;
+
+    private NewtonVectorSolver solver;
+    private double[] x0;
+
+    @Setup
+    public void setUp() {
+        solver = new NewtonVectorSolver(n, broydenTridiagonal(n), broydenTridiagonalJacobian(n), update);
+        x0 = new double[n];
+        Arrays.fill(x0, -1.0);
+    }
+
+    @Benchmark
+    public SystemResult solve() {
+        return solver.solve(x0, eps);
+    }
+
+    static VectorFunction broydenTridiagonal(int n) {
+        return (x, out) -> {
+            for (int i = 0; i < n; i++) {
+                double left = i > 0 ? x[i - 1] : 0.0;
+                double right = i < n - 1 ? x[i + 1] : 0.0;
+                out[i] = (3.0 - 2.0 * x[i]) * x[i] - left - 2.0 * right + 1.0;
+            }
+        };
+    }
+
+    static JacobianFunction broydenTridiagonalJacobian(int n) {
+        return (x, jacobian) -> {
+            Arrays.fill(jacobian, 0.0);
+            for (int i = 0; i < n; i++) {
+                int row = i * n;
+                jacobian[row + i] = 3.0 - 4.0 * x[i];
+                if (i > 0) jacobian[row + i - 1] = -1.0;
+                if (i < n - 1) jacobian[row + i + 1] = -2.0;
+            }
+        };
+    }
+}
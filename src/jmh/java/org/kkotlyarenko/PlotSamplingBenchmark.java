@@ -0,0 +1,50 @@
+package org.kkotlyarenko;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlotSamplingBenchmark {
+
+    private static final int UNIFORM_RESOLUTION = 400;
+
+    @Param({"smooth", "pole"})
+    public String shape;
+
+    /** Blackhole.consumeCPU tokens per evaluation, to model an expensive user formula. */
+    @Param({"0", "1000"})
+    public long cost;
+
+    private DoubleUnaryOperator f;
+
+    @Setup
+    public void setUp() {
+        DoubleUnaryOperator base = shape.equals("smooth") ? x -> Math.sin(x) * x : Math::tan;
+        long tokens = cost;
+        f = tokens == 0 ? base : x -> {
+            Blackhole.consumeCPU(tokens);
+            return base.applyAsDouble(x);
+        };
+    }
+
+    @Benchmark
+    public double uniform() {
+        double sum = 0;
+        double step = 20.0 / UNIFORM_RESOLUTION;
+        for (double x = -10; x <= 10; x += step) {
+            double y = f.applyAsDouble(x);
+            if (Double.isFinite(y)) sum += y;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public AdaptiveSampler.Samples adaptive() {
+        return AdaptiveSampler.sample(f, -10, 10, AdaptiveSampler.DEFAULT_BUDGET);
+    }
+}
@@ -0,0 +1,107 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.results.MethodResult;
+import org.kkotlyarenko.results.SystemResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResultFileBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    private ParameterFile[] params;
+    private Object[] results;
+    private Path binaryFile;
+    private Path textFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        params = new ParameterFile[rows];
+        results = new Object[rows];
+        for (int i = 0; i < rows; i++) {
+            double a = -random.nextDouble(), b = random.nextDouble();
+            if (i % 2 == 0) {
+                params[i] = new ParameterFile(ParameterFile.TASK_EQUATION, i % 5, i % 3,
+                        Double.toString(a), Double.toString(b), "1.0E-8");
+                results[i] = MethodResult.success(random.nextDouble(), random.nextGaussian() * 1e-9, random.nextInt(40));
+            } else {
+                params[i] = new ParameterFile(ParameterFile.TASK_SYSTEM, i % 3, -1,
+                        Double.toString(a), Double.toString(b), "1.0E-8");
+                results[i] = SystemResult.success(new double[]{random.nextDouble(), random.nextDouble()},
+                        new double[]{random.nextGaussian() * 1e-9, random.nextGaussian() * 1e-9}, random.nextInt(10))
+                        .withEvaluations(8, 5);
+            }
+        }
+        binaryFile = Files.createTempFile("results", ResultFile.EXTENSION);
+        textFile = Files.createTempFile("results", ".txt");
+        writeBinary();
+        writeText();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(binaryFile);
+        Files.deleteIfExists(textFile);
+    }
+
+    @Benchmark
+    public long writeBinary() throws IOException {
+        try (ResultFile.Writer writer = ResultFile.Writer.create(binaryFile)) {
+            for (int i = 0; i < rows; i++) {
+                writer.add(params[i], params[i].methodIndex(), "f", "m", results[i], null);
+            }
+        }
+        return Files.size(binaryFile);
+    }
+
+    @Benchmark
+    public long writeText() throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(textFile, StandardCharsets.UTF_8))) {
+            for (int i = 0; i < rows; i++) {
+                params[i].writeReport(writer, "f", "m", results[i].toString());
+                writer.println();
+            }
+        }
+        return Files.size(textFile);
+    }
+
+    @Benchmark
+    public double readBinaryColumn() throws IOException {
+        double sum = 0;
+        try (ResultFile.Reader reader = ResultFile.Reader.open(binaryFile)) {
+            for (int i = 0; i < reader.rows(); i++) {
+                if (reader.status(i) == ResultFile.STATUS_SUCCESS) sum += reader.solution(i, 0);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double readTextReport() throws IOException {
+        double sum = 0;
+        try (BufferedReader reader = Files.newBufferedReader(textFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("Корень: ")) {
+                    sum += Double.parseDouble(line.substring(8).replace(',', '.'));
+                } else if (line.startsWith("Решение: x = ")) {
+                    sum += Double.parseDouble(line.substring(13, line.indexOf(", y")).replace(',', '.'));
+                }
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,43 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.methods.NewtonSystemSolver;
+import org.kkotlyarenko.results.SystemResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SystemSolverBenchmark {
+
+    private static final double[][] STARTS = {
+            {0.0, 1.0},
+            {1.5, 0.5},
+            {0.5, 1.5}
+    };
+
+    @Param({"0", "1", "2"})
+    public int systemIndex;
+
+    @Param({"1e-4", "1e-8", "1e-12"})
+    public double eps;
+
+    private NewtonSystemSolver solver;
+    private double x0;
+    private double y0;
+
+    @Setup
+    public void setUp() {
+        Indexes.requireSameSize(STARTS, SystemFunctionSet.systems.length, "STARTS");
+        SystemFunctionSet.SystemDefinition sys = SystemFunctionSet.systems[Indexes.systemIndex(systemIndex)];
+        solver = new NewtonSystemSolver(sys.f1(), sys.f2());
+        x0 = STARTS[systemIndex][0];
+        y0 = STARTS[systemIndex][1];
+    }
+
+    @Benchmark
+    public SystemResult solve() {
+        return solver.solve(x0, y0, eps);
+    }
+}
@@ -0,0 +1,283 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.methods.BatchFunction;
+import org.kkotlyarenko.methods.CancellationToken;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Samples y = f(x) for plotting. Starts from a coarse uniform grid and keeps halving the
+ * interval whose midpoint deviates most from the chord (relative to the visible y-range), plus
+ * intervals with sign changes or domain boundaries, until every interval is flat to about half a
+ * pixel or the evaluation budget is spent. Jumps that survive refinement to the minimum width
+ * are reported as gaps. Values are clamped to a window around the robust y-range first, so
+ * poles do not swallow the budget.
+ */
+final class AdaptiveSampler {
+
+    static final int DEFAULT_BUDGET = 2000;
+
+    private static final int INITIAL_INTERVALS = 32;
+    private static final int MAX_DEPTH = 12;
+    private static final double TOLERANCE = 1e-3;
+    private static final double SIGN_CHANGE_PRIORITY = 2 * TOLERANCE;
+    private static final double BOUNDARY_PRIORITY = 1.0;
+    private static final double SIGN_CHANGE_RESOLUTION = 1.0 / 1024;
+    private static final double JUMP = 0.25;
+    private static final double WINDOW_MARGIN = 2.0;
+
+    /**
+     * Points in increasing x; a NaN y marks a gap in the curve. {@code clipped} is set when some
+     * values lie far outside [yLow, yHigh], the range worth showing.
+     */
+    record Samples(double[] x, double[] y, int size, int evaluations, double yLow, double yHigh, boolean clipped) {
+    }
+
+    private final DoubleUnaryOperator f;
+    private final double xmin;
+    private final double xmax;
+    private final int budget;
+    private final CancellationToken token;
+
+    private double[] xs;
+    private double[] ys;
+    private int[] next;
+    private int[] depth;
+    private boolean[] gapAfter;
+    private int points;
+
+    private double[] heapKeys;
+    private int[] heapIntervals;
+    private int heapSize;
+
+    private double yScale;
+    private double windowLow;
+    private double windowHigh;
+
+    private AdaptiveSampler(DoubleUnaryOperator f, double xmin, double xmax, int budget, CancellationToken token) {
+        this.f = f;
+        this.xmin = xmin;
+        this.xmax = xmax;
+        this.budget = Math.max(budget, 2 * INITIAL_INTERVALS + 1);
+        this.token = token;
+        xs = new double[256];
+        ys = new double[256];
+        next = new int[256];
+        depth = new int[256];
+        gapAfter = new boolean[256];
+        heapKeys = new double[64];
+        heapIntervals = new int[64];
+    }
+
+    static Samples sample(DoubleUnaryOperator f, double xmin, double xmax, int budget) {
+        return sample(f, xmin, xmax, budget, CancellationToken.NONE);
+    }
+
+    /** Refinement stops early when the token does; the initial grid is always sampled. */
+    static Samples sample(DoubleUnaryOperator f, double xmin, double xmax, int budget, CancellationToken token) {
+        if (!(xmax > xmin)) {
+            throw new IllegalArgumentException("Неверный диапазон построения: [" + xmin + ", " + xmax + "]");
+        }
+        return new AdaptiveSampler(f, xmin, xmax, budget, token).run();
+    }
+
+    private Samples run() {
+        int initialPoints = 2 * INITIAL_INTERVALS + 1;
+        double[] initialX = new double[initialPoints];
+        for (int i = 0; i < initialPoints; i++) {
+            initialX[i] = i == initialPoints - 1 ? xmax : xmin + (xmax - xmin) * i / (initialPoints - 1);
+        }
+        double[] initialY = evaluateAll(initialX);
+        for (int i = 0; i < initialPoints; i++) {
+            add(initialX[i], initialY[i]);
+            next[i] = i + 1;
+        }
+        next[initialPoints - 1] = -1;
+        yScale = robustRange(initialPoints);
+
+        for (int i = 0; i < initialPoints - 1; i += 2) {
+            push(i);
+        }
+        while (heapSize > 0 && heapKeys[0] > TOLERANCE && points + 2 <= budget && !token.shouldStop()) {
+            split(pop());
+        }
+        return collect();
+    }
+
+    private int add(double x) {
+        return add(x, evaluate(x));
+    }
+
+    private int add(double x, double y) {
+        if (points == xs.length) {
+            int capacity = points * 2;
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            next = Arrays.copyOf(next, capacity);
+            depth = Arrays.copyOf(depth, capacity);
+            gapAfter = Arrays.copyOf(gapAfter, capacity);
+        }
+        xs[points] = x;
+        ys[points] = y;
+        return points++;
+    }
+
+    /** One batch call for the whole grid; point by point if f throws. */
+    private double[] evaluateAll(double[] x) {
+        double[] y = new double[x.length];
+        try {
+            BatchFunction.of(f).applyBatch(x, y, x.length);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < x.length; i++) y[i] = evaluate(x[i]);
+            return y;
+        }
+        for (int i = 0; i < y.length; i++) {
+            if (!Double.isFinite(y[i])) y[i] = Double.NaN;
+        }
+        return y;
+    }
+
+    /** A point where f throws is a gap in the plot, like one where it is not finite. */
+    private double evaluate(double x) {
+        try {
+            double y = f.applyAsDouble(x);
+            return Double.isFinite(y) ? y : Double.NaN;
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+
+    private double robustRange(int count) {
+        double[] finite = new double[count];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (!Double.isNaN(ys[i])) finite[n++] = ys[i];
+        }
+        if (n == 0) {
+            windowLow = Double.NEGATIVE_INFINITY;
+            windowHigh = Double.POSITIVE_INFINITY;
+            return 1.0;
+        }
+        Arrays.sort(finite, 0, n);
+        double low = finite[(n - 1) / 20];
+        double high = finite[(n - 1) * 19 / 20];
+        double range = high > low ? high - low : Math.max(1.0, Math.abs(finite[n / 2]));
+        windowLow = low - WINDOW_MARGIN * range;
+        windowHigh = high + WINDOW_MARGIN * range;
+        return range;
+    }
+
+    private double clamp(double y) {
+        return Math.max(windowLow, Math.min(windowHigh, y));
+    }
+
+    /** Interval {@code left} spans left, its midpoint next[left] and the right end next[mid]. */
+    private void split(int left) {
+        int mid = next[left];
+        int right = next[mid];
+        int level = depth[left] + 1;
+
+        int quarter = add(0.5 * (xs[left] + xs[mid]));
+        next[left] = quarter;
+        next[quarter] = mid;
+        int threeQuarters = add(0.5 * (xs[mid] + xs[right]));
+        next[mid] = threeQuarters;
+        next[threeQuarters] = right;
+
+        depth[left] = level;
+        depth[mid] = level;
+        push(left);
+        push(mid);
+    }
+
+    private void push(int left) {
+        int mid = next[left];
+        int right = next[mid];
+        double y0 = clamp(ys[left]), ym = clamp(ys[mid]), y1 = clamp(ys[right]);
+
+        if (depth[left] >= MAX_DEPTH) {
+            markJump(left, mid, right);
+            return;
+        }
+        int finite = (Double.isNaN(y0) ? 0 : 1) + (Double.isNaN(ym) ? 0 : 1) + (Double.isNaN(y1) ? 0 : 1);
+        double priority;
+        if (finite == 0) {
+            return;
+        } else if (finite < 3) {
+            priority = BOUNDARY_PRIORITY;
+        } else {
+            priority = Math.abs(ym - 0.5 * (y0 + y1)) / yScale;
+            boolean signChange = (ys[left] < 0) != (ys[mid] < 0) || (ys[mid] < 0) != (ys[right] < 0);
+            if (signChange && xs[right] - xs[left] > (xmax - xmin) * SIGN_CHANGE_RESOLUTION) {
+                priority = Math.max(priority, SIGN_CHANGE_PRIORITY);
+            }
+        }
+
+        if (heapSize == heapKeys.length) {
+            heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+            heapIntervals = Arrays.copyOf(heapIntervals, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapKeys[parent] >= priority) break;
+            heapKeys[i] = heapKeys[parent];
+            heapIntervals[i] = heapIntervals[parent];
+            i = parent;
+        }
+        heapKeys[i] = priority;
+        heapIntervals[i] = left;
+    }
+
+    private int pop() {
+        int top = heapIntervals[0];
+        double key = heapKeys[--heapSize];
+        int interval = heapIntervals[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapKeys[child + 1] > heapKeys[child]) child++;
+            if (heapKeys[child] <= key) break;
+            heapKeys[i] = heapKeys[child];
+            heapIntervals[i] = heapIntervals[child];
+            i = child;
+        }
+        heapKeys[i] = key;
+        heapIntervals[i] = interval;
+        return top;
+    }
+
+    private void markJump(int left, int mid, int right) {
+        double first = Math.abs(clamp(ys[mid]) - clamp(ys[left]));
+        double second = Math.abs(clamp(ys[right]) - clamp(ys[mid]));
+        if (first > JUMP * yScale && first >= second) gapAfter[left] = true;
+        if (second > JUMP * yScale && second > first) gapAfter[mid] = true;
+    }
+
+    private Samples collect() {
+        double[] x = new double[2 * points];
+        double[] y = new double[2 * points];
+        int size = 0;
+        double low = Double.POSITIVE_INFINITY;
+        double high = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i >= 0; i = next[i]) {
+            if (!Double.isNaN(ys[i])) {
+                low = Math.min(low, ys[i]);
+                high = Math.max(high, ys[i]);
+            }
+            boolean gap = Double.isNaN(ys[i]);
+            if (!gap || (size > 0 && !Double.isNaN(y[size - 1]))) {
+                x[size] = xs[i];
+                y[size++] = ys[i];
+            }
+            if (gapAfter[i] && !gap && next[i] >= 0) {
+                x[size] = 0.5 * (xs[i] + xs[next[i]]);
+                y[size++] = Double.NaN;
+            }
+        }
+        boolean clipped = low < windowLow || high > windowHigh;
+        return new Samples(x, y, size, points, Math.max(low, windowLow), Math.min(high, windowHigh), clipped);
+    }
+}
@@ -0,0 +1,160 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.methods.CancellationToken;
+import org.kkotlyarenko.methods.DualFunction2Var;
+import org.kkotlyarenko.methods.IterationListener;
+import org.kkotlyarenko.methods.NewtonSystemSolver;
+import org.kkotlyarenko.results.SystemResultSink;
+import org.kkotlyarenko.results.SystemStatus;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Basins of attraction of Newton's method: the system is solved from the centre of every pixel
+ * of a window, in square tiles on the common pool. Each worker thread keeps one solver and one
+ * result sink for all its pixels, so a solve allocates nothing. Converged end points are then
+ * grouped into distinct roots (at most MAX_ROOTS; later ones share the "other" basin).
+ */
+final class BasinMap {
+
+    static final int MAX_ROOTS = 12;
+    static final int MAX_ITERATIONS = 100;
+    static final byte NOT_CONVERGED = -1;
+    static final byte OTHER_ROOT = -2;
+
+    private static final int TILE = 64;
+    private static final double ROOT_TOLERANCE = 1e-6;
+    private static final int ALPHA = 0xB0;
+    /** Successive basins get hues this far apart, so neighbouring indices never look alike. */
+    private static final double GOLDEN_RATIO_CONJUGATE = 0.618033988749895;
+
+    /** Row 0 is the top of the window (y = ymax), as in the image. */
+    record Result(int width, int height, double xmin, double xmax, double ymin, double ymax,
+                  byte[] basins, short[] iterations, double[] rootX, double[] rootY, int rootCount, int converged) {
+    }
+
+    private static final class PixelSink implements SystemResultSink {
+        boolean success;
+        double x;
+        double y;
+        int iterations;
+
+        @Override
+        public void set(SystemStatus status, double[] solution, double[] residuals, int iterations,
+                        int residualEvaluations, int jacobianEvaluations) {
+            this.success = status == SystemStatus.SUCCESS;
+            this.x = solution[0];
+            this.y = solution[1];
+            this.iterations = iterations;
+        }
+    }
+
+    private record Worker(NewtonSystemSolver solver, PixelSink sink) {
+    }
+
+    private BasinMap() {
+    }
+
+    static Result compute(DualFunction2Var f1, DualFunction2Var f2, double xmin, double xmax, double ymin, double ymax,
+                          int width, int height, double eps, CancellationToken token) {
+        if (!(xmax > xmin) || !(ymax > ymin) || width < 1 || height < 1) {
+            throw new IllegalArgumentException("Неверная область карты бассейнов.");
+        }
+        int pixels = width * height;
+        double[] endX = new double[pixels];
+        double[] endY = new double[pixels];
+        short[] iterations = new short[pixels];
+        double dx = (xmax - xmin) / width;
+        double dy = (ymax - ymin) / height;
+
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(() -> new Worker(
+                new NewtonSystemSolver(f1, f2, IterationListener.NONE, CancellationToken.NONE, MAX_ITERATIONS),
+                new PixelSink()));
+        int tilesX = (width + TILE - 1) / TILE;
+        int tilesY = (height + TILE - 1) / TILE;
+        IntStream.range(0, tilesX * tilesY).parallel().forEach(tile -> {
+            int col0 = (tile % tilesX) * TILE, row0 = (tile / tilesX) * TILE;
+            int col1 = Math.min(width, col0 + TILE), row1 = Math.min(height, row0 + TILE);
+            if (token.shouldStop()) {
+                for (int row = row0; row < row1; row++) {
+                    for (int col = col0; col < col1; col++) endX[row * width + col] = Double.NaN;
+                }
+                return;
+            }
+            Worker worker = workers.get();
+            PixelSink sink = worker.sink();
+            for (int row = row0; row < row1; row++) {
+                double y = ymax - (row + 0.5) * dy;
+                for (int col = col0; col < col1; col++) {
+                    int p = row * width + col;
+                    worker.solver().solve(xmin + (col + 0.5) * dx, y, eps, sink);
+                    endX[p] = sink.success ? sink.x : Double.NaN;
+                    endY[p] = sink.y;
+                    iterations[p] = (short) sink.iterations;
+                }
+            }
+        });
+
+        byte[] basins = new byte[pixels];
+        double[] rootX = new double[MAX_ROOTS];
+        double[] rootY = new double[MAX_ROOTS];
+        int rootCount = 0;
+        int converged = 0;
+        for (int p = 0; p < pixels; p++) {
+            double x = endX[p];
+            if (Double.isNaN(x)) {
+                basins[p] = NOT_CONVERGED;
+                continue;
+            }
+            converged++;
+            double y = endY[p];
+            int root = 0;
+            while (root < rootCount && !near(x, y, rootX[root], rootY[root])) root++;
+            if (root == rootCount && rootCount < MAX_ROOTS) {
+                rootX[rootCount] = x;
+                rootY[rootCount++] = y;
+            }
+            basins[p] = root < rootCount ? (byte) root : OTHER_ROOT;
+        }
+        return new Result(width, height, xmin, xmax, ymin, ymax, basins, iterations,
+                Arrays.copyOf(rootX, rootCount), Arrays.copyOf(rootY, rootCount), rootCount, converged);
+    }
+
+    private static boolean near(double x, double y, double rx, double ry) {
+        double scale = 1.0 + Math.max(Math.abs(rx), Math.abs(ry));
+        return Math.abs(x - rx) <= ROOT_TOLERANCE * scale && Math.abs(y - ry) <= ROOT_TOLERANCE * scale;
+    }
+
+    /** Hue per basin, darker with more iterations; points that did not converge stay transparent. */
+    static BufferedImage render(Result map) {
+        int minIterations = Integer.MAX_VALUE, maxIterations = 0;
+        for (int p = 0; p < map.iterations().length; p++) {
+            if (map.basins()[p] == NOT_CONVERGED) continue;
+            minIterations = Math.min(minIterations, map.iterations()[p]);
+            maxIterations = Math.max(maxIterations, map.iterations()[p]);
+        }
+        double low = Math.log1p(minIterations);
+        double scale = Math.max(1e-9, Math.log1p(maxIterations) - low);
+        BufferedImage image = new BufferedImage(map.width(), map.height(), BufferedImage.TYPE_INT_ARGB);
+        int[] row = new int[map.width()];
+        for (int r = 0; r < map.height(); r++) {
+            for (int c = 0; c < map.width(); c++) {
+                int p = r * map.width() + c;
+                int basin = map.basins()[p];
+                if (basin == NOT_CONVERGED) {
+                    row[c] = 0;
+                    continue;
+                }
+                float hue = basin == OTHER_ROOT ? 0f : (float) (basin * GOLDEN_RATIO_CONJUGATE % 1.0);
+                float saturation = basin == OTHER_ROOT ? 0f : 0.6f;
+                float brightness = (float) (1.0 - 0.6 * (Math.log1p(map.iterations()[p]) - low) / scale);
+                row[c] = (ALPHA << 24) | (Color.HSBtoRGB(hue, saturation, brightness) & 0xFFFFFF);
+            }
+            image.setRGB(0, r, map.width(), 1, row, 0, map.width());
+        }
+        return image;
+    }
+}
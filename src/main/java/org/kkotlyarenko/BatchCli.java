@@ -0,0 +1,406 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.expression.ExpressionCompiler;
+import org.kkotlyarenko.methods.CancellationToken;
+import org.kkotlyarenko.methods.DualFunction;
+import org.kkotlyarenko.methods.IterationListener;
+import org.kkotlyarenko.methods.JacobianUpdate;
+import org.kkotlyarenko.results.MethodResult;
+import org.kkotlyarenko.results.SystemResult;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Solves parameter files saved by the GUI without touching AWT/Swing.
+ * Usage: BatchCli &lt;directory|file|glob&gt; [--parallelism N] [--out DIR] [--summary FILE|-]
+ * [--system-method NEWTON|BROYDEN_GOOD|BROYDEN_BAD] [--binary FILE] [--timeout MS]; BatchCli --to-text FILE
+ */
+public class BatchCli {
+
+    private static final String USAGE = """
+            Использование: BatchCli <каталог|файл|glob> [параметры]
+              --parallelism N     число одновременно решаемых задач (по умолчанию: число процессоров)
+              --out DIR           записывать отчёты в DIR/<имя>.result.txt вместо стандартного вывода
+              --summary FILE|-    сводка в формате JSON Lines (по умолчанию: stderr, '-' — stdout)
+              --system-method M   метод для систем: NEWTON, BROYDEN_GOOD, BROYDEN_BAD
+              --binary FILE       дополнительно записать все результаты в бинарный столбцовый файл
+              --timeout MS        лимит времени на одну задачу; по истечении возвращается последняя оценка
+            BatchCli --to-text FILE  вывести бинарный файл результатов в текстовом виде""";
+
+    private final int parallelism;
+    private final Path outDir;
+    private final JacobianUpdate systemMethod;
+    private final PrintWriter reports;
+    private final PrintWriter summary;
+    private final ResultFile.Writer binary;
+    private final Duration timeout;
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private BatchCli(int parallelism, Path outDir, JacobianUpdate systemMethod, PrintWriter reports, PrintWriter summary,
+                     ResultFile.Writer binary, Duration timeout) {
+        this.parallelism = parallelism;
+        this.outDir = outDir;
+        this.systemMethod = systemMethod;
+        this.reports = reports;
+        this.summary = summary;
+        this.binary = binary;
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        String source = null;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        Path outDir = null;
+        String summaryTarget = null;
+        Path binaryTarget = null;
+        Path textSource = null;
+        JacobianUpdate systemMethod = JacobianUpdate.NEWTON;
+        Duration timeout = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--parallelism" -> parallelism = Integer.parseInt(value(args, ++i));
+                    case "--out" -> outDir = Path.of(value(args, ++i));
+                    case "--summary" -> summaryTarget = value(args, ++i);
+                    case "--system-method" -> systemMethod = JacobianUpdate.valueOf(value(args, ++i).toUpperCase(Locale.ROOT));
+                    case "--binary" -> binaryTarget = Path.of(value(args, ++i));
+                    case "--to-text" -> textSource = Path.of(value(args, ++i));
+                    case "--timeout" -> timeout = Duration.ofMillis(Long.parseLong(value(args, ++i)));
+                    case "-h", "--help" -> {
+                        System.out.println(USAGE);
+                        return;
+                    }
+                    default -> {
+                        if (source != null) throw new IllegalArgumentException("Лишний аргумент: " + args[i]);
+                        source = args[i];
+                    }
+                }
+            }
+            if (source == null && textSource == null) throw new IllegalArgumentException("Не указан каталог или шаблон файлов.");
+            if (parallelism < 1) throw new IllegalArgumentException("Параллелизм должен быть положительным: " + parallelism);
+            if (timeout != null && !timeout.isPositive()) throw new IllegalArgumentException("Лимит времени должен быть положительным: " + timeout.toMillis());
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        if (textSource != null) {
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            try (ResultFile.Reader reader = ResultFile.Reader.open(textSource)) {
+                reader.writeText(out);
+                out.flush();
+                return;
+            } catch (IOException ex) {
+                System.err.println("Ошибка ввода-вывода: " + ex.getMessage());
+                System.exit(2);
+                return;
+            }
+        }
+
+        try {
+            List<Path> files = collectFiles(source);
+            if (files.isEmpty()) {
+                System.err.println("Файлы не найдены: " + source);
+                System.exit(2);
+                return;
+            }
+            if (outDir != null) Files.createDirectories(outDir);
+
+            PrintWriter reports = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            PrintWriter summary;
+            if (summaryTarget == null) {
+                summary = new PrintWriter(new OutputStreamWriter(System.err, StandardCharsets.UTF_8));
+            } else if (summaryTarget.equals("-")) {
+                summary = reports;
+            } else {
+                summary = new PrintWriter(Files.newBufferedWriter(Path.of(summaryTarget), StandardCharsets.UTF_8));
+            }
+
+            ResultFile.Writer binary = binaryTarget == null ? null : ResultFile.Writer.create(binaryTarget);
+            BatchCli cli = new BatchCli(parallelism, outDir, systemMethod, reports, summary, binary, timeout);
+            cli.run(files);
+            reports.flush();
+            if (summary != reports) summary.close();
+            if (binary != null) binary.close();
+            System.exit(cli.failures.get() == 0 ? 0 : 1);
+        } catch (IOException ex) {
+            System.err.println("Ошибка ввода-вывода: " + ex.getMessage());
+            System.exit(2);
+        }
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) throw new IllegalArgumentException("Не указано значение для " + args[i - 1]);
+        return args[i];
+    }
+
+    static List<Path> collectFiles(String source) throws IOException {
+        Path path = Path.of(source);
+        if (Files.isRegularFile(path)) return List.of(path);
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> stream = Files.list(path)) {
+                return stream.filter(Files::isRegularFile).sorted().toList();
+            }
+        }
+
+        Path base = path.isAbsolute() ? path.getRoot() : Path.of("");
+        for (Path part : path) {
+            String name = part.toString();
+            if (name.indexOf('*') >= 0 || name.indexOf('?') >= 0 || name.indexOf('[') >= 0 || name.indexOf('{') >= 0) break;
+            base = base.resolve(part);
+        }
+        if (!Files.isDirectory(base)) return List.of();
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + source);
+        boolean relative = base.toString().isEmpty();
+        Path start = relative ? Path.of(".") : base;
+        try (Stream<Path> stream = Files.walk(start)) {
+            return stream.filter(Files::isRegularFile)
+                    .map(p -> relative ? start.relativize(p) : p)
+                    .filter(matcher::matches)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Files are read on their own virtual threads, and every record is solved as a separate task,
+     * so one large file uses the whole pool. The permits bound the records in flight across all
+     * files; each file keeps at most {@code parallelism} outcomes pending and emits them in order.
+     * At most {@code parallelism} files are open at a time.
+     */
+    private void run(List<Path> files) {
+        Semaphore permits = new Semaphore(parallelism);
+        Semaphore openFiles = new Semaphore(parallelism);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            try (ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (Path file : files) {
+                    readers.submit(() -> {
+                        openFiles.acquireUninterruptibly();
+                        try {
+                            solveFile(file, workers, permits);
+                        } finally {
+                            openFiles.release();
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    private record Outcome(Path file, int record, JobRecord job, String itemTitle, String methodTitle,
+                           Object result, String error, long nanos) {
+        boolean success() {
+            if (result instanceof MethodResult mr) return mr.isSuccess();
+            if (result instanceof SystemResult sr) return sr.isSuccess();
+            return false;
+        }
+
+        String text() {
+            return error != null ? "Ошибка выполнения: " + error : result.toString();
+        }
+    }
+
+    private void solveFile(Path file, ExecutorService workers, Semaphore permits) {
+        PrintWriter fileReport = null;
+        ArrayDeque<CompletableFuture<Outcome>> pending = new ArrayDeque<>();
+        int record = 0;
+        long start = System.nanoTime();
+        try (JobFileReader reader = JobFileReader.open(file)) {
+            if (outDir != null) {
+                fileReport = new PrintWriter(Files.newBufferedWriter(outDir.resolve(file.getFileName() + ".result.txt"), StandardCharsets.UTF_8));
+            }
+            Iterator<JobRecord> records = reader.records().iterator();
+            while (records.hasNext()) {
+                JobRecord job = records.next();
+                int index = record++;
+                if (pending.size() >= parallelism) emit(pending.poll().join(), fileReport);
+                permits.acquireUninterruptibly();
+                pending.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return solve(file, index, job);
+                    } finally {
+                        permits.release();
+                    }
+                }, workers));
+                start = System.nanoTime();
+            }
+            if (record == 0) {
+                throw new IOException("Не удалось прочитать все необходимые параметры из файла.");
+            }
+            while (!pending.isEmpty()) emit(pending.poll().join(), fileReport);
+        } catch (IOException | UncheckedIOException ex) {
+            while (!pending.isEmpty()) emit(pending.poll().join(), fileReport);
+            String message = ex instanceof UncheckedIOException unchecked ? unchecked.getCause().getMessage() : ex.getMessage();
+            emit(new Outcome(file, record, null, null, null, null, message, System.nanoTime() - start), fileReport);
+        } finally {
+            if (fileReport != null) fileReport.close();
+        }
+    }
+
+    private Outcome solve(Path file, int record, JobRecord job) {
+        long start = System.nanoTime();
+        String itemTitle = null;
+        String methodTitle = null;
+        CancellationToken token = timeout == null ? CancellationToken.NONE : CancellationToken.withTimeout(timeout);
+        try {
+            Object result;
+            int item = job.itemIndex();
+            if (job.isEquation()) {
+                if (item != ParameterFile.CUSTOM_ITEM && (item < 0 || item >= FunctionSet.functions.length)) {
+                    throw new IllegalArgumentException("Неверный индекс функции: " + item);
+                }
+                if (job.methodIndex() < 0 || job.methodIndex() >= ProblemSolver.EQUATION_METHODS.length) {
+                    throw new IllegalArgumentException("Неверный индекс метода: " + job.methodIndex());
+                }
+                DualFunction f = item == ParameterFile.CUSTOM_ITEM
+                        ? ExpressionCompiler.compile(job.expression())
+                        : FunctionSet.functions[item];
+                itemTitle = item == ParameterFile.CUSTOM_ITEM ? job.expression() : FunctionSet.descriptions[item];
+                methodTitle = ProblemSolver.EQUATION_METHODS[job.methodIndex()];
+                result = ProblemSolver.solveEquation(f, job.methodIndex(), job.a(), job.b(), job.eps(), IterationListener.NONE, token);
+            } else {
+                if (item != ParameterFile.CUSTOM_ITEM && (item < 0 || item >= SystemFunctionSet.systems.length)) {
+                    throw new IllegalArgumentException("Неверный индекс системы: " + item);
+                }
+                SystemFunctionSet.SystemDefinition system = item == ParameterFile.CUSTOM_ITEM
+                        ? SystemFunctionSet.SystemDefinition.parse(job.expression())
+                        : SystemFunctionSet.systems[item];
+                itemTitle = system.description();
+                methodTitle = "Метод " + systemMethod;
+                result = ProblemSolver.solveSystem(system, systemMethod, job.a(), job.b(), job.eps(), IterationListener.NONE, token);
+            }
+            return new Outcome(file, record, job, itemTitle, methodTitle, result, null, System.nanoTime() - start);
+        } catch (RuntimeException ex) {
+            return new Outcome(file, record, job, itemTitle, methodTitle, null, String.valueOf(ex.getMessage()), System.nanoTime() - start);
+        }
+    }
+
+    /** Called by the file's reader thread only, so fileReport needs no lock. */
+    private void emit(Outcome outcome, PrintWriter fileReport) {
+        if (!outcome.success()) failures.incrementAndGet();
+        String summaryLine = summaryLine(outcome);
+
+        if (fileReport != null) {
+            writeReport(outcome, fileReport);
+            fileReport.println();
+        }
+        if (binary != null) {
+            JobRecord job = outcome.job();
+            synchronized (binary) {
+                if (job == null) {
+                    binary.add(-1, -1, null, -1, Double.NaN, Double.NaN, Double.NaN,
+                            null, null, null, outcome.error());
+                } else {
+                    binary.add(job.task(), job.itemIndex(), job.expression(),
+                            job.isEquation() ? job.methodIndex() : systemMethod.ordinal(), job.a(), job.b(), job.eps(),
+                            outcome.itemTitle(), outcome.methodTitle(), outcome.result(), outcome.error());
+                }
+            }
+        }
+
+        synchronized (reports) {
+            if (outDir == null) {
+                reports.println("=== " + outcome.file() + " #" + (outcome.record() + 1) + " ===");
+                writeReport(outcome, reports);
+                reports.println();
+                reports.flush();
+            }
+            if (summary == reports) {
+                reports.println(summaryLine);
+                reports.flush();
+            }
+        }
+        if (summary != reports) {
+            synchronized (summary) {
+                summary.println(summaryLine);
+                summary.flush();
+            }
+        }
+    }
+
+    private static void writeReport(Outcome outcome, PrintWriter writer) {
+        if (outcome.job() != null && outcome.itemTitle() != null) {
+            outcome.job().toParameterFile().writeReport(writer, outcome.itemTitle(), outcome.methodTitle(), outcome.text());
+        } else {
+            writer.println(outcome.text());
+        }
+    }
+
+    private static String summaryLine(Outcome outcome) {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append("\"file\":").append(quote(outcome.file().toString()));
+        sb.append(",\"record\":").append(outcome.record());
+        if (outcome.job() != null) {
+            sb.append(",\"task\":").append(quote(outcome.job().isEquation() ? "equation" : "system"));
+        }
+        sb.append(",\"success\":").append(outcome.success());
+        if (outcome.result() instanceof MethodResult mr) {
+            sb.append(",\"iterations\":").append(mr.getIterations());
+            sb.append(",\"root\":").append(number(mr.getRoot()));
+            sb.append(",\"value\":").append(number(mr.getFunctionValueAtRoot()));
+            if (!mr.isSuccess()) sb.append(",\"message\":").append(quote(mr.getMessage()));
+        } else if (outcome.result() instanceof SystemResult sr) {
+            sb.append(",\"iterations\":").append(sr.getIterations());
+            double[] solution = sr.getSolution();
+            if (solution != null) {
+                sb.append(",\"solution\":[");
+                for (int i = 0; i < solution.length; i++) {
+                    if (i > 0) sb.append(',');
+                    sb.append(number(solution[i]));
+                }
+                sb.append(']');
+            }
+            double[] residuals = sr.getResiduals();
+            if (residuals != null) {
+                double norm = 0.0;
+                for (double r : residuals) norm = Math.max(norm, Math.abs(r));
+                sb.append(",\"residual\":").append(number(norm));
+            }
+            if (!sr.isSuccess()) sb.append(",\"message\":").append(quote(sr.getMessage()));
+        } else if (outcome.error() != null) {
+            sb.append(",\"error\":").append(quote(outcome.error()));
+        }
+        sb.append(",\"millis\":").append(String.format(Locale.ROOT, "%.3f", outcome.nanos() / 1e6));
+        return sb.append('}').toString();
+    }
+
+    private static String number(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
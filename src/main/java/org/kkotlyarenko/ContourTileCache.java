@@ -0,0 +1,148 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.methods.CancellationToken;
+import org.kkotlyarenko.methods.NewtonSystemSolver;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Contours both equations of a system from a bounded LRU cache of evaluated tiles. The grid is a
+ * global lattice x = i*dx, y = j*dy whose steps are powers of two, so panning and zooming by
+ * whole octaves reuse the tiles already computed; only missing tiles are evaluated, in parallel,
+ * with f1 and f2 each evaluated in one batch call over the same lattice coordinates.
+ */
+final class ContourTileCache {
+
+    static final int TILE_CELLS = 64;
+    private static final int TILE_POINTS = TILE_CELLS + 1;
+    private static final int MAX_TILES = 768;
+
+    record Contours(MarchingSquares.Segments first, MarchingSquares.Segments second, int evaluatedTiles, int cachedTiles) {
+    }
+
+    private record Key(Object system, double dx, double dy, long tileX, long tileY) {
+    }
+
+    private record Tile(double[] first, double[] second) {
+    }
+
+    private final Map<Key, Tile> tiles = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Tile> eldest) {
+            return size() > MAX_TILES;
+        }
+    };
+
+    /**
+     * Contours f1 = 0 and f2 = 0 on [xmin, xmax] x [ymin, ymax] with between resolution/2 and
+     * resolution cells per axis. {@code system} identifies the pair of functions in the cache.
+     * Tiles still missing when the token stops are left blank and not cached.
+     */
+    Contours contour(Object system, NewtonSystemSolver.Function2Var f1, NewtonSystemSolver.Function2Var f2,
+                     double xmin, double xmax, double ymin, double ymax, int resolution, CancellationToken token) {
+        if (!(xmax > xmin) || !(ymax > ymin)) {
+            throw new IllegalArgumentException("Неверный диапазон построения.");
+        }
+        double dx = step(xmax - xmin, resolution);
+        double dy = step(ymax - ymin, resolution);
+        long iMin = (long) Math.floor(xmin / dx), iMax = (long) Math.ceil(xmax / dx);
+        long jMin = (long) Math.floor(ymin / dy), jMax = (long) Math.ceil(ymax / dy);
+        long txMin = Math.floorDiv(iMin, TILE_CELLS), txMax = Math.floorDiv(iMax - 1, TILE_CELLS);
+        long tyMin = Math.floorDiv(jMin, TILE_CELLS), tyMax = Math.floorDiv(jMax - 1, TILE_CELLS);
+
+        // Cached tiles are read with get() before anything is inserted: that marks them recently
+        // used, and visible[] keeps them even if an insert below evicts from a view this large.
+        List<Key> keys = new ArrayList<>();
+        List<Tile> cached = new ArrayList<>();
+        List<Integer> missing = new ArrayList<>();
+        for (long ty = tyMin; ty <= tyMax; ty++) {
+            for (long tx = txMin; tx <= txMax; tx++) {
+                Key key = new Key(system, dx, dy, tx, ty);
+                Tile tile = tiles.get(key);
+                if (tile == null) missing.add(keys.size());
+                keys.add(key);
+                cached.add(tile);
+            }
+        }
+
+        Tile[] visible = cached.toArray(new Tile[0]);
+        IntStream.range(0, missing.size()).parallel().forEach(k -> {
+            int index = missing.get(k);
+            visible[index] = token.shouldStop() ? null : evaluate(f1, f2, keys.get(index));
+        });
+        int evaluated = 0;
+        for (int index : missing) {
+            if (visible[index] == null) continue;
+            tiles.put(keys.get(index), visible[index]);
+            evaluated++;
+        }
+
+        MarchingSquares.Segments[][] traced = new MarchingSquares.Segments[visible.length][];
+        IntStream.range(0, visible.length).parallel()
+                .forEach(k -> traced[k] = visible[k] == null ? null : trace(visible[k], keys.get(k), iMin, iMax, jMin, jMax));
+
+        MarchingSquares.Segments first = new MarchingSquares.Segments(1024);
+        MarchingSquares.Segments second = new MarchingSquares.Segments(1024);
+        for (MarchingSquares.Segments[] pair : traced) {
+            if (pair == null) continue;
+            first.addAll(pair[0]);
+            second.addAll(pair[1]);
+        }
+        return new Contours(first, second, evaluated, keys.size() - missing.size());
+    }
+
+    int size() {
+        return tiles.size();
+    }
+
+    void clear() {
+        tiles.clear();
+    }
+
+    /** Smallest power of two not below span / resolution. */
+    static double step(double span, int resolution) {
+        double target = span / resolution;
+        double step = Math.scalb(1.0, Math.getExponent(target));
+        return step < target ? step * 2 : step;
+    }
+
+    private static Tile evaluate(NewtonSystemSolver.Function2Var f1, NewtonSystemSolver.Function2Var f2, Key key) {
+        int count = TILE_POINTS * TILE_POINTS;
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        long i0 = key.tileX() * TILE_CELLS;
+        long j0 = key.tileY() * TILE_CELLS;
+        for (int j = 0, p = 0; j < TILE_POINTS; j++) {
+            double y = (j0 + j) * key.dy();
+            for (int i = 0; i < TILE_POINTS; i++, p++) {
+                xs[p] = (i0 + i) * key.dx();
+                ys[p] = y;
+            }
+        }
+        double[] first = new double[count];
+        double[] second = new double[count];
+        MarchingSquares.valuesAt(f1, xs, ys, first, count);
+        MarchingSquares.valuesAt(f2, xs, ys, second, count);
+        return new Tile(first, second);
+    }
+
+    private static MarchingSquares.Segments[] trace(Tile tile, Key key, long iMin, long iMax, long jMin, long jMax) {
+        long i0 = key.tileX() * TILE_CELLS;
+        long j0 = key.tileY() * TILE_CELLS;
+        int fromCell = (int) Math.max(0, iMin - i0), toCell = (int) Math.min(TILE_CELLS, iMax - i0);
+        int fromRow = (int) Math.max(0, jMin - j0), toRow = (int) Math.min(TILE_CELLS, jMax - j0);
+        double x0 = i0 * key.dx();
+        MarchingSquares.Segments first = new MarchingSquares.Segments();
+        MarchingSquares.Segments second = new MarchingSquares.Segments();
+        for (int j = fromRow; j < toRow; j++) {
+            double y = (j0 + j) * key.dy();
+            MarchingSquares.traceRow(tile.first(), first, x0, key.dx(), TILE_POINTS, fromCell, toCell, y, key.dy(), j);
+            MarchingSquares.traceRow(tile.second(), second, x0, key.dx(), TILE_POINTS, fromCell, toCell, y, key.dy(), j);
+        }
+        return new MarchingSquares.Segments[]{first, second};
+    }
+}
@@ -0,0 +1,89 @@
+package org.kkotlyarenko;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.LogAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.chart.title.TextTitle;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.kkotlyarenko.results.ConvergenceHistory;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+
+public class ConvergencePanel extends JPanel {
+    private ChartPanel chartPanel;
+
+    public ConvergencePanel() {
+        setLayout(new BorderLayout());
+        setBackground(Color.WHITE);
+    }
+
+    public void setHistory(ConvergenceHistory history, String valueLabel, String stepLabel) {
+        XYSeries valueSeries = new XYSeries(valueLabel);
+        XYSeries stepSeries = new XYSeries(stepLabel);
+        for (int i = 0, n = history.size(); i < n; i++) {
+            int iteration = history.getIteration(i);
+            double value = Math.abs(history.getValue(i));
+            double step = history.getStep(i);
+            if (value > 0 && Double.isFinite(value)) valueSeries.add(iteration, value);
+            if (step > 0 && Double.isFinite(step)) stepSeries.add(iteration, step);
+        }
+
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        if (valueSeries.getItemCount() > 0) dataset.addSeries(valueSeries);
+        if (stepSeries.getItemCount() > 0) dataset.addSeries(stepSeries);
+        if (dataset.getSeriesCount() == 0) {
+            clear();
+            return;
+        }
+
+        JFreeChart chart = ChartFactory.createXYLineChart(
+                "Сходимость", "Итерация", "Величина (лог. шкала)", dataset,
+                PlotOrientation.VERTICAL, true, true, false
+        );
+        if (history.getStride() > 1) {
+            chart.addSubtitle(new TextTitle(String.format("Итераций: %d, показана каждая %d-я",
+                    history.getTotalIterations(), history.getStride())));
+        }
+
+        XYPlot plot = chart.getXYPlot();
+        LogAxis rangeAxis = new LogAxis("Величина (лог. шкала)");
+        rangeAxis.setSmallestValue(1e-300);
+        plot.setRangeAxis(rangeAxis);
+
+        XYLineAndShapeRenderer renderer = (XYLineAndShapeRenderer) plot.getRenderer();
+        Color[] colors = {Color.BLUE, new Color(0, 140, 0)};
+        for (int i = 0; i < dataset.getSeriesCount(); i++) {
+            renderer.setSeriesPaint(i, colors[i]);
+            renderer.setSeriesStroke(i, new BasicStroke(2.0f));
+            renderer.setSeriesShapesVisible(i, dataset.getItemCount(i) <= 100);
+            renderer.setSeriesShape(i, new Ellipse2D.Double(-3, -3, 6, 6));
+        }
+
+        plot.setBackgroundPaint(Color.WHITE);
+        plot.setRangeGridlinePaint(Color.LIGHT_GRAY);
+        plot.setDomainGridlinePaint(Color.LIGHT_GRAY);
+
+        if (chartPanel != null) remove(chartPanel);
+        chartPanel = new ChartPanel(chart);
+        chartPanel.setMouseWheelEnabled(true);
+        add(chartPanel, BorderLayout.CENTER);
+        revalidate();
+        repaint();
+    }
+
+    public void clear() {
+        if (chartPanel != null) {
+            remove(chartPanel);
+            chartPanel = null;
+            revalidate();
+            repaint();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.kkotlyarenko;
+
+import java.math.BigInteger;
+
+/**
+ * Correctly rounded conversion of w * 10^q (w up to 19 digits) to double without allocation.
+ * Exact small cases use Clinger's fast path, the rest the Eisel-Lemire algorithm; the rare
+ * inputs neither can decide (subnormals, ambiguous truncations) report NaN so the caller can
+ * fall back to Double.parseDouble.
+ */
+final class DecimalConverter {
+
+    private static final int MIN_EXPONENT = -342;
+    private static final int MAX_EXPONENT = 308;
+    private static final double[] EXACT_POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long[] POWERS_OF_FIVE = new long[2 * (MAX_EXPONENT - MIN_EXPONENT + 1)];
+
+    static {
+        BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+        BigInteger two127 = BigInteger.ONE.shiftLeft(127);
+        for (int q = MIN_EXPONENT; q <= MAX_EXPONENT; q++) {
+            BigInteger value;
+            if (q >= 0) {
+                value = BigInteger.valueOf(5).pow(q);
+                while (value.compareTo(two127) < 0) value = value.shiftLeft(1);
+                while (value.compareTo(two128) >= 0) value = value.shiftRight(1);
+            } else {
+                BigInteger power = BigInteger.valueOf(5).pow(-q);
+                int z = power.subtract(BigInteger.ONE).bitLength();
+                int b = q >= -27 ? z + 127 : 2 * z + 128;
+                value = BigInteger.ONE.shiftLeft(b).divide(power).add(BigInteger.ONE);
+                while (value.compareTo(two128) >= 0) value = value.shiftRight(1);
+            }
+            int index = 2 * (q - MIN_EXPONENT);
+            POWERS_OF_FIVE[index] = value.shiftRight(64).longValue();
+            POWERS_OF_FIVE[index + 1] = value.longValue();
+        }
+    }
+
+    private DecimalConverter() {
+    }
+
+    static double toDouble(long w, int q, boolean negative) {
+        double magnitude = magnitude(w, q);
+        return negative ? -magnitude : magnitude;
+    }
+
+    private static double magnitude(long w, int q) {
+        if (w == 0 || q < MIN_EXPONENT) return 0.0;
+        if (q > MAX_EXPONENT) return Double.POSITIVE_INFINITY;
+        if (w >= 0 && w <= (1L << 53) && q >= -22 && q <= 22) {
+            return q >= 0 ? w * EXACT_POWERS[q] : w / EXACT_POWERS[-q];
+        }
+
+        int leadingZeros = Long.numberOfLeadingZeros(w);
+        w <<= leadingZeros;
+        int index = 2 * (q - MIN_EXPONENT);
+        long high = Math.unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+        long low = w * POWERS_OF_FIVE[index];
+        if ((high & 0x1FF) == 0x1FF) {
+            long secondHigh = Math.unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+            long sum = low + secondHigh;
+            if (Long.compareUnsigned(secondHigh, sum) > 0) high++;
+            low = sum;
+            if (low == -1L && (q < -27 || q > 55)) return Double.NaN;
+        }
+
+        int upperBit = (int) (high >>> 63);
+        long mantissa = high >>> (upperBit + 9);
+        int power2 = (((152170 + 65536) * q) >> 16) + 63 + upperBit - leadingZeros + 1023;
+        if (power2 <= 0) return Double.NaN;
+
+        if (Long.compareUnsigned(low, 1) <= 0 && q >= -4 && q <= 23 && (mantissa & 3) == 1
+                && (mantissa << (upperBit + 9)) == high) {
+            mantissa &= ~1L;
+        }
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= (2L << 52)) {
+            mantissa = 1L << 52;
+            power2++;
+        }
+        mantissa &= ~(1L << 52);
+        if (power2 >= 0x7FF) return Double.POSITIVE_INFINITY;
+        return Double.longBitsToDouble(mantissa | ((long) power2 << 52));
+    }
+}
@@ -3,27 +3,48 @@ package org.kkotlyarenko;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
+import org.jfree.chart.annotations.XYDataImageAnnotation;
 import org.jfree.chart.annotations.XYPointerAnnotation;
 import org.jfree.chart.axis.NumberAxis;
 import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.chart.title.TextTitle;
+import org.jfree.chart.ui.Layer;
 import org.jfree.chart.ui.TextAnchor;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
+import org.kkotlyarenko.methods.CancellationToken;
+import org.kkotlyarenko.methods.DualFunction2Var;
 import org.kkotlyarenko.methods.NewtonSystemSolver;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.geom.Ellipse2D;
-import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.util.List;
 import java.util.function.DoubleUnaryOperator;
 
 public class GraphPanel extends JPanel {
     private ChartPanel chartPanel;
-    private final int RESOLUTION = 400;
-
-    private static final Shape DOT = new Rectangle2D.Double(-0.5, -0.5, 1, 1);
+    private static final int CONTOUR_RESOLUTION = 1000;
+    private static final int QUADTREE_RESOLUTION = 2048;
+    private static final int RESAMPLE_DELAY_MS = 150;
+    /** Plots are built on the EDT; slow functions get a coarser plot instead of a frozen window. */
+    private static final Duration PLOT_BUDGET = Duration.ofSeconds(2);
+    private Timer resampleTimer;
+    private final ContourTileCache contourCache = new ContourTileCache();
+    private boolean adaptiveContours;
+
+    private static final int BASIN_RESOLUTION = 1000;
+    private static final double BASIN_EPS = 1e-9;
+    private static final Duration BASIN_BUDGET = Duration.ofSeconds(30);
+    private boolean basinMap;
+    private SwingWorker<BasinOverlay, Void> basinWorker;
+    private CancellationToken basinToken;
+    private TextTitle basinTitle;
+
+    private record BasinOverlay(BasinMap.Result map, BufferedImage image) {
+    }
 
     public GraphPanel() {
         setLayout(new BorderLayout());
@@ -31,47 +52,19 @@ public class GraphPanel extends JPanel {
     }
 
     public void setFunction(DoubleUnaryOperator f, double xmin, double xmax, Double root) {
-        XYSeries series = new XYSeries("f(x)");
+        setFunction(f, xmin, xmax, root != null ? new double[]{root} : null);
+    }
+
+    public void setFunction(DoubleUnaryOperator f, double xmin, double xmax, double[] roots) {
         if (xmax <= xmin) {
             xmax = xmin + 1.0;
             System.err.println("Warning: Invalid range xmax <= xmin in setFunction. Using default range.");
         }
-        double step = (xmax - xmin) / (double)RESOLUTION;
-        if (step <= 0) {
-            step = 1.0 / RESOLUTION;
-        }
-
-        for (double x = xmin; x <= xmax; x += step) {
-            try {
-                double y = f.applyAsDouble(x);
-                if (Double.isFinite(y)) {
-                    if (series.getItemCount() > 0) {
-                        Double prevYObj = series.getY(series.getItemCount() - 1).doubleValue();
-                        if (prevYObj != null) {
-                            double prevY = prevYObj;
-                            double rangeY = Math.abs(y - prevY);
-                            double dynamicThreshold = Math.max(1.0, Math.abs(xmax-xmin)) * 50;
-                            if (rangeY > dynamicThreshold && Double.isFinite(rangeY) && dynamicThreshold > 1e-9) {
-                                series.add(x, null);
-                            }
-                        }
-                    }
-                    series.add(x, y);
-                } else {
-                    if (series.getItemCount() > 0 && series.getY(series.getItemCount() - 1) != null) {
-                        series.add(x, null);
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Error calculating f(" + x + "): " + e.getMessage());
-                if (series.getItemCount() > 0 && series.getY(series.getItemCount() - 1) != null) {
-                    series.add(x, null);
-                }
-            }
-        }
+        AdaptiveSampler.Samples samples = AdaptiveSampler.sample(f, xmin, xmax, AdaptiveSampler.DEFAULT_BUDGET,
+                CancellationToken.withTimeout(PLOT_BUDGET));
 
-        XYSeriesCollection dataset = new XYSeriesCollection();
-        dataset.addSeries(series);
+        PrimitiveXYDataset dataset = new PrimitiveXYDataset();
+        dataset.addSeries("f(x)", samples.x(), samples.y(), samples.size());
 
         JFreeChart chart = ChartFactory.createXYLineChart(
                 "График функции f(x)", "x", "f(x)", dataset,
@@ -88,39 +81,39 @@ public class GraphPanel extends JPanel {
         renderer.setDrawSeriesLineAsPath(true);
 
         plot.clearAnnotations();
-        int rootIndex = dataset.getSeriesIndex("Корень");
-        if (rootIndex >= 0) {
-            dataset.removeSeries(rootIndex);
-        }
-
 
-        if (root != null && Double.isFinite(root)) {
-            try {
-                double yAtRoot = f.applyAsDouble(root);
-                if (Double.isFinite(yAtRoot)) {
-                    XYPointerAnnotation annotation = new XYPointerAnnotation(
-                            String.format("Корень ≈ %.4f", root),
-                            root, yAtRoot, -Math.PI / 2.0);
-                    annotation.setTipRadius(10.0);
-                    annotation.setBaseRadius(25.0);
-                    annotation.setFont(new Font("SansSerif", Font.PLAIN, 12));
-                    annotation.setPaint(Color.RED);
-                    annotation.setTextAnchor(TextAnchor.BOTTOM_CENTER);
-                    plot.addAnnotation(annotation);
-
-                    XYSeries rootSeries = new XYSeries("Корень");
-                    rootSeries.add(root.doubleValue(), yAtRoot);
-                    dataset.addSeries(rootSeries);
-                    rootIndex = dataset.getSeriesIndex("Корень");
-                    if (rootIndex >= 0) {
-                        renderer.setSeriesPaint(rootIndex, Color.RED);
-                        renderer.setSeriesLinesVisible(rootIndex, false);
-                        renderer.setSeriesShapesVisible(rootIndex, true);
-                        renderer.setSeriesShape(rootIndex, new Ellipse2D.Double(-4, -4, 8, 8));
+        if (roots != null && roots.length > 0) {
+            double[] rootX = new double[roots.length];
+            double[] rootY = new double[roots.length];
+            int rootCount = 0;
+            for (double root : roots) {
+                if (!Double.isFinite(root)) continue;
+                try {
+                    double yAtRoot = f.applyAsDouble(root);
+                    if (Double.isFinite(yAtRoot)) {
+                        XYPointerAnnotation annotation = new XYPointerAnnotation(
+                                String.format("Корень ≈ %.4f", root),
+                                root, yAtRoot, -Math.PI / 2.0);
+                        annotation.setTipRadius(10.0);
+                        annotation.setBaseRadius(25.0);
+                        annotation.setFont(new Font("SansSerif", Font.PLAIN, 12));
+                        annotation.setPaint(Color.RED);
+                        annotation.setTextAnchor(TextAnchor.BOTTOM_CENTER);
+                        plot.addAnnotation(annotation);
+                        rootX[rootCount] = root;
+                        rootY[rootCount++] = yAtRoot;
                     }
+                } catch (Exception e) {
+                    System.err.println("Error calculating f(root): " + e.getMessage());
                 }
-            } catch (Exception e) {
-                System.err.println("Error calculating f(root): " + e.getMessage());
+            }
+
+            if (rootCount > 0) {
+                int rootIndex = dataset.addSeries("Корень", rootX, rootY, rootCount);
+                renderer.setSeriesPaint(rootIndex, Color.RED);
+                renderer.setSeriesLinesVisible(rootIndex, false);
+                renderer.setSeriesShapesVisible(rootIndex, true);
+                renderer.setSeriesShape(rootIndex, new Ellipse2D.Double(-4, -4, 8, 8));
             }
         }
 
@@ -133,6 +126,12 @@ public class GraphPanel extends JPanel {
         plot.setRangeZeroBaselinePaint(Color.BLACK);
 
 
+        if (samples.clipped()) {
+            double margin = 0.05 * (samples.yHigh() - samples.yLow());
+            plot.getRangeAxis().setRange(samples.yLow() - margin, samples.yHigh() + margin);
+        }
+        resampleOnZoom(plot, dataset, f, xmin, xmax);
+
         if (chartPanel != null) remove(chartPanel);
         chartPanel = new ChartPanel(chart);
         chartPanel.setMouseWheelEnabled(true);
@@ -143,9 +142,54 @@ public class GraphPanel extends JPanel {
         repaint();
     }
 
+    /** Re-samples only the visible domain after zooming; restoring auto range goes back to [xmin, xmax]. */
+    private void resampleOnZoom(XYPlot plot, PrimitiveXYDataset dataset, DoubleUnaryOperator f, double xmin, double xmax) {
+        if (resampleTimer != null) resampleTimer.stop();
+        NumberAxis axis = (NumberAxis) plot.getDomainAxis();
+        double[] sampled = {xmin, xmax};
+        resampleTimer = new Timer(RESAMPLE_DELAY_MS, e -> {
+            double lo = axis.isAutoRange() ? xmin : axis.getLowerBound();
+            double hi = axis.isAutoRange() ? xmax : axis.getUpperBound();
+            double tolerance = 1e-9 * (hi - lo);
+            if (!(hi > lo) || (Math.abs(lo - sampled[0]) <= tolerance && Math.abs(hi - sampled[1]) <= tolerance)) return;
+            sampled[0] = lo;
+            sampled[1] = hi;
+            AdaptiveSampler.Samples samples = AdaptiveSampler.sample(f, lo, hi, AdaptiveSampler.DEFAULT_BUDGET,
+                    CancellationToken.withTimeout(PLOT_BUDGET));
+            dataset.setSeries(0, samples.x(), samples.y(), samples.size());
+        });
+        resampleTimer.setRepeats(false);
+        Timer timer = resampleTimer;
+        axis.addChangeListener(event -> timer.restart());
+    }
+
+    /** Quadtree contouring: finer curves from far fewer evaluations, but nothing is cached between plots. */
+    public void setAdaptiveContours(boolean adaptive) {
+        this.adaptiveContours = adaptive;
+    }
+
+    /** Colours the plot by the root Newton's method reaches from each point; computed in the background. */
+    public void setBasinMap(boolean enabled) {
+        this.basinMap = enabled;
+    }
+
     public void setSystemFunctions(NewtonSystemSolver.Function2Var f1, NewtonSystemSolver.Function2Var f2,
                                    double xmin, double xmax, double ymin, double ymax,
                                    double[] solution) {
+        setSystemFunctions(List.of(f1, f2), f1, f2, xmin, xmax, ymin, ymax, solution);
+    }
+
+    /** Systems with the same description share cached contour tiles across replots. */
+    void setSystemFunctions(SystemFunctionSet.SystemDefinition system, double xmin, double xmax,
+                            double ymin, double ymax, double[] solution) {
+        setSystemFunctions(system.description(), system.f1(), system.f2(), xmin, xmax, ymin, ymax, solution);
+    }
+
+    private void setSystemFunctions(Object key, NewtonSystemSolver.Function2Var f1, NewtonSystemSolver.Function2Var f2,
+                                    double xmin, double xmax, double ymin, double ymax,
+                                    double[] solution) {
+        if (resampleTimer != null) resampleTimer.stop();
+        cancelBasinMap();
         if (xmax <= xmin || ymax <= ymin) {
             System.err.println("Invalid plot range provided for system.");
             clear();
@@ -156,12 +200,10 @@ public class GraphPanel extends JPanel {
             return;
         }
 
-        XYSeries s1 = generateContourNoNulls(f1, xmin, xmax, ymin, ymax, "f1(x,y)=0");
-        XYSeries s2 = generateContourNoNulls(f2, xmin, xmax, ymin, ymax, "f2(x,y)=0");
-
-        XYSeriesCollection dataset = new XYSeriesCollection();
-        if (s1 != null && s1.getItemCount() > 0) dataset.addSeries(s1);
-        if (s2 != null && s2.getItemCount() > 0) dataset.addSeries(s2);
+        PrimitiveXYDataset dataset = new PrimitiveXYDataset();
+        dataset.addSeries("f1(x,y)=0");
+        dataset.addSeries("f2(x,y)=0");
+        fillContours(key, f1, f2, dataset, xmin, xmax, ymin, ymax);
 
         JFreeChart chart = ChartFactory.createScatterPlot(
                 "Графики системы f1(x,y)=0, f2(x,y)=0", "x", "y", dataset,
@@ -169,43 +211,21 @@ public class GraphPanel extends JPanel {
         );
 
         XYPlot plot = chart.getXYPlot();
-        XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer();
-
-        int seriesCount = dataset.getSeriesCount();
-        for (int i = 0; i < seriesCount; i++) {
-            boolean isSolutionSeries = "Решение".equals(dataset.getSeriesKey(i));
-
-            renderer.setSeriesLinesVisible(i, false);
-            renderer.setSeriesShapesVisible(i, true);
-
-            if (isSolutionSeries) {
-                renderer.setSeriesShape(i, new Ellipse2D.Double(-5, -5, 10, 10));
-                renderer.setSeriesPaint(i, Color.GREEN.darker());
-            } else {
-                renderer.setSeriesShape(i, DOT);
-                if (dataset.getSeriesKey(i).toString().startsWith("f1")) renderer.setSeriesPaint(i, Color.RED);
-                else if (dataset.getSeriesKey(i).toString().startsWith("f2")) renderer.setSeriesPaint(i, Color.BLUE);
-            }
-        }
+        XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer(true, false);
+        renderer.setDrawSeriesLineAsPath(true);
+        renderer.setSeriesPaint(0, Color.RED);
+        renderer.setSeriesPaint(1, Color.BLUE);
+        renderer.setSeriesStroke(0, new BasicStroke(1.5f));
+        renderer.setSeriesStroke(1, new BasicStroke(1.5f));
 
         plot.clearAnnotations();
-        int solutionIndex = dataset.getSeriesIndex("Решение");
-        if (solutionIndex >= 0) {
-            dataset.removeSeries(solutionIndex);
-        }
 
         if (solution != null && solution.length == 2 && Double.isFinite(solution[0]) && Double.isFinite(solution[1])) {
-            XYSeries solutionSeries = new XYSeries("Решение");
-            solutionSeries.add(solution[0], solution[1]);
-            dataset.addSeries(solutionSeries);
-            solutionIndex = dataset.getSeriesIndex("Решение");
-
-            if (solutionIndex >= 0) {
-                renderer.setSeriesLinesVisible(solutionIndex, false);
-                renderer.setSeriesShapesVisible(solutionIndex, true);
-                renderer.setSeriesShape(solutionIndex, new Ellipse2D.Double(-5, -5, 10, 10));
-                renderer.setSeriesPaint(solutionIndex, Color.GREEN.darker());
-            }
+            int solutionIndex = dataset.addSeries("Решение", new double[]{solution[0]}, new double[]{solution[1]}, 1);
+            renderer.setSeriesLinesVisible(solutionIndex, false);
+            renderer.setSeriesShapesVisible(solutionIndex, true);
+            renderer.setSeriesShape(solutionIndex, new Ellipse2D.Double(-5, -5, 10, 10));
+            renderer.setSeriesPaint(solutionIndex, Color.GREEN.darker());
 
             XYPointerAnnotation annotation = new XYPointerAnnotation(
                     String.format("Решение ≈ (%.3f, %.3f)", solution[0], solution[1]),
@@ -231,6 +251,8 @@ public class GraphPanel extends JPanel {
         domainAxis.setRange(xmin, xmax);
         NumberAxis rangeAxis = (NumberAxis) plot.getRangeAxis();
         rangeAxis.setRange(ymin, ymax);
+        recontourOnZoom(chart, renderer, domainAxis, rangeAxis, key, f1, f2, dataset, new double[]{xmin, xmax, ymin, ymax});
+        if (basinMap) startBasinMap(chart, renderer, f1, f2, xmin, xmax, ymin, ymax);
 
         if (chartPanel != null) remove(chartPanel);
         chartPanel = new ChartPanel(chart);
@@ -243,105 +265,93 @@ public class GraphPanel extends JPanel {
     }
 
 
-    private XYSeries generateContourNoNulls(NewtonSystemSolver.Function2Var f, double xmin, double xmax, double ymin, double ymax, String seriesName) {
-        XYSeries series = new XYSeries(seriesName);
-        double dx = (xmax - xmin) / RESOLUTION;
-        double dy = (ymax - ymin) / RESOLUTION;
-        if (dx <= 0 || dy <= 0) {
-            System.err.println("Error in generateContour: dx or dy is not positive.");
-            return series;
+    /** Series 0 and 1 of {@code dataset} receive the f1 and f2 curves. */
+    private void fillContours(Object key, NewtonSystemSolver.Function2Var f1, NewtonSystemSolver.Function2Var f2,
+                              PrimitiveXYDataset dataset, double xmin, double xmax, double ymin, double ymax) {
+        CancellationToken token = CancellationToken.withTimeout(PLOT_BUDGET);
+        if (adaptiveContours) {
+            dataset.setSegments(0, QuadtreeContour.contour(f1, xmin, xmax, ymin, ymax, QUADTREE_RESOLUTION, token));
+            dataset.setSegments(1, QuadtreeContour.contour(f2, xmin, xmax, ymin, ymax, QUADTREE_RESOLUTION, token));
+            return;
         }
+        ContourTileCache.Contours contours = contourCache.contour(key, f1, f2, xmin, xmax, ymin, ymax, CONTOUR_RESOLUTION, token);
+        dataset.setSegments(0, contours.first());
+        dataset.setSegments(1, contours.second());
+    }
 
-        double[][] values = new double[RESOLUTION + 1][RESOLUTION + 1];
-        for (int i = 0; i <= RESOLUTION; i++) {
-            for (int j = 0; j <= RESOLUTION; j++) {
-                try {
-                    values[i][j] = f.apply(xmin + i * dx, ymin + j * dy);
-                    if (!Double.isFinite(values[i][j])) values[i][j] = Double.NaN;
-                } catch (Exception e) { values[i][j] = Double.NaN; }
+    /** Re-contours the visible window after pan/zoom; tiles already in the cache are not evaluated again. */
+    private void recontourOnZoom(JFreeChart chart, XYLineAndShapeRenderer renderer,
+                                 NumberAxis domainAxis, NumberAxis rangeAxis, Object key,
+                                 NewtonSystemSolver.Function2Var f1, NewtonSystemSolver.Function2Var f2,
+                                 PrimitiveXYDataset dataset, double[] view) {
+        resampleTimer = new Timer(RESAMPLE_DELAY_MS, e -> {
+            if (domainAxis.isAutoRange() || rangeAxis.isAutoRange()) return;
+            double xmin = domainAxis.getLowerBound(), xmax = domainAxis.getUpperBound();
+            double ymin = rangeAxis.getLowerBound(), ymax = rangeAxis.getUpperBound();
+            if (xmin == view[0] && xmax == view[1] && ymin == view[2] && ymax == view[3]) return;
+            view[0] = xmin;
+            view[1] = xmax;
+            view[2] = ymin;
+            view[3] = ymax;
+            fillContours(key, f1, f2, dataset, xmin, xmax, ymin, ymax);
+            if (basinMap) startBasinMap(chart, renderer, f1, f2, xmin, xmax, ymin, ymax);
+        });
+        resampleTimer.setRepeats(false);
+        Timer timer = resampleTimer;
+        domainAxis.addChangeListener(event -> timer.restart());
+        rangeAxis.addChangeListener(event -> timer.restart());
+    }
+
+    private void startBasinMap(JFreeChart chart, XYLineAndShapeRenderer renderer,
+                               NewtonSystemSolver.Function2Var f1, NewtonSystemSolver.Function2Var f2,
+                               double xmin, double xmax, double ymin, double ymax) {
+        cancelBasinMap();
+        if (!(f1 instanceof DualFunction2Var d1) || !(f2 instanceof DualFunction2Var d2)) return;
+        CancellationToken token = CancellationToken.withTimeout(BASIN_BUDGET);
+        basinToken = token;
+        basinWorker = new SwingWorker<>() {
+            @Override
+            protected BasinOverlay doInBackground() {
+                BasinMap.Result map = BasinMap.compute(d1, d2, xmin, xmax, ymin, ymax,
+                        BASIN_RESOLUTION, BASIN_RESOLUTION, BASIN_EPS, token);
+                return new BasinOverlay(map, BasinMap.render(map));
             }
-        }
 
-        for (int i = 0; i < RESOLUTION; i++) {
-            for (int j = 0; j < RESOLUTION; j++) {
-                double x = xmin + i * dx;
-                double y = ymin + j * dy;
-                double v00 = values[i][j];
-                double v10 = values[i + 1][j];
-                double v01 = values[i][j + 1];
-                double v11 = values[i + 1][j + 1];
-
-                if (Double.isNaN(v00) || Double.isNaN(v10) || Double.isNaN(v01) || Double.isNaN(v11)) continue;
-
-                int squareIndex = 0;
-                if (v00 > 0) squareIndex |= 1;
-                if (v10 > 0) squareIndex |= 2;
-                if (v11 > 0) squareIndex |= 4;
-                if (v01 > 0) squareIndex |= 8;
-
-                Point A = interpolate(x, y, x, y + dy, v00, v01);
-                Point B = interpolate(x, y, x + dx, y, v00, v10);
-                Point C = interpolate(x + dx, y, x + dx, y + dy, v10, v11);
-                Point D = interpolate(x, y + dy, x + dx, y + dy, v01, v11);
-
-                switch (squareIndex) {
-                    case 1: case 14: if(isValid(A)&&isValid(B)){ series.add(A.x, A.y); series.add(B.x, B.y); } break;
-                    case 2: case 13: if(isValid(B)&&isValid(C)){ series.add(B.x, B.y); series.add(C.x, C.y); } break;
-                    case 3: case 12: if(isValid(A)&&isValid(C)){ series.add(A.x, A.y); series.add(C.x, C.y); } break;
-                    case 4: case 11: if(isValid(C)&&isValid(D)){ series.add(C.x, C.y); series.add(D.x, D.y); } break;
-                    case 5:
-                        double centerX = x + dx / 2.0;
-                        double centerY = y + dy / 2.0;
-                        double centerVal = Double.NaN; try { centerVal = f.apply(centerX, centerY); } catch (Exception ignored) {}
-                        if (Double.isNaN(centerVal)) continue;
-                        if ((centerVal > 0) == (v00 > 0)) {
-                            if(isValid(A)&&isValid(D)){ series.add(A.x, A.y); series.add(D.x, D.y); }
-                            if(isValid(B)&&isValid(C)){ series.add(B.x, B.y); series.add(C.x, C.y); }
-                        } else {
-                            if(isValid(A)&&isValid(B)){ series.add(A.x, A.y); series.add(B.x, B.y); }
-                            if(isValid(C)&&isValid(D)){ series.add(C.x, C.y); series.add(D.x, D.y); }
-                        }
-                        break;
-                    case 6: case 9: if(isValid(B)&&isValid(D)){ series.add(B.x, B.y); series.add(D.x, D.y); } break;
-                    case 7: case 8: if(isValid(A)&&isValid(D)){ series.add(A.x, A.y); series.add(D.x, D.y); } break;
-                    case 10:
-                        centerX = x + dx / 2.0;
-                        centerY = y + dy / 2.0;
-                        centerVal = Double.NaN; try { centerVal = f.apply(centerX, centerY); } catch (Exception ignored) {}
-                        if (Double.isNaN(centerVal)) continue;
-                        if ((centerVal > 0) == (v00 > 0)) {
-                            if(isValid(A)&&isValid(B)){ series.add(A.x, A.y); series.add(B.x, B.y); }
-                            if(isValid(C)&&isValid(D)){ series.add(C.x, C.y); series.add(D.x, D.y); }
-                        } else {
-                            if(isValid(A)&&isValid(D)){ series.add(A.x, A.y); series.add(D.x, D.y); }
-                            if(isValid(B)&&isValid(C)){ series.add(B.x, B.y); series.add(C.x, C.y); }
-                        }
-                        break;
+            @Override
+            protected void done() {
+                if (token.isCancelled()) return;
+                try {
+                    BasinOverlay overlay = get();
+                    renderer.removeAnnotations();
+                    renderer.addAnnotation(new XYDataImageAnnotation(overlay.image(), xmin, ymin,
+                            xmax - xmin, ymax - ymin), Layer.BACKGROUND);
+                    BasinMap.Result map = overlay.map();
+                    if (basinTitle != null) chart.removeSubtitle(basinTitle);
+                    basinTitle = new TextTitle(String.format("Бассейны притяжения: корней %d, сходится %.1f%% точек%s",
+                            map.rootCount(), 100.0 * map.converged() / map.basins().length,
+                            token.isExpired() ? " (построение прервано по времени)" : ""));
+                    chart.addSubtitle(basinTitle);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    System.err.println("Error computing basin map: " + cause.getMessage());
                 }
             }
-        }
-        return series;
+        };
+        basinWorker.execute();
     }
 
-    private boolean isValid(Point p) {
-        return p != null && !Double.isNaN(p.x) && !Double.isNaN(p.y);
-    }
-    private Point interpolate(double x1, double y1, double x2, double y2, double val1, double val2) {
-        if (Double.isNaN(val1) || Double.isNaN(val2) || Math.signum(val1) == Math.signum(val2)) {
-            return new Point(Double.NaN, Double.NaN);
-        }
-        if (Math.abs(val1) < 1e-15) return new Point(x1, y1);
-        if (Math.abs(val2) < 1e-15) return new Point(x2, y2);
-        double t = Math.abs(val1) / (Math.abs(val1) + Math.abs(val2));
-        if (Double.isNaN(t)) {
-            return new Point(Double.NaN, Double.NaN);
-        }
-        double ix = x1 + t * (x2 - x1);
-        double iy = y1 + t * (y2 - y1);
-        return new Point(ix, iy);
+    private void cancelBasinMap() {
+        if (basinToken != null) basinToken.cancel();
+        basinToken = null;
+        basinWorker = null;
     }
-    private record Point(double x, double y) {}
+
     public void clear() {
+        cancelBasinMap();
+        if (resampleTimer != null) {
+            resampleTimer.stop();
+            resampleTimer = null;
+        }
         if (chartPanel != null) {
             remove(chartPanel);
             chartPanel = null;
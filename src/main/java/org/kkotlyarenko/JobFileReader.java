@@ -0,0 +1,345 @@
+package org.kkotlyarenko;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads job files holding any number of EQUATION_PARAMS / SYSTEM_PARAMS records. Lines between
+ * records (such as the report appended by the GUI) are skipped, so single-record files saved by
+ * MainGUI stay valid. The file is memory-mapped in windows and numbers are parsed straight from
+ * the mapped bytes; only numbers with more than 19 significant digits, and the formula of a
+ * custom item, go through a String.
+ */
+final class JobFileReader implements Closeable {
+
+    private static final long WINDOW_SIZE = 1L << 28;
+    private static final long MIN_SPLIT_SIZE = 1L << 20;
+    private static final int MAX_DIGITS = 19;
+
+    private static final byte[] MARKER_EQUATION = ParameterFile.FILE_MARKER_EQUATION.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MARKER_SYSTEM = ParameterFile.FILE_MARKER_SYSTEM.getBytes(StandardCharsets.US_ASCII);
+
+    private final FileChannel channel;
+    private final long size;
+
+    private JobFileReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    static JobFileReader open(Path path) throws IOException {
+        return new JobFileReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    long size() {
+        return size;
+    }
+
+    /** Sequential pass without allocating per record. */
+    void forEach(JobRecord.Consumer consumer) throws IOException {
+        Cursor cursor = new Cursor(0, size);
+        while (cursor.next()) {
+            cursor.emit(consumer);
+        }
+    }
+
+    /** Parallel streams split the file at record boundaries. */
+    Stream<JobRecord> records() {
+        return StreamSupport.stream(new RecordSpliterator(0, size), false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private final class RecordSpliterator implements Spliterator<JobRecord> {
+        private final Cursor cursor;
+
+        RecordSpliterator(long start, long end) {
+            this.cursor = new Cursor(start, end);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super JobRecord> action) {
+            try {
+                if (!cursor.next()) return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            action.accept(new JobRecord(cursor.task, cursor.item, cursor.expression, cursor.method, cursor.a, cursor.b, cursor.eps));
+            return true;
+        }
+
+        @Override
+        public Spliterator<JobRecord> trySplit() {
+            long from = cursor.pos;
+            long end = cursor.end;
+            if (end - from < MIN_SPLIT_SIZE) return null;
+            try {
+                long split = cursor.findMarkerLine(from + (end - from) / 2, end);
+                if (split < 0) return null;
+                RecordSpliterator prefix = new RecordSpliterator(from, split);
+                cursor.pos = split;
+                return prefix;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /** Owns the records whose marker line starts in [pos, end); the values may extend past end. */
+    private final class Cursor {
+        long pos;
+        final long end;
+
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long windowEnd;
+
+        private long lineStart;
+        private long lineEnd;
+
+        int task;
+        int item;
+        String expression;
+        int method;
+        double a;
+        double b;
+        double eps;
+
+        Cursor(long start, long end) {
+            this.pos = start;
+            this.end = end;
+        }
+
+        boolean next() throws IOException {
+            if (pos == 0 && size >= 3 && at(0) == (byte) 0xEF && at(1) == (byte) 0xBB && at(2) == (byte) 0xBF) {
+                pos = 3;
+            }
+            while (pos < end) {
+                nextLine();
+                int marker = marker();
+                if (marker < 0) continue;
+                task = marker;
+                item = (int) readLong();
+                expression = item == ParameterFile.CUSTOM_ITEM ? readText() : null;
+                method = task == ParameterFile.TASK_EQUATION ? (int) readLong() : -1;
+                a = readDouble();
+                b = readDouble();
+                eps = readDouble();
+                return true;
+            }
+            return false;
+        }
+
+        void emit(JobRecord.Consumer consumer) {
+            consumer.accept(task, item, expression, method, a, b, eps);
+        }
+
+        long findMarkerLine(long from, long limit) throws IOException {
+            long saved = pos;
+            pos = from;
+            if (pos > 0 && at(pos - 1) != '\n') {
+                while (pos < size && at(pos) != '\n') pos++;
+                pos++;
+            }
+            try {
+                while (pos < limit) {
+                    long start = pos;
+                    nextLine();
+                    if (marker() >= 0) return start;
+                }
+                return -1;
+            } finally {
+                pos = saved;
+            }
+        }
+
+        private void nextLine() {
+            long p = pos;
+            while (p < size && at(p) != '\n') p++;
+            lineStart = pos;
+            lineEnd = p;
+            pos = p + 1;
+            while (lineStart < lineEnd && isSpace(at(lineStart))) lineStart++;
+            while (lineEnd > lineStart && isSpace(at(lineEnd - 1))) lineEnd--;
+        }
+
+        private int marker() {
+            if (matches(MARKER_EQUATION)) return ParameterFile.TASK_EQUATION;
+            if (matches(MARKER_SYSTEM)) return ParameterFile.TASK_SYSTEM;
+            return -1;
+        }
+
+        private boolean matches(byte[] marker) {
+            if (lineEnd - lineStart != marker.length) return false;
+            for (int i = 0; i < marker.length; i++) {
+                if (at(lineStart + i) != marker[i]) return false;
+            }
+            return true;
+        }
+
+        private void nextValueLine() throws IOException {
+            while (pos < size) {
+                nextLine();
+                if (lineStart == lineEnd) continue;
+                if (lineEnd - lineStart >= 3 && at(lineStart) == '-' && at(lineStart + 1) == '-' && at(lineStart + 2) == '-') continue;
+                if (marker() >= 0) break;
+                return;
+            }
+            throw new IOException("Неполная запись перед смещением " + lineStart + ": не удалось прочитать все необходимые параметры.");
+        }
+
+        private long readLong() throws IOException {
+            nextValueLine();
+            long p = lineStart;
+            boolean negative = false;
+            if (at(p) == '-' || at(p) == '+') {
+                negative = at(p) == '-';
+                p++;
+            }
+            if (p == lineEnd) throw error("целое число");
+            long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+            long value = 0;
+            for (; p < lineEnd; p++) {
+                int digit = at(p) - '0';
+                if (digit < 0 || digit > 9) throw error("целое число");
+                value = value * 10 + digit;
+                if (value > limit) throw error("целое число в пределах int");
+            }
+            return negative ? -value : value;
+        }
+
+        private double readDouble() throws IOException {
+            nextValueLine();
+            long p = lineStart;
+            boolean negative = false;
+            if (at(p) == '-' || at(p) == '+') {
+                negative = at(p) == '-';
+                p++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean anyDigit = false;
+            boolean truncated = false;
+            for (; p < lineEnd; p++) {
+                int digit = at(p) - '0';
+                if (digit < 0 || digit > 9) break;
+                anyDigit = true;
+                if (digits < MAX_DIGITS) {
+                    mantissa = mantissa * 10 + digit;
+                    if (mantissa != 0) digits++;
+                } else {
+                    exponent++;
+                    truncated |= digit != 0;
+                }
+            }
+            if (p < lineEnd && (at(p) == '.' || at(p) == ',')) {
+                for (p++; p < lineEnd; p++) {
+                    int digit = at(p) - '0';
+                    if (digit < 0 || digit > 9) break;
+                    anyDigit = true;
+                    if (digits < MAX_DIGITS) {
+                        mantissa = mantissa * 10 + digit;
+                        if (mantissa != 0) digits++;
+                        exponent--;
+                    } else {
+                        truncated |= digit != 0;
+                    }
+                }
+            }
+            if (anyDigit && p < lineEnd && (at(p) == 'e' || at(p) == 'E')) {
+                p++;
+                boolean negativeExponent = false;
+                if (p < lineEnd && (at(p) == '-' || at(p) == '+')) {
+                    negativeExponent = at(p) == '-';
+                    p++;
+                }
+                int explicit = 0;
+                long exponentStart = p;
+                for (; p < lineEnd; p++) {
+                    int digit = at(p) - '0';
+                    if (digit < 0 || digit > 9) break;
+                    if (explicit < 100000) explicit = explicit * 10 + digit;
+                }
+                if (p == exponentStart) return slowDouble();
+                exponent += negativeExponent ? -explicit : explicit;
+            }
+            if (!anyDigit || p != lineEnd || truncated) {
+                return slowDouble();
+            }
+            double value = DecimalConverter.toDouble(mantissa, exponent, negative);
+            return Double.isNaN(value) ? slowDouble() : value;
+        }
+
+        private String readText() throws IOException {
+            nextValueLine();
+            return line();
+        }
+
+        private double slowDouble() throws IOException {
+            try {
+                return Double.parseDouble(line().replace(',', '.'));
+            } catch (NumberFormatException e) {
+                throw error("число");
+            }
+        }
+
+        private IOException error(String expected) {
+            byte[] bytes = new byte[(int) Math.min(lineEnd - lineStart, 64)];
+            for (int i = 0; i < bytes.length; i++) bytes[i] = at(lineStart + i);
+            return new IOException("Ожидалось " + expected + " по смещению " + lineStart + ": '"
+                    + new String(bytes, StandardCharsets.UTF_8) + "'");
+        }
+
+        private String line() {
+            byte[] bytes = new byte[(int) (lineEnd - lineStart)];
+            for (int i = 0; i < bytes.length; i++) bytes[i] = at(lineStart + i);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private byte at(long offset) {
+            if (offset < windowStart || offset >= windowEnd) {
+                map(offset);
+            }
+            return window.get((int) (offset - windowStart));
+        }
+
+        private void map(long offset) {
+            try {
+                long length = Math.min(WINDOW_SIZE, size - offset);
+                window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                windowStart = offset;
+                windowEnd = offset + length;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static boolean isSpace(byte c) {
+            return c == ' ' || c == '\t' || c == '\r';
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.kkotlyarenko;
+
+/** {@code expression} is non-null only for {@link ParameterFile#CUSTOM_ITEM}. */
+record JobRecord(int task, int itemIndex, String expression, int methodIndex, double a, double b, double eps) {
+
+    @FunctionalInterface
+    interface Consumer {
+        void accept(int task, int itemIndex, String expression, int methodIndex, double a, double b, double eps);
+    }
+
+    boolean isEquation() {
+        return task == ParameterFile.TASK_EQUATION;
+    }
+
+    ParameterFile toParameterFile() {
+        return new ParameterFile(task, itemIndex, expression, isEquation() ? methodIndex : -1,
+                Double.toString(a), Double.toString(b), Double.toString(eps));
+    }
+}
@@ -1,5 +1,6 @@
 package org.kkotlyarenko;
 
+import org.kkotlyarenko.expression.ExpressionCompiler;
 import org.kkotlyarenko.methods.*;
 import org.kkotlyarenko.results.*;
 
@@ -7,6 +8,8 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.io.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.DoubleUnaryOperator;
 
 
@@ -15,17 +18,22 @@ public class MainGUI extends JFrame {
     private final JComboBox<String> methodChoice;
     private final JComboBox<String> functionChoice;
     private final JComboBox<String> systemChoice;
+    private final JComboBox<JacobianUpdate> systemMethodChoice;
+    private final JCheckBox allRootsBox;
+    private final JCheckBox adaptiveContoursBox;
+    private final JCheckBox basinMapBox;
     private final JTextField aField;
     private final JTextField bField;
     private final JTextField epsField;
     private final JTextArea resultArea;
     private final GraphPanel graphPanel;
+    private final ConvergencePanel convergencePanel;
     private final JButton solveBtn;
+    private final JButton cancelBtn;
     private final JButton loadBtn;
     private final JButton saveBtn;
-
-    private static final String FILE_MARKER_EQUATION = "EQUATION_PARAMS";
-    private static final String FILE_MARKER_SYSTEM = "SYSTEM_PARAMS";
+    private Object lastResult;
+    private SolverWorker currentWorker;
 
     public MainGUI() {
         setTitle("Численные методы решения уравнений и систем");
@@ -46,14 +54,32 @@ public class MainGUI extends JFrame {
         inputPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
         inputPanel.setBackground(Color.WHITE);
 
-        taskChoice = new JComboBox<>(new String[]{"Нелинейное уравнение", "Система нелинейных уравнений"});
-        methodChoice = new JComboBox<>(new String[]{"Половинного деления", "Секущих", "Простой итерации"});
+        taskChoice = new JComboBox<>(ParameterFile.TASK_TITLES);
+        methodChoice = new JComboBox<>(ProblemSolver.EQUATION_METHODS);
         functionChoice = new JComboBox<>(FunctionSet.descriptions);
+        functionChoice.setEditable(true);
+        functionChoice.setToolTipText("Выберите уравнение из списка или введите свою формулу, например: x^3 - 2*x + 1");
         systemChoice = new JComboBox<>(SystemFunctionSet.descriptions);
+        systemChoice.setEditable(true);
+        systemChoice.setToolTipText("Выберите систему из списка или введите два уравнения через ';', например: x^2+y^2=4; y=x-1");
+        systemMethodChoice = new JComboBox<>(JacobianUpdate.values());
+        allRootsBox = new JCheckBox("Найти все корни на [a, b]");
+        allRootsBox.setOpaque(false);
+        allRootsBox.setAlignmentX(Component.LEFT_ALIGNMENT);
+        adaptiveContoursBox = new JCheckBox("Адаптивное построение кривых");
+        adaptiveContoursBox.setToolTipText("Уточнять сетку только вблизи кривых (квадродерево)");
+        adaptiveContoursBox.setOpaque(false);
+        adaptiveContoursBox.setAlignmentX(Component.LEFT_ALIGNMENT);
+        basinMapBox = new JCheckBox("Карта бассейнов притяжения");
+        basinMapBox.setToolTipText("Раскрасить область по корню, к которому сходится метод Ньютона из каждой точки");
+        basinMapBox.setOpaque(false);
+        basinMapBox.setAlignmentX(Component.LEFT_ALIGNMENT);
         aField = new JTextField("0");
         bField = new JTextField("1");
         epsField = new JTextField("0.0001");
         solveBtn = new JButton("Решить");
+        cancelBtn = new JButton("Отмена");
+        cancelBtn.setEnabled(false);
         loadBtn = new JButton("Загрузить из файла");
         saveBtn = new JButton("Сохранить в файл");
         resultArea = new JTextArea(8, 25);
@@ -69,6 +95,7 @@ public class MainGUI extends JFrame {
         inputPanel.add(labeled("1. Выберите задачу:", taskChoice));
         inputPanel.add(Box.createVerticalStrut(10));
         inputPanel.add(labeled("2. Выберите метод:", methodChoice));
+        inputPanel.add(labeled("2. Выберите метод:", systemMethodChoice));
         inputPanel.add(Box.createVerticalStrut(10));
         inputPanel.add(labeled("3. Выберите уравнение:", functionChoice));
         inputPanel.add(Box.createVerticalStrut(0));
@@ -79,12 +106,17 @@ public class MainGUI extends JFrame {
         inputPanel.add(labeled("5. Правая граница / y0 (или x1 для секущих):", bField));
         inputPanel.add(Box.createVerticalStrut(10));
         inputPanel.add(labeled("6. Точность ε:", epsField));
+        inputPanel.add(Box.createVerticalStrut(5));
+        inputPanel.add(allRootsBox);
+        inputPanel.add(adaptiveContoursBox);
+        inputPanel.add(basinMapBox);
         inputPanel.add(Box.createVerticalStrut(15));
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         buttonPanel.setBackground(Color.WHITE);
         buttonPanel.setOpaque(false);
         buttonPanel.add(solveBtn);
+        buttonPanel.add(cancelBtn);
         buttonPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
         inputPanel.add(buttonPanel);
         inputPanel.add(Box.createVerticalStrut(10));
@@ -105,8 +137,13 @@ public class MainGUI extends JFrame {
         inputPanel.add(Box.createVerticalGlue());
 
         graphPanel = new GraphPanel();
+        convergencePanel = new ConvergencePanel();
+
+        JTabbedPane chartTabs = new JTabbedPane();
+        chartTabs.addTab("График", graphPanel);
+        chartTabs.addTab("Сходимость", convergencePanel);
 
-        JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, inputPanel, graphPanel);
+        JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, inputPanel, chartTabs);
         splitPane.setDividerLocation(300);
         splitPane.setOneTouchExpandable(true);
         splitPane.setDividerSize(8);
@@ -115,6 +152,9 @@ public class MainGUI extends JFrame {
 
         taskChoice.addActionListener(e -> onTaskChanged());
         solveBtn.addActionListener(this::onSolveClicked);
+        cancelBtn.addActionListener(e -> onCancelClicked());
+        adaptiveContoursBox.addActionListener(e -> graphPanel.setAdaptiveContours(adaptiveContoursBox.isSelected()));
+        basinMapBox.addActionListener(e -> graphPanel.setBasinMap(basinMapBox.isSelected()));
         loadBtn.addActionListener(this::onLoadFromFileClicked);
         saveBtn.addActionListener(this::onSaveToFileClicked);
 
@@ -144,6 +184,12 @@ public class MainGUI extends JFrame {
         if(methodChoice!=null) methodChoice.setVisible(isEquation);
         if(functionChoice!=null) functionChoice.setVisible(isEquation);
         if(systemChoice!=null) systemChoice.setVisible(!isEquation);
+        if(allRootsBox!=null) allRootsBox.setVisible(isEquation);
+        if(adaptiveContoursBox!=null) adaptiveContoursBox.setVisible(!isEquation);
+        if(basinMapBox!=null) basinMapBox.setVisible(!isEquation);
+
+        setVisibleParent(methodChoice, isEquation);
+        setVisibleParent(systemMethodChoice, !isEquation);
 
         setVisibleParent(functionChoice, isEquation);
         setVisibleParent(systemChoice, !isEquation);
@@ -151,9 +197,13 @@ public class MainGUI extends JFrame {
         updateFieldLabels(isEquation);
 
         if (resultArea != null) resultArea.setText("");
+        lastResult = null;
         if (graphPanel != null) {
             graphPanel.clear();
         }
+        if (convergencePanel != null) {
+            convergencePanel.clear();
+        }
     }
 
     private void setVisibleParent(Component child, boolean visible) {
@@ -203,13 +253,73 @@ public class MainGUI extends JFrame {
         loadBtn.setEnabled(false);
         saveBtn.setEnabled(false);
         resultArea.setText("Вычисление...");
+        lastResult = null;
         if (graphPanel != null) graphPanel.clear();
+        if (convergencePanel != null) convergencePanel.clear();
 
-        SolverWorker worker = new SolverWorker();
-        worker.execute();
+        cancelBtn.setEnabled(true);
+        currentWorker = new SolverWorker();
+        currentWorker.execute();
     }
 
-    private class SolverWorker extends SwingWorker<Object, Void> {
+    /** The solver stops at its next iteration and the worker finishes normally with the last estimate. */
+    private void onCancelClicked() {
+        if (currentWorker != null) currentWorker.token.cancel();
+        cancelBtn.setEnabled(false);
+        resultArea.setText("Отмена...");
+    }
+
+    private record Progress(int iteration, double x, double error) {
+    }
+
+    private class SolverWorker extends SwingWorker<Object, Progress> {
+        private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+        private DoubleUnaryOperator function;
+        private SystemFunctionSet.SystemDefinition system;
+        private String comparison = "";
+        private SolveCost rootsCost;
+        /** Solve-and-plot session caches; null on paths that evaluate from several threads. */
+        private MemoizedFunction memo;
+        private MemoizedFunction2Var[] systemMemo;
+        private final ConvergenceHistory history = new ConvergenceHistory();
+        private final CancellationToken token = CancellationToken.create();
+        private long lastPublished = System.nanoTime();
+
+        private void onIteration(int iteration, double x, double value, double error) {
+            history.record(iteration, x, value, error);
+            long now = System.nanoTime();
+            if (now - lastPublished >= PROGRESS_INTERVAL_NANOS) {
+                lastPublished = now;
+                publish(new Progress(iteration, x, error));
+            }
+        }
+
+        private String cacheReport() {
+            long hits = 0, lookups = 0;
+            if (memo != null) {
+                EvaluationCache.Stats stats = memo.stats();
+                hits += stats.hits();
+                lookups += stats.hits() + stats.misses();
+            }
+            if (systemMemo != null) {
+                for (MemoizedFunction2Var m : systemMemo) {
+                    EvaluationCache.Stats stats = m.stats();
+                    hits += stats.hits();
+                    lookups += stats.hits() + stats.misses();
+                }
+            }
+            return lookups == 0 ? "" : String.format("\nКэш вычислений: попаданий %d из %d", hits, lookups);
+        }
+
+        @Override
+        protected void process(List<Progress> chunks) {
+            if (token.isCancelled()) return;
+            Progress last = chunks.get(chunks.size() - 1);
+            resultArea.setText(String.format("Вычисление... итерация %d\nx = %.10f\nоценка ошибки = %.3e",
+                    last.iteration(), last.x(), last.error()));
+        }
+
         @Override
         protected Object doInBackground() {
             int task = taskChoice.getSelectedIndex();
@@ -229,70 +339,77 @@ public class MainGUI extends JFrame {
 
 
             if (task == 0) {
-                if (methodChoice.getSelectedIndex() != 1 && a >= b) {
+                boolean allRoots = allRootsBox.isSelected();
+                if ((allRoots || methodChoice.getSelectedIndex() != 1) && a >= b) {
                     throw new IllegalArgumentException("Левая граница 'a' должна быть строго меньше правой 'b'.");
                 }
 
                 int methodIndex = methodChoice.getSelectedIndex();
                 int fIndex = functionChoice.getSelectedIndex();
-                DoubleUnaryOperator f = FunctionSet.functions[fIndex];
-                DoubleUnaryOperator df = FunctionSet.derivatives[fIndex];
-
-                switch (methodIndex) {
-                    case 0:
-                        double fa = f.applyAsDouble(a);
-                        double fb = f.applyAsDouble(b);
-                        if (Double.isNaN(fa) || Double.isNaN(fb) || Double.isInfinite(fa) || Double.isInfinite(fb)) {
-                            throw new ArithmeticException("Значение функции не определено или бесконечно на границах интервала.");
-                        }
-                        if (Math.signum(fa) * Math.signum(fb) >= 0) {
-                            throw new IllegalArgumentException("Значения функции на концах интервала одного знака. Метод половинного деления неприменим.");
-                        }
-                        return new BisectionMethod().solve(f, a, b, eps);
-                    case 1:
-                        return new SecantMethod().solve(f, a, b, eps);
-                    case 2:
-                        double midPoint = (a + b) / 2.0;
-                        double derivativeAtMid;
-                        try {
-                            derivativeAtMid = df.applyAsDouble(midPoint);
-                        } catch (Exception ex) {
-                            throw new ArithmeticException("Не удалось вычислить производную в середине интервала (" + midPoint +"): " + ex.getMessage());
-                        }
-
-                        if (Double.isNaN(derivativeAtMid) || Double.isInfinite(derivativeAtMid)) {
-                            throw new ArithmeticException("Производная не определена или бесконечна в середине интервала (" + midPoint +").");
-                        }
-                        if (Math.abs(derivativeAtMid) < 1e-12) {
-                            throw new ArithmeticException("Производная близка к нулю в середине интервала (" + midPoint +"), невозможно подобрать lambda.");
-                        }
-                        double lambda = -1.0 / derivativeAtMid;
-
-                        final double MAX_LAMBDA = 1e6;
-                        if (Math.abs(lambda) > MAX_LAMBDA) {
-                            System.err.println("Warning: Lambda is very large (|lambda| = " + Math.abs(lambda) + "), potential instability.");
-                            throw new ArithmeticException("Вычисленное значение lambda (" + lambda + ") слишком велико. Возможно, производная близка к нулю.");
-                        }
-
-
-                        DoubleUnaryOperator phi = x -> x + lambda * f.applyAsDouble(x);
-                        DoubleUnaryOperator dphi = x -> 1 + lambda * df.applyAsDouble(x);
+                DualFunction f = fIndex >= 0
+                        ? FunctionSet.functions[fIndex]
+                        : ExpressionCompiler.compile(String.valueOf(functionChoice.getEditor().getItem()));
+                function = f;
+
+                if (allRoots) {
+                    EquationSolver solver = switch (methodIndex) {
+                        case 0 -> new BisectionMethod(IterationListener.NONE, token);
+                        case 1 -> new SecantMethod(IterationListener.NONE, token);
+                        case 2 -> (g, left, right, tolerance) -> {
+                            try {
+                                return SimpleIterationMethod.forFunction(f, left, right, IterationListener.NONE, token).solve(g, left, right, tolerance);
+                            } catch (ArithmeticException ex) {
+                                return MethodResult.failure(ex.getMessage());
+                            }
+                        };
+                        case 3 -> new BrentMethod(IterationListener.NONE, token);
+                        case 4 -> new ItpMethod(IterationListener.NONE, token);
+                        case ProblemSolver.PORTFOLIO_METHOD -> ProblemSolver.portfolio(token);
+                        default -> throw new IllegalStateException("Неизвестный метод");
+                    };
+                    CountingFunction counted = new CountingFunction(f);
+                    CostMeter meter = new CostMeter();
+                    double[] roots = new AllRootsFinder(solver, AllRootsFinder.DEFAULT_SUBINTERVALS, token).findRoots(counted, a, b, eps);
+                    rootsCost = meter.stop(counted);
+                    return roots;
+                }
 
-                        SimpleIterationMethod siSolver = new SimpleIterationMethod(phi, dphi);
-                        return siSolver.solve(f, a, b, eps);
-                    default:
-                        throw new IllegalStateException("Неизвестный метод");
+                if (methodIndex == ProblemSolver.PORTFOLIO_METHOD) {
+                    CountingFunction counted = new CountingFunction(f);
+                    CostMeter meter = new CostMeter();
+                    PortfolioSolver.Outcome outcome = ProblemSolver.portfolio(token).race(String.valueOf(f), counted, a, b, eps);
+                    if (outcome.method() != null) {
+                        comparison = "\nПобедил метод: " + outcome.method();
+                    }
+                    return outcome.result().withCost(meter.stop(counted));
                 }
+                CountingFunction counted = new CountingFunction(f);
+                memo = new MemoizedFunction(counted);
+                function = memo;
+                return ProblemSolver.solveEquation(memo, counted, methodIndex, a, b, eps, this::onIteration, token).withHistory(history);
             } else {
                 int systemIndex = systemChoice.getSelectedIndex();
-                SystemFunctionSet.SystemDefinition sysDef = SystemFunctionSet.systems[systemIndex];
-
-                NewtonSystemSolver solver = new NewtonSystemSolver(
-                        sysDef.f1(), sysDef.f2(),
-                        sysDef.dF1dx(), sysDef.dF1dy(),
-                        sysDef.dF2dx(), sysDef.dF2dy()
-                );
-                return solver.solve(a, b, eps);
+                SystemFunctionSet.SystemDefinition sysDef = systemIndex >= 0
+                        ? SystemFunctionSet.systems[systemIndex]
+                        : SystemFunctionSet.SystemDefinition.parse(String.valueOf(systemChoice.getEditor().getItem()));
+                system = sysDef;
+                CountingFunction2Var counted1 = new CountingFunction2Var(sysDef.f1());
+                CountingFunction2Var counted2 = new CountingFunction2Var(sysDef.f2());
+                systemMemo = new MemoizedFunction2Var[]{new MemoizedFunction2Var(counted1), new MemoizedFunction2Var(counted2)};
+                sysDef = new SystemFunctionSet.SystemDefinition(sysDef.description(), systemMemo[0], systemMemo[1]);
+
+                JacobianUpdate update = (JacobianUpdate) systemMethodChoice.getSelectedItem();
+                if (update == null) update = JacobianUpdate.NEWTON;
+                SystemResult result = ProblemSolver.solveSystem(sysDef, counted1, counted2, update, a, b, eps, this::onIteration, token).withHistory(history);
+                // Newton refreshes the Jacobian on every iteration, so the saving follows from this run alone.
+                int jacobians = result.getJacobianEvaluations();
+                if (update != JacobianUpdate.NEWTON && jacobians > 0 && result.getCost() != null) {
+                    int avoided = result.getIterations() - jacobians;
+                    long derivativesPerJacobian = result.getCost().derivativeEvaluations() / jacobians;
+                    comparison = String.format("\nНе вычислено якобианов по сравнению с методом Ньютона: %d (частных производных: %d)",
+                            avoided, avoided * derivativesPerJacobian);
+                }
+                return result;
             }
         }
 
@@ -300,16 +417,15 @@ public class MainGUI extends JFrame {
         protected void done() {
             try {
                 Object result = get();
+                lastResult = result;
 
                 if (result instanceof MethodResult mr) {
-                    resultArea.setText(mr.toString());
+                    resultArea.setText(mr + comparison);
+                    if (mr.getHistory() != null) {
+                        convergencePanel.setHistory(mr.getHistory(), "|f(x_k)|", "|x_k - x_(k-1)|");
+                    }
                     if (mr.isSuccess()) {
-                        int fIndex = functionChoice.getSelectedIndex();
-                        if (fIndex < 0 || fIndex >= FunctionSet.functions.length) {
-                            System.err.println("Invalid function index in done(): " + fIndex);
-                            return;
-                        }
-                        DoubleUnaryOperator f = FunctionSet.functions[fIndex];
+                        DoubleUnaryOperator f = function;
                         double left, right;
                         try {
                             left = Double.parseDouble(aField.getText().replace(',', '.'));
@@ -324,19 +440,35 @@ public class MainGUI extends JFrame {
                         if (graphMax <= graphMin) graphMax = graphMin + 2.0;
 
                         graphPanel.setFunction(f, graphMin, graphMax, mr.getRoot());
+                        resultArea.append(cacheReport());
                     }
-                } else if (result instanceof SystemResult sr) {
-                    resultArea.setText(sr.toString());
-                    if (systemChoice == null || SystemFunctionSet.systems == null) {
-                        System.err.println("System choice or definitions are null in done().");
-                        return;
+                } else if (result instanceof double[] roots) {
+                    StringBuilder text = new StringBuilder();
+                    if (token.isCancelled()) {
+                        text.append("Поиск отменён, показаны корни, найденные до отмены.\n");
                     }
-                    int systemIndex = systemChoice.getSelectedIndex();
-                    if (systemIndex < 0 || systemIndex >= SystemFunctionSet.systems.length) {
-                        System.err.println("Invalid system index in done(): " + systemIndex);
-                        return;
+                    if (roots.length == 0) {
+                        text.append("Корни на интервале не найдены.");
+                    } else {
+                        text.append("Найдено корней: ").append(roots.length);
+                        for (int i = 0; i < roots.length; i++) {
+                            text.append(String.format("\nx%d = %.10f", i + 1, roots[i]));
+                        }
+                    }
+                    if (rootsCost != null) {
+                        text.append('\n').append(rootsCost.summary());
+                    }
+                    resultArea.setText(text.toString());
+
+                    double left = Double.parseDouble(aField.getText().replace(',', '.'));
+                    double right = Double.parseDouble(bField.getText().replace(',', '.'));
+                    graphPanel.setFunction(function, left - 1.0, right + 1.0, roots);
+                } else if (result instanceof SystemResult sr) {
+                    resultArea.setText(sr + comparison + cacheReport());
+                    if (sr.getHistory() != null) {
+                        convergencePanel.setHistory(sr.getHistory(), "max |F(x_k)|", "max |Δx_k|");
                     }
-                    SystemFunctionSet.SystemDefinition sysDef = SystemFunctionSet.systems[systemIndex];
+                    SystemFunctionSet.SystemDefinition sysDef = system;
                     double x0 = 0, y0 = 0, range = 5.0;
                     try {
                         x0 = Double.parseDouble(aField.getText().replace(',', '.'));
@@ -358,15 +490,15 @@ public class MainGUI extends JFrame {
                             if (solX > xmax) xmax = solX + range/2;
                             if (solY < ymin) ymin = solY - range/2;
                             if (solY > ymax) ymax = solY + range/2;
-                            graphPanel.setSystemFunctions(sysDef.f1(), sysDef.f2(), xmin, xmax, ymin, ymax, sr.getSolution());
+                            graphPanel.setSystemFunctions(sysDef, xmin, xmax, ymin, ymax, sr.getSolution());
                         } else {
-                            graphPanel.setSystemFunctions(sysDef.f1(), sysDef.f2(), xmin, xmax, ymin, ymax, null);
+                            graphPanel.setSystemFunctions(sysDef, xmin, xmax, ymin, ymax, null);
                         }
 
                     } else if (sr.getSolution() != null) {
-                        graphPanel.setSystemFunctions(sysDef.f1(), sysDef.f2(), xmin, xmax, ymin, ymax, sr.getSolution());
+                        graphPanel.setSystemFunctions(sysDef, xmin, xmax, ymin, ymax, sr.getSolution());
                     } else {
-                        graphPanel.setSystemFunctions(sysDef.f1(), sysDef.f2(), xmin, xmax, ymin, ymax, null);
+                        graphPanel.setSystemFunctions(sysDef, xmin, xmax, ymin, ymax, null);
                     }
                 } else {
                     resultArea.setText("Ошибка: Неожиданный тип результата.");
@@ -378,6 +510,8 @@ public class MainGUI extends JFrame {
                 System.err.println("Stack trace:");
                 cause.printStackTrace(System.err);
             } finally {
+                if (currentWorker == this) currentWorker = null;
+                cancelBtn.setEnabled(false);
                 solveBtn.setEnabled(true);
                 loadBtn.setEnabled(true);
                 saveBtn.setEnabled(true);
@@ -393,46 +527,17 @@ public class MainGUI extends JFrame {
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             File fileToLoad = fileChooser.getSelectedFile();
             try (BufferedReader reader = new BufferedReader(new FileReader(fileToLoad))) {
-                String line;
-                String marker = null;
-                Integer taskIndex = null, itemIndex = null, methodIndex = null;
-                String aVal = null, bVal = null, epsVal = null;
-
-                while ((line = reader.readLine()) != null) {
-                    line = line.trim();
-                    if (line.isEmpty()) continue;
-
-                    if (FILE_MARKER_EQUATION.equals(line)) {
-                        marker = FILE_MARKER_EQUATION;
-                        taskIndex = 0;
-                    } else if (FILE_MARKER_SYSTEM.equals(line)) {
-                        marker = FILE_MARKER_SYSTEM;
-                        taskIndex = 1;
-                    } else if (line.startsWith("---")) {
-                        continue;
-                    } else if (marker != null) {
-                        if (itemIndex == null) {
-                            itemIndex = Integer.parseInt(line);
-                        } else if (taskIndex == 0 && methodIndex == null) {
-                            methodIndex = Integer.parseInt(line);
-                        } else if (aVal == null) {
-                            aVal = line;
-                        } else if (bVal == null) {
-                            bVal = line;
-                        } else if (epsVal == null) {
-                            epsVal = line;
-                            break;
-                        }
-                    }
-                }
-
-                if (taskIndex == null || itemIndex == null || aVal == null || bVal == null || epsVal == null || (taskIndex == 0 && methodIndex == null) ) {
-                    throw new IOException("Не удалось прочитать все необходимые параметры из файла.");
-                }
+                ParameterFile params = ParameterFile.read(reader);
+                int taskIndex = params.task();
+                int itemIndex = params.itemIndex();
+                int methodIndex = params.methodIndex();
 
                 taskChoice.setSelectedIndex(taskIndex);
                 if (taskIndex == 0) {
-                    if(itemIndex >= 0 && itemIndex < functionChoice.getItemCount()) {
+                    if (itemIndex == ParameterFile.CUSTOM_ITEM) {
+                        ExpressionCompiler.compile(params.expression());
+                        functionChoice.setSelectedItem(params.expression());
+                    } else if(itemIndex >= 0 && itemIndex < functionChoice.getItemCount()) {
                         functionChoice.setSelectedIndex(itemIndex);
                     } else {
                         System.err.println("Загружен неверный индекс функции: " + itemIndex);
@@ -445,23 +550,27 @@ public class MainGUI extends JFrame {
                         methodChoice.setSelectedIndex(0);
                     }
                 } else {
-                    if(itemIndex >= 0 && itemIndex < systemChoice.getItemCount()) {
+                    if (itemIndex == ParameterFile.CUSTOM_ITEM) {
+                        SystemFunctionSet.SystemDefinition.parse(params.expression());
+                        systemChoice.setSelectedItem(params.expression());
+                    } else if(itemIndex >= 0 && itemIndex < systemChoice.getItemCount()) {
                         systemChoice.setSelectedIndex(itemIndex);
                     } else {
                         System.err.println("Загружен неверный индекс системы: " + itemIndex);
                         systemChoice.setSelectedIndex(0);
                     }
                 }
-                aField.setText(aVal);
-                bField.setText(bVal);
-                epsField.setText(epsVal);
+                aField.setText(params.a());
+                bField.setText(params.b());
+                epsField.setText(params.eps());
 
                 onTaskChanged();
                 resultArea.setText("Параметры загружены из " + fileToLoad.getName());
                 if (graphPanel != null) graphPanel.clear();
+                if (convergencePanel != null) convergencePanel.clear();
 
 
-            } catch (IOException | NumberFormatException | IndexOutOfBoundsException ex) {
+            } catch (IOException | IllegalArgumentException | IndexOutOfBoundsException ex) {
                 JOptionPane.showMessageDialog(this,
                         "Не удалось загрузить файл: " + ex.getMessage() + "\nУбедитесь, что файл имеет правильный формат.",
                         "Ошибка загрузки", JOptionPane.ERROR_MESSAGE);
@@ -477,7 +586,14 @@ public class MainGUI extends JFrame {
 
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             File fileToSave = fileChooser.getSelectedFile();
-            if (!fileToSave.getName().toLowerCase().endsWith(".txt")) {
+            boolean binary = fileToSave.getName().toLowerCase().endsWith(ResultFile.EXTENSION);
+            if (binary && !(lastResult instanceof MethodResult || lastResult instanceof SystemResult)) {
+                JOptionPane.showMessageDialog(this,
+                        "В бинарный файл можно сохранить только результат решения уравнения или системы.",
+                        "Ошибка сохранения", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (!binary && !fileToSave.getName().toLowerCase().endsWith(".txt")) {
                 fileToSave = new File(fileToSave.getParentFile(), fileToSave.getName() + ".txt");
             }
 
@@ -493,46 +609,44 @@ public class MainGUI extends JFrame {
             }
 
 
-            try (PrintWriter writer = new PrintWriter(new FileWriter(fileToSave))) {
-                int task = taskChoice.getSelectedIndex();
-                writer.println(task == 0 ? FILE_MARKER_EQUATION : FILE_MARKER_SYSTEM);
-
-                if (task == 0) {
-                    writer.println(functionChoice.getSelectedIndex());
-                    writer.println(methodChoice.getSelectedIndex());
-                } else {
-                    writer.println(systemChoice.getSelectedIndex());
-                }
-                writer.println(aField.getText());
-                writer.println(bField.getText());
-                writer.println(epsField.getText());
-
-                writer.println();
-                writer.println("--- Исходные данные ---");
-                writer.println("Задача: " + taskChoice.getSelectedItem());
-
-                if (task == 0) {
-                    writer.println("Уравнение: " + functionChoice.getSelectedItem());
-                    writer.println("Метод: " + methodChoice.getSelectedItem());
-                    writer.println("Параметры:");
-                    writer.println("  a/x0 = " + aField.getText());
-                    writer.println("  b/x1 = " + bField.getText());
-                    writer.println("  eps  = " + epsField.getText());
-                } else {
-                    writer.println("Система: " + systemChoice.getSelectedItem());
-                    writer.println("Метод: Метод Ньютона");
-                    writer.println("Параметры:");
-                    writer.println("  x0 = " + aField.getText());
-                    writer.println("  y0 = " + bField.getText());
-                    writer.println("  eps = " + epsField.getText());
+            int task = taskChoice.getSelectedIndex();
+            JComboBox<String> itemChoice = task == ParameterFile.TASK_EQUATION ? functionChoice : systemChoice;
+            int itemIndex = itemChoice.getSelectedIndex();
+            String expression = itemIndex < 0 ? String.valueOf(itemChoice.getEditor().getItem()).trim() : null;
+            if (itemIndex < 0 && expression.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Введите формулу или выберите пункт из списка.",
+                        "Ошибка сохранения", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            ParameterFile params = new ParameterFile(task, itemIndex < 0 ? ParameterFile.CUSTOM_ITEM : itemIndex, expression,
+                    task == ParameterFile.TASK_EQUATION ? methodChoice.getSelectedIndex() : -1,
+                    aField.getText(), bField.getText(), epsField.getText());
+            if (binary) {
+                try (ResultFile.Writer writer = ResultFile.Writer.create(fileToSave.toPath())) {
+                    if (task == ParameterFile.TASK_EQUATION) {
+                        writer.add(params, methodChoice.getSelectedIndex(), String.valueOf(functionChoice.getSelectedItem()),
+                                String.valueOf(methodChoice.getSelectedItem()), lastResult, null);
+                    } else {
+                        writer.add(params, systemMethodChoice.getSelectedIndex(), String.valueOf(systemChoice.getSelectedItem()),
+                                "Метод " + systemMethodChoice.getSelectedItem(), lastResult, null);
+                    }
+                    resultArea.append("\n\nРезультат сохранен в файл: " + fileToSave.getName());
+                } catch (IOException ex) {
+                    JOptionPane.showMessageDialog(this,
+                            "Не удалось сохранить файл: " + ex.getMessage(),
+                            "Ошибка сохранения", JOptionPane.ERROR_MESSAGE);
+                    resultArea.append("\n\nОшибка сохранения файла.");
                 }
+                return;
+            }
 
-                writer.println("\n--- Результат ---");
-                String[] resultLines = resultArea.getText().split("\\n");
-                for (String line : resultLines) {
-                    if (!line.contains("Результат сохранен в файл:")) {
-                        writer.println(line);
-                    }
+            try (PrintWriter writer = new PrintWriter(new FileWriter(fileToSave))) {
+                if (task == ParameterFile.TASK_EQUATION) {
+                    params.writeReport(writer, String.valueOf(functionChoice.getSelectedItem()),
+                            String.valueOf(methodChoice.getSelectedItem()), resultArea.getText());
+                } else {
+                    params.writeReport(writer, String.valueOf(systemChoice.getSelectedItem()),
+                            "Метод " + systemMethodChoice.getSelectedItem(), resultArea.getText());
                 }
 
                 resultArea.append("\n\nРезультат сохранен в файл: " + fileToSave.getName());
@@ -559,43 +673,4 @@ public class MainGUI extends JFrame {
         }
         SwingUtilities.invokeLater(MainGUI::new);
     }
-
-    static class SystemFunctionSet {
-        record SystemDefinition( String description, NewtonSystemSolver.Function2Var f1, NewtonSystemSolver.Function2Var f2, NewtonSystemSolver.Function2Var dF1dx, NewtonSystemSolver.Function2Var dF1dy, NewtonSystemSolver.Function2Var dF2dx, NewtonSystemSolver.Function2Var dF2dy) {}
-        static String[] descriptions = {
-                "sin(x)+2y=2; x+cos(y−1)=0.7",
-                "x²+y²=4; y=x²-2",
-                "e^(x-y)+x*y=1; x²+y²=4"
-        };
-        static SystemDefinition[] systems = {
-                new SystemDefinition(
-                        descriptions[0],
-                        (x, y) -> Math.sin(x) + 2 * y - 2,
-                        (x, y) -> x + Math.cos(y - 1) - 0.7,
-                        (x, y) -> Math.cos(x),
-                        (x, y) -> 2.0,
-                        (x, y) -> 1.0,
-                        (x, y) -> -Math.sin(y - 1)
-                ),
-                new SystemDefinition(
-                        descriptions[1],
-                        (x, y) -> x * x + y * y - 4,
-                        (x, y) -> y - x*x + 2,
-                        (x, y) -> 2 * x,
-                        (x, y) -> 2 * y,
-                        (x, y) -> -2 * x,
-                        (x, y) -> 1.0
-                ),
-                new SystemDefinition(
-                        descriptions[2],
-                        (x, y) -> Math.exp(x - y) + x * y - 1,
-                        (x, y) -> x * x + y * y - 4,
-                        (x, y) -> Math.exp(x - y) + y,
-                        (x, y) -> -Math.exp(x - y) + x,
-                        (x, y) -> 2 * x,
-                        (x, y) -> 2 * y
-                )
-        };
-    }
-
 }
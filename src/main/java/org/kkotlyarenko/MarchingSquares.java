@@ -0,0 +1,249 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.methods.BatchFunction2Var;
+import org.kkotlyarenko.methods.NewtonSystemSolver;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Zero level set of f(x, y) on a uniform grid. The grid is evaluated in row strips on the
+ * common fork/join pool into one flat array (row j = y index), one batch call per strip, then
+ * cells are traced in strips as well; only cells whose corner sign mask is mixed produce segments. Saddles are resolved
+ * with the mean of the four corners instead of another evaluation.
+ */
+final class MarchingSquares {
+
+    private static final int STRIP_ROWS = 16;
+
+    /** Growable buffer of segments stored as x1, y1, x2, y2. */
+    static final class Segments {
+        private double[] data;
+        private int size;
+
+        Segments() {
+            this(64);
+        }
+
+        Segments(int capacity) {
+            data = new double[Math.max(4, capacity)];
+        }
+
+        void add(double x1, double y1, double x2, double y2) {
+            if (size + 4 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[size] = x1;
+            data[size + 1] = y1;
+            data[size + 2] = x2;
+            data[size + 3] = y2;
+            size += 4;
+        }
+
+        void addAll(Segments other) {
+            if (size + other.size > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + other.size));
+            }
+            System.arraycopy(other.data, 0, data, size, other.size);
+            size += other.size;
+        }
+
+        int count() {
+            return size / 4;
+        }
+
+        double x1(int segment) {
+            return data[4 * segment];
+        }
+
+        double y1(int segment) {
+            return data[4 * segment + 1];
+        }
+
+        double x2(int segment) {
+            return data[4 * segment + 2];
+        }
+
+        double y2(int segment) {
+            return data[4 * segment + 3];
+        }
+    }
+
+    private MarchingSquares() {
+    }
+
+    static Segments contour(NewtonSystemSolver.Function2Var f, double xmin, double xmax, double ymin, double ymax,
+                            int nx, int ny) {
+        double dx = (xmax - xmin) / nx;
+        double dy = (ymax - ymin) / ny;
+        double[] values = evaluate(f, xmin, dx, nx, ymin, dy, ny);
+        return trace(values, xmin, dx, nx, ymin, dy, ny);
+    }
+
+    /** Values at (xmin + i*dx, ymin + j*dy) for i in [0, nx], j in [0, ny], stored at j*(nx+1)+i; NaN where undefined. */
+    static double[] evaluate(NewtonSystemSolver.Function2Var f, double xmin, double dx, int nx,
+                             double ymin, double dy, int ny) {
+        double[] values = new double[(nx + 1) * (ny + 1)];
+        ForkJoinPool.commonPool().invoke(new EvaluateTask(f, values, xmin, dx, nx, ymin, dy, 0, ny + 1));
+        return values;
+    }
+
+    static Segments trace(double[] values, double xmin, double dx, int nx, double ymin, double dy, int ny) {
+        return ForkJoinPool.commonPool().invoke(new TraceTask(values, xmin, dx, nx, ymin, dy, 0, ny));
+    }
+
+    static double value(NewtonSystemSolver.Function2Var f, double x, double y) {
+        try {
+            double v = f.apply(x, y);
+            return Double.isFinite(v) ? v : Double.NaN;
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+
+    /** out[i] = value(f, xs[i], ys[i]), in one batch call unless f throws, then point by point. */
+    static void valuesAt(NewtonSystemSolver.Function2Var f, double[] xs, double[] ys, double[] out, int count) {
+        try {
+            BatchFunction2Var.of(f).applyBatch(xs, ys, out, count);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < count; i++) out[i] = value(f, xs[i], ys[i]);
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            if (!Double.isFinite(out[i])) out[i] = Double.NaN;
+        }
+    }
+
+    private static final class EvaluateTask extends RecursiveAction {
+        private final NewtonSystemSolver.Function2Var f;
+        private final double[] values;
+        private final double xmin, dx, ymin, dy;
+        private final int nx, fromRow, toRow;
+
+        EvaluateTask(NewtonSystemSolver.Function2Var f, double[] values, double xmin, double dx, int nx,
+                     double ymin, double dy, int fromRow, int toRow) {
+            this.f = f;
+            this.values = values;
+            this.xmin = xmin;
+            this.dx = dx;
+            this.nx = nx;
+            this.ymin = ymin;
+            this.dy = dy;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow > STRIP_ROWS) {
+                int mid = (fromRow + toRow) >>> 1;
+                invokeAll(new EvaluateTask(f, values, xmin, dx, nx, ymin, dy, fromRow, mid),
+                        new EvaluateTask(f, values, xmin, dx, nx, ymin, dy, mid, toRow));
+                return;
+            }
+            int stride = nx + 1;
+            int count = (toRow - fromRow) * stride;
+            double[] xs = new double[count];
+            double[] ys = new double[count];
+            for (int j = fromRow, p = 0; j < toRow; j++) {
+                double y = ymin + j * dy;
+                for (int i = 0; i <= nx; i++, p++) {
+                    xs[p] = xmin + i * dx;
+                    ys[p] = y;
+                }
+            }
+            double[] strip = new double[count];
+            valuesAt(f, xs, ys, strip, count);
+            System.arraycopy(strip, 0, values, fromRow * stride, count);
+        }
+    }
+
+    private static final class TraceTask extends RecursiveTask<Segments> {
+        private final double[] values;
+        private final double xmin, dx, ymin, dy;
+        private final int nx, fromRow, toRow;
+
+        TraceTask(double[] values, double xmin, double dx, int nx, double ymin, double dy, int fromRow, int toRow) {
+            this.values = values;
+            this.xmin = xmin;
+            this.dx = dx;
+            this.nx = nx;
+            this.ymin = ymin;
+            this.dy = dy;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected Segments compute() {
+            if (toRow - fromRow > STRIP_ROWS) {
+                int mid = (fromRow + toRow) >>> 1;
+                TraceTask upper = new TraceTask(values, xmin, dx, nx, ymin, dy, mid, toRow);
+                upper.fork();
+                Segments lower = new TraceTask(values, xmin, dx, nx, ymin, dy, fromRow, mid).compute();
+                lower.addAll(upper.join());
+                return lower;
+            }
+            Segments segments = new Segments();
+            for (int j = fromRow; j < toRow; j++) {
+                traceRow(values, segments, xmin, dx, nx + 1, 0, nx, ymin + j * dy, dy, j);
+            }
+            return segments;
+        }
+    }
+
+    /** Traces cells [fromCell, toCell) of row j in a grid of {@code stride} points per row starting at xmin. */
+    static void traceRow(double[] values, Segments out, double xmin, double dx, int stride, int fromCell, int toCell,
+                         double y, double dy, int j) {
+        int bottom = j * stride;
+        int top = bottom + stride;
+        for (int i = fromCell; i < toCell; i++) {
+            double v00 = values[bottom + i];
+            double v10 = values[bottom + i + 1];
+            double v01 = values[top + i];
+            double v11 = values[top + i + 1];
+
+            int mask = (v00 > 0 ? 1 : 0) | (v10 > 0 ? 2 : 0) | (v11 > 0 ? 4 : 0) | (v01 > 0 ? 8 : 0);
+            if (mask == 0 || mask == 15) continue;
+            if (Double.isNaN(v00) || Double.isNaN(v10) || Double.isNaN(v01) || Double.isNaN(v11)) continue;
+
+            addCell(out, mask, xmin + i * dx, y, dx, dy, v00, v10, v01, v11);
+        }
+    }
+
+    /**
+     * Edges: A = left (v00-v01), B = bottom (v00-v10), C = right (v10-v11), D = top (v01-v11).
+     * Every edge used by a mask has endpoints on opposite sides, so the crossing always exists.
+     */
+    static void addCell(Segments out, int mask, double x, double y, double dx, double dy,
+                        double v00, double v10, double v01, double v11) {
+        switch (mask) {
+            case 1, 14 -> out.add(x, cross(y, dy, v00, v01), cross(x, dx, v00, v10), y);
+            case 2, 13 -> out.add(cross(x, dx, v00, v10), y, x + dx, cross(y, dy, v10, v11));
+            case 3, 12 -> out.add(x, cross(y, dy, v00, v01), x + dx, cross(y, dy, v10, v11));
+            case 4, 11 -> out.add(x + dx, cross(y, dy, v10, v11), cross(x, dx, v01, v11), y + dy);
+            case 6, 9 -> out.add(cross(x, dx, v00, v10), y, cross(x, dx, v01, v11), y + dy);
+            case 7, 8 -> out.add(x, cross(y, dy, v00, v01), cross(x, dx, v01, v11), y + dy);
+            case 5, 10 -> {
+                boolean centerPositive = (v00 + v10 + v01 + v11) > 0;
+                boolean cornerPositive = v00 > 0;
+                if ((centerPositive == cornerPositive) == (mask == 5)) {
+                    out.add(x, cross(y, dy, v00, v01), cross(x, dx, v01, v11), y + dy);
+                    out.add(cross(x, dx, v00, v10), y, x + dx, cross(y, dy, v10, v11));
+                } else {
+                    out.add(x, cross(y, dy, v00, v01), cross(x, dx, v00, v10), y);
+                    out.add(x + dx, cross(y, dy, v10, v11), cross(x, dx, v01, v11), y + dy);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static double cross(double start, double length, double a, double b) {
+        double t = Math.abs(a) / (Math.abs(a) + Math.abs(b));
+        return start + t * length;
+    }
+}
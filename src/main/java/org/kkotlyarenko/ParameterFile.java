@@ -0,0 +1,118 @@
+package org.kkotlyarenko;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/** {@code expression} is the text of a formula typed by the user, and null for built-in items. */
+record ParameterFile(int task, int itemIndex, String expression, int methodIndex, String a, String b, String eps) {
+
+    static final String FILE_MARKER_EQUATION = "EQUATION_PARAMS";
+    static final String FILE_MARKER_SYSTEM = "SYSTEM_PARAMS";
+
+    static final int TASK_EQUATION = 0;
+    static final int TASK_SYSTEM = 1;
+    static final String[] TASK_TITLES = {"Нелинейное уравнение", "Система нелинейных уравнений"};
+
+    /** itemIndex of a formula typed by the user; the file stores its text on the next line. */
+    static final int CUSTOM_ITEM = -1;
+
+    ParameterFile {
+        if (itemIndex == CUSTOM_ITEM && (expression == null || expression.isBlank())) {
+            throw new IllegalArgumentException("Не задана формула пользовательской функции.");
+        }
+        if (itemIndex != CUSTOM_ITEM) expression = null;
+    }
+
+    ParameterFile(int task, int itemIndex, int methodIndex, String a, String b, String eps) {
+        this(task, itemIndex, null, methodIndex, a, b, eps);
+    }
+
+    static ParameterFile read(BufferedReader reader) throws IOException {
+        String line;
+        String marker = null;
+        Integer taskIndex = null, itemIndex = null, methodIndex = null;
+        String expression = null, aVal = null, bVal = null, epsVal = null;
+
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) continue;
+
+            if (FILE_MARKER_EQUATION.equals(line)) {
+                marker = FILE_MARKER_EQUATION;
+                taskIndex = TASK_EQUATION;
+            } else if (FILE_MARKER_SYSTEM.equals(line)) {
+                marker = FILE_MARKER_SYSTEM;
+                taskIndex = TASK_SYSTEM;
+            } else if (line.startsWith("---")) {
+                continue;
+            } else if (marker != null) {
+                if (itemIndex == null) {
+                    itemIndex = Integer.parseInt(line);
+                } else if (itemIndex == CUSTOM_ITEM && expression == null) {
+                    expression = line;
+                } else if (taskIndex == TASK_EQUATION && methodIndex == null) {
+                    methodIndex = Integer.parseInt(line);
+                } else if (aVal == null) {
+                    aVal = line;
+                } else if (bVal == null) {
+                    bVal = line;
+                } else if (epsVal == null) {
+                    epsVal = line;
+                    break;
+                }
+            }
+        }
+
+        if (taskIndex == null || itemIndex == null || (itemIndex == CUSTOM_ITEM && expression == null) || aVal == null || bVal == null || epsVal == null || (taskIndex == TASK_EQUATION && methodIndex == null) ) {
+            throw new IOException("Не удалось прочитать все необходимые параметры из файла.");
+        }
+        return new ParameterFile(taskIndex, itemIndex, expression, methodIndex == null ? -1 : methodIndex, aVal, bVal, epsVal);
+    }
+
+    boolean isEquation() {
+        return task == TASK_EQUATION;
+    }
+
+    void writeReport(PrintWriter writer, String itemTitle, String methodTitle, String resultText) {
+        writer.println(isEquation() ? FILE_MARKER_EQUATION : FILE_MARKER_SYSTEM);
+
+        writer.println(itemIndex);
+        if (expression != null) {
+            writer.println(expression);
+        }
+        if (isEquation()) {
+            writer.println(methodIndex);
+        }
+        writer.println(a);
+        writer.println(b);
+        writer.println(eps);
+
+        writer.println();
+        writer.println("--- Исходные данные ---");
+        writer.println("Задача: " + TASK_TITLES[task]);
+
+        if (isEquation()) {
+            writer.println("Уравнение: " + itemTitle);
+            writer.println("Метод: " + methodTitle);
+            writer.println("Параметры:");
+            writer.println("  a/x0 = " + a);
+            writer.println("  b/x1 = " + b);
+            writer.println("  eps  = " + eps);
+        } else {
+            writer.println("Система: " + itemTitle);
+            writer.println("Метод: " + methodTitle);
+            writer.println("Параметры:");
+            writer.println("  x0 = " + a);
+            writer.println("  y0 = " + b);
+            writer.println("  eps = " + eps);
+        }
+
+        writer.println("\n--- Результат ---");
+        for (String line : resultText.split("\\n")) {
+            if (!line.contains("Результат сохранен в файл:")) {
+                writer.println(line);
+            }
+        }
+    }
+}
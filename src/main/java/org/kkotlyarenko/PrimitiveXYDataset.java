@@ -0,0 +1,120 @@
+package org.kkotlyarenko;
+
+import org.jfree.data.DomainOrder;
+import org.jfree.data.xy.AbstractXYDataset;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * XYDataset over flat double arrays, used instead of XYSeries so large plots do not allocate an
+ * XYDataItem per point or keep it sorted. A NaN y (or x) marks a gap: line renderers break the
+ * curve there. The arrays are taken over, not copied; callers must not modify them afterwards.
+ */
+final class PrimitiveXYDataset extends AbstractXYDataset {
+
+    private static final double[] EMPTY = new double[0];
+
+    private static final class Series {
+        final Comparable<?> key;
+        double[] x = EMPTY;
+        double[] y = EMPTY;
+        int size;
+        boolean ascending = true;
+
+        Series(Comparable<?> key) {
+            this.key = key;
+        }
+    }
+
+    private final List<Series> series = new ArrayList<>();
+
+    /** Adds an empty series and returns its index. */
+    int addSeries(Comparable<?> key) {
+        series.add(new Series(key));
+        fireDatasetChanged();
+        return series.size() - 1;
+    }
+
+    int addSeries(Comparable<?> key, double[] x, double[] y, int size) {
+        series.add(new Series(key));
+        setSeries(series.size() - 1, x, y, size);
+        return series.size() - 1;
+    }
+
+    void setSeries(int index, double[] x, double[] y, int size) {
+        if (size < 0 || size > x.length || size > y.length) {
+            throw new IllegalArgumentException("Размер серии " + size + " превышает длину массивов.");
+        }
+        Series s = series.get(index);
+        s.x = x;
+        s.y = y;
+        s.size = size;
+        s.ascending = true;
+        for (int i = 1; i < size && s.ascending; i++) {
+            s.ascending = x[i] >= x[i - 1];
+        }
+        fireDatasetChanged();
+    }
+
+    /** Stores each segment as its two endpoints followed by a gap, so lines are drawn only within segments. */
+    void setSegments(int index, MarchingSquares.Segments segments) {
+        int count = segments.count();
+        double[] x = new double[3 * count];
+        double[] y = new double[3 * count];
+        for (int i = 0, p = 0; i < count; i++, p += 3) {
+            x[p] = segments.x1(i);
+            y[p] = segments.y1(i);
+            x[p + 1] = segments.x2(i);
+            y[p + 1] = segments.y2(i);
+            x[p + 2] = segments.x2(i);
+            y[p + 2] = Double.NaN;
+        }
+        setSeries(index, x, y, x.length);
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return series.size();
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Comparable getSeriesKey(int index) {
+        return series.get(index).key;
+    }
+
+    @Override
+    public DomainOrder getDomainOrder() {
+        for (Series s : series) {
+            if (!s.ascending) return DomainOrder.NONE;
+        }
+        return DomainOrder.ASCENDING;
+    }
+
+    @Override
+    public int getItemCount(int index) {
+        return series.get(index).size;
+    }
+
+    @Override
+    public double getXValue(int index, int item) {
+        return series.get(index).x[item];
+    }
+
+    @Override
+    public double getYValue(int index, int item) {
+        return series.get(index).y[item];
+    }
+
+    @Override
+    public Number getX(int index, int item) {
+        return getXValue(index, item);
+    }
+
+    @Override
+    public Number getY(int index, int item) {
+        double y = getYValue(index, item);
+        return Double.isNaN(y) ? null : y;
+    }
+}
@@ -0,0 +1,114 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.methods.*;
+import org.kkotlyarenko.results.MethodResult;
+import org.kkotlyarenko.results.SystemResult;
+
+import java.util.List;
+
+final class ProblemSolver {
+
+    static final String[] EQUATION_METHODS = {"Половинного деления", "Секущих", "Простой итерации", "Брента", "ITP",
+            "Портфель (гонка методов)"};
+    static final int PORTFOLIO_METHOD = 5;
+
+    /** Shared by every portfolio run in this process, so a method that keeps winning on a function runs alone. */
+    static final PortfolioSolver.Wins PORTFOLIO_WINS = new PortfolioSolver.Wins();
+
+    private ProblemSolver() {
+    }
+
+    static MethodResult solveEquation(DualFunction f, int methodIndex, double a, double b, double eps,
+                                      IterationListener listener) {
+        return solveEquation(f, methodIndex, a, b, eps, listener, CancellationToken.NONE);
+    }
+
+    static MethodResult solveEquation(DualFunction f, int methodIndex, double a, double b, double eps,
+                                      IterationListener listener, CancellationToken token) {
+        CountingFunction counted = new CountingFunction(f);
+        return solveEquation(counted, counted, methodIndex, a, b, eps, listener, token);
+    }
+
+    /**
+     * Solves with f, which must reach the function through {@code counter}; a cache between the
+     * two then keeps its hits out of the evaluation counts.
+     */
+    static MethodResult solveEquation(DualFunction f, CountingFunction counter, int methodIndex, double a, double b,
+                                      double eps, IterationListener listener, CancellationToken token) {
+        if (eps <= 0) {
+            throw new IllegalArgumentException("Точность ε должна быть положительным числом.");
+        }
+        if (methodIndex != 1 && a >= b) {
+            throw new IllegalArgumentException("Левая граница 'a' должна быть строго меньше правой 'b'.");
+        }
+        CostMeter meter = new CostMeter();
+        MethodResult result = dispatch(f, methodIndex, a, b, eps, listener, token);
+        return result.withCost(meter.stop(counter));
+    }
+
+    private static MethodResult dispatch(DualFunction f, int methodIndex, double a, double b, double eps,
+                                         IterationListener listener, CancellationToken token) {
+        switch (methodIndex) {
+            case 0:
+                return new BisectionMethod(listener, token).solve(f, a, b, eps);
+            case 1:
+                return new SecantMethod(listener, token).solve(f, a, b, eps);
+            case 2:
+                return SimpleIterationMethod.forFunction(f, a, b, listener, token).solve(f, a, b, eps);
+            case 3:
+                return new BrentMethod(listener, token).solve(f, a, b, eps);
+            case 4:
+                return new ItpMethod(listener, token).solve(f, a, b, eps);
+            case PORTFOLIO_METHOD:
+                return portfolio(token).solve(f, a, b, eps);
+            default:
+                throw new IllegalStateException("Неизвестный метод");
+        }
+    }
+
+    /** Every other method, each without a listener since they run concurrently. */
+    static PortfolioSolver portfolio(CancellationToken token) {
+        return new PortfolioSolver(List.of(
+                new PortfolioSolver.Method(EQUATION_METHODS[0], (f, a, b, t) -> new BisectionMethod(IterationListener.NONE, t)),
+                new PortfolioSolver.Method(EQUATION_METHODS[1], (f, a, b, t) -> new SecantMethod(IterationListener.NONE, t)),
+                new PortfolioSolver.Method(EQUATION_METHODS[2], (f, a, b, t) -> {
+                    if (!(f instanceof DualFunction dual)) {
+                        throw new IllegalArgumentException("Методу простой итерации нужна производная функции.");
+                    }
+                    return SimpleIterationMethod.forFunction(dual, a, b, IterationListener.NONE, t);
+                }),
+                new PortfolioSolver.Method(EQUATION_METHODS[3], (f, a, b, t) -> new BrentMethod(IterationListener.NONE, t)),
+                new PortfolioSolver.Method(EQUATION_METHODS[4], (f, a, b, t) -> new ItpMethod(IterationListener.NONE, t))
+        ), PortfolioSolver.QualityCheck.DEFAULT, PORTFOLIO_WINS, token);
+    }
+
+    static SystemResult solveSystem(SystemFunctionSet.SystemDefinition system, JacobianUpdate update,
+                                    double x0, double y0, double eps, IterationListener listener) {
+        return solveSystem(system, update, x0, y0, eps, listener, CancellationToken.NONE);
+    }
+
+    static SystemResult solveSystem(SystemFunctionSet.SystemDefinition system, JacobianUpdate update,
+                                    double x0, double y0, double eps, IterationListener listener,
+                                    CancellationToken token) {
+        CountingFunction2Var f1 = new CountingFunction2Var(system.f1());
+        CountingFunction2Var f2 = new CountingFunction2Var(system.f2());
+        return solveSystem(new SystemFunctionSet.SystemDefinition(system.description(), f1, f2), f1, f2,
+                update, x0, y0, eps, listener, token);
+    }
+
+    /** Like the counted solveEquation, with one counter per equation; Jacobians are counted by the solver. */
+    static SystemResult solveSystem(SystemFunctionSet.SystemDefinition system, CountingFunction2Var f1Counter,
+                                    CountingFunction2Var f2Counter, JacobianUpdate update, double x0, double y0,
+                                    double eps, IterationListener listener, CancellationToken token) {
+        if (eps <= 0) {
+            throw new IllegalArgumentException("Точность ε должна быть положительным числом.");
+        }
+        CostMeter meter = new CostMeter();
+        SystemResult result = update == JacobianUpdate.NEWTON
+                ? new NewtonSystemSolver(system.f1(), system.f2(), listener, token).solve(x0, y0, eps)
+                : NewtonVectorSolver.forSystem(system.f1(), system.f2(), update, listener, token).solve(new double[]{x0, y0}, eps);
+        return result.withCost(meter.stop(f1Counter.functionEvaluations() + f2Counter.functionEvaluations(),
+                f1Counter.derivativeEvaluations() + f2Counter.derivativeEvaluations(),
+                Math.max(0, result.getJacobianEvaluations())));
+    }
+}
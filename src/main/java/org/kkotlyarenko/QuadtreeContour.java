@@ -0,0 +1,147 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.methods.CancellationToken;
+import org.kkotlyarenko.methods.NewtonSystemSolver;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Adaptive zero level set of f(x, y). A coarse uniform grid is evaluated first; each coarse cell
+ * is then split into quadrants only while its corner signs differ or its corner values are close
+ * enough to zero (relative to their spread) that the level set could pass through it. Segments
+ * come from leaves at the finest level only, so neighbouring leaves share edges and the curve has
+ * no cracks. The coarse grid is divided into quadrants on the fork/join pool.
+ */
+final class QuadtreeContour {
+
+    static final int COARSE_CELLS = 64;
+    private static final int REGION_CELLS = 64;
+    private static final double RANGE_FACTOR = 1.0;
+
+    private QuadtreeContour() {
+    }
+
+    /**
+     * Refines down to cells of at most span/resolution on each axis. Once the token stops, cells
+     * are traced at the level they have reached, which gives a coarser but complete curve.
+     */
+    static MarchingSquares.Segments contour(NewtonSystemSolver.Function2Var f, double xmin, double xmax,
+                                            double ymin, double ymax, int resolution, CancellationToken token) {
+        if (!(xmax > xmin) || !(ymax > ymin) || resolution < 1) {
+            throw new IllegalArgumentException("Неверный диапазон построения.");
+        }
+        int depth = depth(resolution);
+        double dx = (xmax - xmin) / COARSE_CELLS;
+        double dy = (ymax - ymin) / COARSE_CELLS;
+        double[] coarse = MarchingSquares.evaluate(f, xmin, dx, COARSE_CELLS, ymin, dy, COARSE_CELLS);
+        return ForkJoinPool.commonPool().invoke(
+                new RegionTask(f, token, coarse, xmin, dx, ymin, dy, depth, 0, COARSE_CELLS, 0, COARSE_CELLS));
+    }
+
+    /** Number of halvings so that COARSE_CELLS * 2^depth >= resolution. */
+    static int depth(int resolution) {
+        int ratio = (resolution + COARSE_CELLS - 1) / COARSE_CELLS;
+        return 32 - Integer.numberOfLeadingZeros(ratio - 1);
+    }
+
+    private static final class RegionTask extends RecursiveTask<MarchingSquares.Segments> {
+        private final NewtonSystemSolver.Function2Var f;
+        private final CancellationToken token;
+        private final double[] coarse;
+        private final double xmin, dx, ymin, dy;
+        private final int depth, fromCol, toCol, fromRow, toRow;
+
+        RegionTask(NewtonSystemSolver.Function2Var f, CancellationToken token, double[] coarse, double xmin, double dx,
+                   double ymin, double dy, int depth, int fromCol, int toCol, int fromRow, int toRow) {
+            this.f = f;
+            this.token = token;
+            this.coarse = coarse;
+            this.xmin = xmin;
+            this.dx = dx;
+            this.ymin = ymin;
+            this.dy = dy;
+            this.depth = depth;
+            this.fromCol = fromCol;
+            this.toCol = toCol;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected MarchingSquares.Segments compute() {
+            int cols = toCol - fromCol, rows = toRow - fromRow;
+            if (cols * rows > REGION_CELLS) {
+                int midCol = cols > 1 ? (fromCol + toCol) >>> 1 : toCol;
+                int midRow = rows > 1 ? (fromRow + toRow) >>> 1 : toRow;
+                RegionTask[] quadrants = {
+                        quadrant(fromCol, midCol, fromRow, midRow), quadrant(midCol, toCol, fromRow, midRow),
+                        quadrant(fromCol, midCol, midRow, toRow), quadrant(midCol, toCol, midRow, toRow)
+                };
+                for (int q = 1; q < quadrants.length; q++) {
+                    if (quadrants[q] != null) quadrants[q].fork();
+                }
+                MarchingSquares.Segments segments = quadrants[0].compute();
+                for (int q = 1; q < quadrants.length; q++) {
+                    if (quadrants[q] != null) segments.addAll(quadrants[q].join());
+                }
+                return segments;
+            }
+            MarchingSquares.Segments segments = new MarchingSquares.Segments();
+            int stride = COARSE_CELLS + 1;
+            for (int j = fromRow; j < toRow; j++) {
+                int bottom = j * stride, top = bottom + stride;
+                for (int i = fromCol; i < toCol; i++) {
+                    refine(f, token, segments, xmin + i * dx, ymin + j * dy, dx, dy,
+                            coarse[bottom + i], coarse[bottom + i + 1], coarse[top + i], coarse[top + i + 1], depth);
+                }
+            }
+            return segments;
+        }
+
+        private RegionTask quadrant(int c0, int c1, int r0, int r1) {
+            if (c0 >= c1 || r0 >= r1) return null;
+            return new RegionTask(f, token, coarse, xmin, dx, ymin, dy, depth, c0, c1, r0, r1);
+        }
+    }
+
+    private static void refine(NewtonSystemSolver.Function2Var f, CancellationToken token, MarchingSquares.Segments out,
+                               double x, double y, double w, double h,
+                               double v00, double v10, double v01, double v11, int depth) {
+        if (!mayContainZero(v00, v10, v01, v11)) return;
+        if (depth == 0 || token.shouldStop()) {
+            if (Double.isNaN(v00) || Double.isNaN(v10) || Double.isNaN(v01) || Double.isNaN(v11)) return;
+            int mask = (v00 > 0 ? 1 : 0) | (v10 > 0 ? 2 : 0) | (v11 > 0 ? 4 : 0) | (v01 > 0 ? 8 : 0);
+            if (mask != 0 && mask != 15) MarchingSquares.addCell(out, mask, x, y, w, h, v00, v10, v01, v11);
+            return;
+        }
+        double hw = 0.5 * w, hh = 0.5 * h;
+        double bottom = MarchingSquares.value(f, x + hw, y);
+        double left = MarchingSquares.value(f, x, y + hh);
+        double center = MarchingSquares.value(f, x + hw, y + hh);
+        double right = MarchingSquares.value(f, x + w, y + hh);
+        double top = MarchingSquares.value(f, x + hw, y + h);
+        refine(f, token, out, x, y, hw, hh, v00, bottom, left, center, depth - 1);
+        refine(f, token, out, x + hw, y, hw, hh, bottom, v10, center, right, depth - 1);
+        refine(f, token, out, x, y + hh, hw, hh, left, center, v01, top, depth - 1);
+        refine(f, token, out, x + hw, y + hh, hw, hh, center, right, top, v11, depth - 1);
+    }
+
+    /** Mixed signs, or the smallest |corner| is within the corner spread (zero reachable by a smooth f). */
+    private static boolean mayContainZero(double v00, double v10, double v01, double v11) {
+        double min = lower(lower(v00, v10), lower(v01, v11));
+        double max = upper(upper(v00, v10), upper(v01, v11));
+        if (Double.isNaN(min)) return false;
+        if (min <= 0 && max > 0) return true;
+        double nearest = Math.min(Math.abs(min), Math.abs(max));
+        return nearest <= RANGE_FACTOR * (max - min);
+    }
+
+    private static double lower(double a, double b) {
+        return Double.isNaN(a) ? b : Double.isNaN(b) ? a : Math.min(a, b);
+    }
+
+    private static double upper(double a, double b) {
+        return Double.isNaN(a) ? b : Double.isNaN(b) ? a : Math.max(a, b);
+    }
+}
@@ -0,0 +1,584 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.results.MethodResult;
+import org.kkotlyarenko.results.SolveCost;
+import org.kkotlyarenko.results.SystemResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary columnar result file. After a 32-byte header every column is a fixed-width block of
+ * {@code rows} little-endian values; solution and residual vectors take {@code dimension}
+ * blocks each, padded with NaN. Titles and messages are dictionary-encoded and stored as
+ * length-prefixed UTF-8 strings after the columns.
+ * <pre>
+ * header: magic "NLR1", version u16, dimension u16, rows i32, strings i32, reserved (16 bytes)
+ * f64:    a, b, eps, solution[dimension], residual[dimension]
+ * i64:    functionEvaluations, derivativeEvaluations, costJacobianEvaluations, wallNanos, cpuNanos
+ * i32:    item, iterations, residualEvaluations, jacobianEvaluations, itemTitle, methodTitle, message
+ * i16:    solutionLength, residualLength
+ * i8:     task, method, status
+ * </pre>
+ * The i64 columns hold the {@link SolveCost} of a row; functionEvaluations is -1 when it has none.
+ * For a formula typed by the user (item {@link ParameterFile#CUSTOM_ITEM}) itemTitle is its text.
+ */
+final class ResultFile {
+
+    static final String EXTENSION = ".nlr";
+
+    static final byte STATUS_SUCCESS = 0;
+    static final byte STATUS_FAILURE = 1;
+    static final byte STATUS_ERROR = 2;
+
+    private static final int MAGIC = 0x3152_4C4E;
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int FIXED_DOUBLE_COLUMNS = 3;
+    private static final int LONG_COLUMNS = 5;
+    private static final int INT_COLUMNS = 7;
+    private static final int SHORT_COLUMNS = 2;
+    private static final int BYTE_COLUMNS = 3;
+    private static final int NO_STRING = -1;
+
+    private ResultFile() {
+    }
+
+    private static long rowWidth(int dimension) {
+        return 8L * (FIXED_DOUBLE_COLUMNS + 2L * dimension + LONG_COLUMNS)
+                + 4L * INT_COLUMNS + 2L * SHORT_COLUMNS + BYTE_COLUMNS;
+    }
+
+    /** Collects rows in primitive columns and writes them in one pass on close. */
+    static final class Writer implements Closeable {
+        private final Path path;
+        private final Map<String, Integer> stringIds = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        private int rows;
+        private int dimension = 1;
+        private byte[] tasks = new byte[64];
+        private byte[] methods = new byte[64];
+        private byte[] statuses = new byte[64];
+        private short[] solutionLengths = new short[64];
+        private short[] residualLengths = new short[64];
+        private int[] items = new int[64];
+        private int[] iterations = new int[64];
+        private int[] residualEvaluations = new int[64];
+        private int[] jacobianEvaluations = new int[64];
+        private int[] itemTitles = new int[64];
+        private int[] methodTitles = new int[64];
+        private int[] messages = new int[64];
+        private int[] vectorOffsets = new int[64];
+        private double[] as = new double[64];
+        private double[] bs = new double[64];
+        private double[] epss = new double[64];
+        private long[][] costs = new long[LONG_COLUMNS][64];
+        private double[] vectors = new double[256];
+        private int vectorSize;
+
+        private Writer(Path path) {
+            this.path = path;
+        }
+
+        static Writer create(Path path) {
+            return new Writer(path);
+        }
+
+        int rows() {
+            return rows;
+        }
+
+        /**
+         * Adds one solved (or failed) problem. {@code params} is null for errors that happened
+         * before a record could be read; {@code result} is a MethodResult or SystemResult, or null
+         * together with a non-null {@code error}.
+         */
+        void add(ParameterFile params, int methodIndex, String itemTitle, String methodTitle, Object result, String error) {
+            if (params == null) {
+                add(-1, -1, null, methodIndex, Double.NaN, Double.NaN, Double.NaN, itemTitle, methodTitle, result, error);
+            } else {
+                add(params.task(), params.itemIndex(), params.expression(), methodIndex, parse(params.a()),
+                        parse(params.b()), parse(params.eps()), itemTitle, methodTitle, result, error);
+            }
+        }
+
+        /** Like the ParameterFile overload, with the record already parsed; {@code task} is -1 for errors. */
+        void add(int task, int item, String expression, int methodIndex, double a, double b, double eps,
+                 String itemTitle, String methodTitle, Object result, String error) {
+            ensureCapacity(rows + 1);
+            int row = rows++;
+            tasks[row] = (byte) task;
+            methods[row] = (byte) methodIndex;
+            items[row] = item;
+            as[row] = a;
+            bs[row] = b;
+            epss[row] = eps;
+            itemTitles[row] = intern(expression != null ? expression : itemTitle);
+            methodTitles[row] = intern(methodTitle);
+            residualEvaluations[row] = -1;
+            jacobianEvaluations[row] = -1;
+            vectorOffsets[row] = vectorSize;
+            setCost(row, result instanceof MethodResult mr ? mr.getCost()
+                    : result instanceof SystemResult sr ? sr.getCost() : null);
+
+            if (result instanceof MethodResult mr) {
+                statuses[row] = mr.isSuccess() ? STATUS_SUCCESS : STATUS_FAILURE;
+                iterations[row] = mr.getIterations();
+                messages[row] = intern(mr.getMessage());
+                solutionLengths[row] = 1;
+                residualLengths[row] = 1;
+                int offset = reserveVectors(1);
+                vectors[offset] = mr.getRoot();
+                vectors[offset + 1] = mr.getFunctionValueAtRoot();
+            } else if (result instanceof SystemResult sr) {
+                statuses[row] = sr.isSuccess() ? STATUS_SUCCESS : STATUS_FAILURE;
+                iterations[row] = sr.getIterations();
+                messages[row] = intern(sr.getMessage());
+                residualEvaluations[row] = sr.getResidualEvaluations();
+                jacobianEvaluations[row] = sr.getJacobianEvaluations();
+                double[] solution = sr.getSolution();
+                double[] residuals = sr.getResiduals();
+                solutionLengths[row] = (short) (solution == null ? 0 : solution.length);
+                residualLengths[row] = (short) (residuals == null ? 0 : residuals.length);
+                appendVectors(solution, residuals);
+            } else {
+                statuses[row] = STATUS_ERROR;
+                iterations[row] = -1;
+                messages[row] = intern(error);
+                solutionLengths[row] = 0;
+                residualLengths[row] = 0;
+            }
+        }
+
+        private void setCost(int row, SolveCost cost) {
+            costs[0][row] = cost == null ? -1 : cost.functionEvaluations();
+            costs[1][row] = cost == null ? -1 : cost.derivativeEvaluations();
+            costs[2][row] = cost == null ? -1 : cost.jacobianEvaluations();
+            costs[3][row] = cost == null ? -1 : cost.wallNanos();
+            costs[4][row] = cost == null ? -1 : cost.cpuNanos();
+        }
+
+        private void appendVectors(double[] solution, double[] residuals) {
+            int length = Math.max(solution == null ? 0 : solution.length, residuals == null ? 0 : residuals.length);
+            int offset = reserveVectors(length);
+            for (int i = 0; i < length; i++) {
+                vectors[offset + i] = solution != null && i < solution.length ? solution[i] : Double.NaN;
+                vectors[offset + length + i] = residuals != null && i < residuals.length ? residuals[i] : Double.NaN;
+            }
+        }
+
+        private int reserveVectors(int length) {
+            if (length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Слишком большая размерность решения: " + length);
+            }
+            dimension = Math.max(dimension, length);
+            if (vectorSize + 2 * length > vectors.length) {
+                vectors = Arrays.copyOf(vectors, Math.max(vectors.length * 2, vectorSize + 2 * length));
+            }
+            int offset = vectorSize;
+            vectorSize += 2 * length;
+            return offset;
+        }
+
+        private double vector(int row, int component, boolean residual) {
+            int length = Math.max(solutionLengths[row], residualLengths[row]);
+            int limit = residual ? residualLengths[row] : solutionLengths[row];
+            if (component >= limit) return Double.NaN;
+            return vectors[vectorOffsets[row] + (residual ? length : 0) + component];
+        }
+
+        private int intern(String value) {
+            if (value == null) return NO_STRING;
+            return stringIds.computeIfAbsent(value, v -> {
+                strings.add(v);
+                return strings.size() - 1;
+            });
+        }
+
+        private static double parse(String value) {
+            try {
+                return Double.parseDouble(value.trim().replace(',', '.'));
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= tasks.length) return;
+            int size = Math.max(capacity, tasks.length * 2);
+            tasks = Arrays.copyOf(tasks, size);
+            methods = Arrays.copyOf(methods, size);
+            statuses = Arrays.copyOf(statuses, size);
+            solutionLengths = Arrays.copyOf(solutionLengths, size);
+            residualLengths = Arrays.copyOf(residualLengths, size);
+            items = Arrays.copyOf(items, size);
+            iterations = Arrays.copyOf(iterations, size);
+            residualEvaluations = Arrays.copyOf(residualEvaluations, size);
+            jacobianEvaluations = Arrays.copyOf(jacobianEvaluations, size);
+            itemTitles = Arrays.copyOf(itemTitles, size);
+            methodTitles = Arrays.copyOf(methodTitles, size);
+            messages = Arrays.copyOf(messages, size);
+            vectorOffsets = Arrays.copyOf(vectorOffsets, size);
+            as = Arrays.copyOf(as, size);
+            bs = Arrays.copyOf(bs, size);
+            epss = Arrays.copyOf(epss, size);
+            for (int c = 0; c < LONG_COLUMNS; c++) costs[c] = Arrays.copyOf(costs[c], size);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putInt(MAGIC).putShort(VERSION).putShort((short) dimension)
+                        .putInt(rows).putInt(strings.size())
+                        .position(HEADER_SIZE);
+
+                buffer = putDoubles(channel, buffer, as);
+                buffer = putDoubles(channel, buffer, bs);
+                buffer = putDoubles(channel, buffer, epss);
+                for (int residual = 0; residual < 2; residual++) {
+                    for (int k = 0; k < dimension; k++) {
+                        for (int row = 0; row < rows; row++) {
+                            buffer = ensure(channel, buffer, Double.BYTES);
+                            buffer.putDouble(vector(row, k, residual == 1));
+                        }
+                    }
+                }
+                for (long[] column : costs) {
+                    for (int row = 0; row < rows; row++) {
+                        buffer = ensure(channel, buffer, Long.BYTES);
+                        buffer.putLong(column[row]);
+                    }
+                }
+                for (int[] column : new int[][]{items, iterations, residualEvaluations, jacobianEvaluations,
+                        itemTitles, methodTitles, messages}) {
+                    for (int row = 0; row < rows; row++) {
+                        buffer = ensure(channel, buffer, Integer.BYTES);
+                        buffer.putInt(column[row]);
+                    }
+                }
+                for (short[] column : new short[][]{solutionLengths, residualLengths}) {
+                    for (int row = 0; row < rows; row++) {
+                        buffer = ensure(channel, buffer, Short.BYTES);
+                        buffer.putShort(column[row]);
+                    }
+                }
+                for (byte[] column : new byte[][]{tasks, methods, statuses}) {
+                    for (int offset = 0; offset < rows; ) {
+                        buffer = ensure(channel, buffer, 1);
+                        int chunk = Math.min(rows - offset, buffer.remaining());
+                        buffer.put(column, offset, chunk);
+                        offset += chunk;
+                    }
+                }
+                for (String value : strings) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    buffer = ensure(channel, buffer, Integer.BYTES);
+                    buffer.putInt(bytes.length);
+                    for (int offset = 0; offset < bytes.length; ) {
+                        buffer = ensure(channel, buffer, 1);
+                        int chunk = Math.min(bytes.length - offset, buffer.remaining());
+                        buffer.put(bytes, offset, chunk);
+                        offset += chunk;
+                    }
+                }
+                flush(channel, buffer);
+            }
+        }
+
+        private ByteBuffer putDoubles(FileChannel channel, ByteBuffer buffer, double[] column) throws IOException {
+            for (int offset = 0; offset < rows; ) {
+                buffer = ensure(channel, buffer, Double.BYTES);
+                int chunk = Math.min(rows - offset, buffer.remaining() / Double.BYTES);
+                buffer.asDoubleBuffer().put(column, offset, chunk);
+                buffer.position(buffer.position() + chunk * Double.BYTES);
+                offset += chunk;
+            }
+            return buffer;
+        }
+
+        private static ByteBuffer ensure(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+            if (buffer.remaining() < bytes) flush(channel, buffer);
+            return buffer;
+        }
+
+        private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+    }
+
+    /** Memory-maps a result file and reads values in place through per-column views. */
+    static final class Reader implements Closeable {
+        private final FileChannel channel;
+        private final int rows;
+        private final int dimension;
+        private final String[] strings;
+        private final MappedByteBuffer mapped;
+
+        private final ByteBuffer as;
+        private final ByteBuffer bs;
+        private final ByteBuffer epss;
+        private final ByteBuffer[] solutions;
+        private final ByteBuffer[] residuals;
+        private final ByteBuffer[] costs;
+        private final ByteBuffer items;
+        private final ByteBuffer iterations;
+        private final ByteBuffer residualEvaluations;
+        private final ByteBuffer jacobianEvaluations;
+        private final ByteBuffer itemTitles;
+        private final ByteBuffer methodTitles;
+        private final ByteBuffer messages;
+        private final ByteBuffer solutionLengths;
+        private final ByteBuffer residualLengths;
+        private final ByteBuffer tasks;
+        private final ByteBuffer methods;
+        private final ByteBuffer statuses;
+
+        private long offset = HEADER_SIZE;
+
+        private Reader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) break;
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IOException("Файл не является бинарным файлом результатов.");
+            }
+            short version = header.getShort();
+            if (version != VERSION) {
+                throw new IOException("Неподдерживаемая версия файла результатов: " + version);
+            }
+            dimension = header.getShort();
+            rows = header.getInt();
+            int stringCount = header.getInt();
+            if (dimension < 1 || rows < 0 || stringCount < 0
+                    || HEADER_SIZE + rows * rowWidth(dimension) > channel.size()) {
+                throw new IOException("Повреждённый заголовок файла результатов.");
+            }
+
+            long columnsEnd = HEADER_SIZE + rows * rowWidth(dimension);
+            mapped = columnsEnd <= Integer.MAX_VALUE
+                    ? channel.map(FileChannel.MapMode.READ_ONLY, 0, columnsEnd)
+                    : null;
+            as = column(Double.BYTES);
+            bs = column(Double.BYTES);
+            epss = column(Double.BYTES);
+            solutions = new ByteBuffer[dimension];
+            residuals = new ByteBuffer[dimension];
+            for (int k = 0; k < dimension; k++) solutions[k] = column(Double.BYTES);
+            for (int k = 0; k < dimension; k++) residuals[k] = column(Double.BYTES);
+            costs = new ByteBuffer[LONG_COLUMNS];
+            for (int c = 0; c < LONG_COLUMNS; c++) costs[c] = column(Long.BYTES);
+            items = column(Integer.BYTES);
+            iterations = column(Integer.BYTES);
+            residualEvaluations = column(Integer.BYTES);
+            jacobianEvaluations = column(Integer.BYTES);
+            itemTitles = column(Integer.BYTES);
+            methodTitles = column(Integer.BYTES);
+            messages = column(Integer.BYTES);
+            solutionLengths = column(Short.BYTES);
+            residualLengths = column(Short.BYTES);
+            tasks = column(1);
+            methods = column(1);
+            statuses = column(1);
+            strings = readStrings(stringCount);
+        }
+
+        static Reader open(Path path) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                return new Reader(channel);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        private ByteBuffer column(int width) throws IOException {
+            long length = (long) rows * width;
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Слишком много строк в файле результатов: " + rows);
+            }
+            ByteBuffer buffer = mapped != null
+                    ? mapped.slice((int) offset, (int) length)
+                    : channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            offset += length;
+            return buffer;
+        }
+
+        private String[] readStrings(int count) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size() - offset, Integer.MAX_VALUE))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) break;
+            }
+            buffer.flip();
+            String[] result = new String[count];
+            try {
+                for (int i = 0; i < count; i++) {
+                    byte[] bytes = new byte[buffer.getInt()];
+                    buffer.get(bytes);
+                    result[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("Повреждённый словарь строк в файле результатов.", e);
+            }
+            return result;
+        }
+
+        int rows() {
+            return rows;
+        }
+
+        int dimension() {
+            return dimension;
+        }
+
+        int task(int row) {
+            return tasks.get(row);
+        }
+
+        int method(int row) {
+            return methods.get(row);
+        }
+
+        byte status(int row) {
+            return statuses.get(row);
+        }
+
+        int item(int row) {
+            return items.getInt(row * Integer.BYTES);
+        }
+
+        int iterations(int row) {
+            return iterations.getInt(row * Integer.BYTES);
+        }
+
+        double a(int row) {
+            return as.getDouble(row * Double.BYTES);
+        }
+
+        double b(int row) {
+            return bs.getDouble(row * Double.BYTES);
+        }
+
+        double eps(int row) {
+            return epss.getDouble(row * Double.BYTES);
+        }
+
+        int solutionLength(int row) {
+            return solutionLengths.getShort(row * Short.BYTES);
+        }
+
+        int residualLength(int row) {
+            return residualLengths.getShort(row * Short.BYTES);
+        }
+
+        double solution(int row, int component) {
+            return solutions[component].getDouble(row * Double.BYTES);
+        }
+
+        double residual(int row, int component) {
+            return residuals[component].getDouble(row * Double.BYTES);
+        }
+
+        String itemTitle(int row) {
+            return string(itemTitles, row);
+        }
+
+        String methodTitle(int row) {
+            return string(methodTitles, row);
+        }
+
+        String message(int row) {
+            return string(messages, row);
+        }
+
+        /** Null when the row was stored without a cost. */
+        SolveCost cost(int row) {
+            long functionEvaluations = costs[0].getLong(row * Long.BYTES);
+            if (functionEvaluations < 0) return null;
+            return new SolveCost(functionEvaluations, costs[1].getLong(row * Long.BYTES),
+                    costs[2].getLong(row * Long.BYTES), costs[3].getLong(row * Long.BYTES),
+                    costs[4].getLong(row * Long.BYTES));
+        }
+
+        private String string(ByteBuffer column, int row) {
+            int id = column.getInt(row * Integer.BYTES);
+            return id == NO_STRING ? null : strings[id];
+        }
+
+        /** Rebuilds the MethodResult or SystemResult of a row, or null for error rows. */
+        Object result(int row) {
+            byte status = status(row);
+            if (status == STATUS_ERROR) return null;
+            boolean success = status == STATUS_SUCCESS;
+            SolveCost cost = cost(row);
+            if (task(row) == ParameterFile.TASK_EQUATION) {
+                MethodResult result = success
+                        ? MethodResult.success(solution(row, 0), residual(row, 0), iterations(row))
+                        : MethodResult.failure(message(row), iterations(row), solution(row, 0), residual(row, 0));
+                return cost == null ? result : result.withCost(cost);
+            }
+            double[] solution = vector(solutions, solutionLength(row), row);
+            double[] residual = vector(residuals, residualLength(row), row);
+            SystemResult result = new SystemResult(solution, residual, iterations(row), message(row), success);
+            if (cost != null) result = result.withCost(cost);
+            int residualCount = residualEvaluations.getInt(row * Integer.BYTES);
+            return residualCount < 0 ? result
+                    : result.withEvaluations(residualCount, jacobianEvaluations.getInt(row * Integer.BYTES));
+        }
+
+        private static double[] vector(ByteBuffer[] columns, int length, int row) {
+            if (length == 0) return null;
+            double[] vector = new double[length];
+            for (int k = 0; k < length; k++) vector[k] = columns[k].getDouble(row * Double.BYTES);
+            return vector;
+        }
+
+        /** Converts the file back to the text report written by the GUI and BatchCli. */
+        void writeText(PrintWriter writer) {
+            for (int row = 0; row < rows; row++) {
+                Object result = result(row);
+                String text = result != null ? result.toString() : "Ошибка выполнения: " + message(row);
+                String itemTitle = itemTitle(row);
+                if (task(row) >= 0 && itemTitle != null) {
+                    ParameterFile params = new ParameterFile(task(row), item(row),
+                            item(row) == ParameterFile.CUSTOM_ITEM ? itemTitle : null,
+                            task(row) == ParameterFile.TASK_EQUATION ? method(row) : -1,
+                            Double.toString(a(row)), Double.toString(b(row)), Double.toString(eps(row)));
+                    params.writeReport(writer, itemTitle, methodTitle(row), text);
+                } else {
+                    writer.println(text);
+                }
+                writer.println();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
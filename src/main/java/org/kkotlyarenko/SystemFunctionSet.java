@@ -0,0 +1,30 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.expression.ExpressionCompiler;
+import org.kkotlyarenko.methods.DualFunction2Var;
+
+class SystemFunctionSet {
+    record SystemDefinition(String description, DualFunction2Var f1, DualFunction2Var f2) {
+        static SystemDefinition parse(String description) {
+            String[] equations = description.split(";");
+            if (equations.length != 2) {
+                throw new IllegalArgumentException("Система должна состоять из двух уравнений, разделённых ';': " + description);
+            }
+            return new SystemDefinition(description,
+                    ExpressionCompiler.compile2Var(equations[0]),
+                    ExpressionCompiler.compile2Var(equations[1]));
+        }
+    }
+    static String[] descriptions = {
+            "sin(x)+2y=2; x+cos(y−1)=0.7",
+            "x²+y²=4; y=x²-2",
+            "e^(x-y)+x*y=1; x²+y²=4"
+    };
+    static SystemDefinition[] systems = new SystemDefinition[descriptions.length];
+
+    static {
+        for (int i = 0; i < descriptions.length; i++) {
+            systems[i] = SystemDefinition.parse(descriptions[i]);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.kkotlyarenko.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An expression flattened into register instructions, each applied to a whole block of points by
+ * {@link VectorKernels}. Registers 0 and 1 hold x and y; temporaries follow. Blocks are padded to
+ * whole vectors, so kernels have no scalar tail. Transcendental functions are the Vector API ones,
+ * which may differ from {@link Math} in the last ulp.
+ */
+final class BatchProgram {
+
+    static final int CONSTANT = 0;
+    static final int NEGATE = 1;
+    static final int ADD = 2;
+    static final int SUBTRACT = 3;
+    static final int MULTIPLY = 4;
+    static final int DIVIDE = 5;
+    static final int ADD_CONSTANT = 6;
+    static final int SUBTRACT_FROM_CONSTANT = 7;
+    static final int MULTIPLY_CONSTANT = 8;
+    static final int DIVIDE_BY_CONSTANT = 9;
+    static final int DIVIDE_CONSTANT = 10;
+    static final int INT_POWER = 11;
+    static final int CALL = 12;
+
+    /** The incubator module is resolved only when the JVM runs with --add-modules jdk.incubator.vector. */
+    static final boolean SUPPORTED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private static final int BLOCK = 512;
+    private static final int VARIABLES = 2;
+
+    /**
+     * {@code right} is -1 for unary operations; INT_POWER keeps its exponent in {@code constant}
+     * and uses {@code right} as a scratch register.
+     */
+    record Instruction(int op, int target, int left, int right, double constant, MathFunction function) {
+    }
+
+    private final Instruction[] instructions;
+    private final int registers;
+    private final int result;
+
+    private BatchProgram(Instruction[] instructions, int registers, int result) {
+        this.instructions = instructions;
+        this.registers = registers;
+        this.result = result;
+    }
+
+    /**
+     * Returns null when the Vector API is not available or the expression calls no function;
+     * callers then evaluate point by point. Plain arithmetic is already cheap in the compiled
+     * scalar code, and a pass over memory per instruction makes it slower in batches.
+     */
+    static BatchProgram compile(Node node) {
+        if (!SUPPORTED || !callsFunction(node)) return null;
+        Builder builder = new Builder();
+        int result = builder.emit(node, VARIABLES);
+        return new BatchProgram(builder.instructions.toArray(new Instruction[0]), builder.registers, result);
+    }
+
+    /** Writes f(xs[i], ys[i]) to out[i] for i in [0, count); ys is null for f(x). */
+    void apply(double[] xs, double[] ys, double[] out, int count) {
+        int lanes = VectorKernels.LANES;
+        int block = Math.min(BLOCK, roundUp(count, lanes));
+        double[][] r = new double[registers][block];
+        for (int start = 0; start < count; start += block) {
+            int n = Math.min(block, count - start);
+            int length = roundUp(n, lanes);
+            System.arraycopy(xs, start, r[0], 0, n);
+            if (ys != null) System.arraycopy(ys, start, r[1], 0, n);
+            for (Instruction instruction : instructions) {
+                VectorKernels.execute(instruction, r, length);
+            }
+            System.arraycopy(r[result], 0, out, start, n);
+        }
+    }
+
+    private static boolean callsFunction(Node node) {
+        if (node instanceof Node.Call) return true;
+        if (node instanceof Node.Negate n) return callsFunction(n.operand());
+        if (node instanceof Node.Binary b) return callsFunction(b.left()) || callsFunction(b.right());
+        if (node instanceof Node.IntPower p) return callsFunction(p.base());
+        return false;
+    }
+
+    private static int roundUp(int n, int lanes) {
+        return (n + lanes - 1) / lanes * lanes;
+    }
+
+    private static final class Builder {
+        final List<Instruction> instructions = new ArrayList<>();
+        int registers = VARIABLES;
+
+        /** Emits node with temporaries from {@code free} upwards and returns the register holding it. */
+        int emit(Node node, int free) {
+            if (node instanceof Node.Variable v) {
+                return v.index();
+            }
+            if (node instanceof Node.Constant c) {
+                return add(CONSTANT, free, -1, -1, c.value(), null);
+            }
+            if (node instanceof Node.Negate n) {
+                return add(NEGATE, free, emit(n.operand(), free), -1, 0.0, null);
+            }
+            if (node instanceof Node.Binary b) {
+                if (b.right() instanceof Node.Constant c) {
+                    int a = emit(b.left(), free);
+                    double k = c.value();
+                    return switch (b.operator()) {
+                        case '+' -> add(ADD_CONSTANT, free, a, -1, k, null);
+                        case '-' -> add(ADD_CONSTANT, free, a, -1, -k, null);
+                        case '*' -> add(MULTIPLY_CONSTANT, free, a, -1, k, null);
+                        case '/' -> add(DIVIDE_BY_CONSTANT, free, a, -1, k, null);
+                        default -> throw new IllegalStateException("Неизвестная операция: " + b.operator());
+                    };
+                }
+                if (b.left() instanceof Node.Constant c) {
+                    int a = emit(b.right(), free);
+                    double k = c.value();
+                    return switch (b.operator()) {
+                        case '+' -> add(ADD_CONSTANT, free, a, -1, k, null);
+                        case '-' -> add(SUBTRACT_FROM_CONSTANT, free, a, -1, k, null);
+                        case '*' -> add(MULTIPLY_CONSTANT, free, a, -1, k, null);
+                        case '/' -> add(DIVIDE_CONSTANT, free, a, -1, k, null);
+                        default -> throw new IllegalStateException("Неизвестная операция: " + b.operator());
+                    };
+                }
+                int op = switch (b.operator()) {
+                    case '+' -> ADD;
+                    case '-' -> SUBTRACT;
+                    case '*' -> MULTIPLY;
+                    case '/' -> DIVIDE;
+                    default -> throw new IllegalStateException("Неизвестная операция: " + b.operator());
+                };
+                return operands(op, b.left(), b.right(), free, null);
+            }
+            if (node instanceof Node.IntPower p) {
+                return add(INT_POWER, free, emit(p.base(), free), free + 1, p.exponent(), null);
+            }
+            if (node instanceof Node.Call call) {
+                if (call.second() == null) {
+                    return add(CALL, free, emit(call.first(), free), -1, 0.0, call.function());
+                }
+                return operands(CALL, call.first(), call.second(), free, call.function());
+            }
+            throw new IllegalStateException("Неизвестный узел выражения: " + node);
+        }
+
+        private int operands(int op, Node left, Node right, int free, MathFunction function) {
+            int a = emit(left, free);
+            int b = emit(right, a == free ? free + 1 : free);
+            return add(op, free, a, b, 0.0, function);
+        }
+
+        private int add(int op, int target, int left, int right, double constant, MathFunction function) {
+            instructions.add(new Instruction(op, target, left, right, constant, function));
+            registers = Math.max(registers, Math.max(target, right) + 1);
+            return target;
+        }
+    }
+}
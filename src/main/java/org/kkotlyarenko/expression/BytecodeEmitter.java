@@ -0,0 +1,791 @@
+package org.kkotlyarenko.expression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class BytecodeEmitter {
+
+    static final String CLASS_NAME = "org/kkotlyarenko/expression/CompiledExpression";
+
+    private static final int CLASS_VERSION = 52;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int DCONST_0 = 0x0e;
+    private static final int DCONST_1 = 0x0f;
+    private static final int LDC_W = 0x13;
+    private static final int ICONST_0 = 0x03;
+    private static final int LDC2_W = 0x14;
+    private static final int DLOAD = 0x18;
+    private static final int ALOAD = 0x19;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int DSTORE = 0x39;
+    private static final int DASTORE = 0x52;
+    private static final int DUP2 = 0x5c;
+    private static final int DADD = 0x63;
+    private static final int DSUB = 0x67;
+    private static final int DMUL = 0x6b;
+    private static final int DDIV = 0x6f;
+    private static final int DNEG = 0x77;
+    private static final int DRETURN = 0xaf;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int WIDE = 0xc4;
+
+    private static final String UNARY_SUPERCLASS = "org/kkotlyarenko/expression/CompiledFunction";
+    private static final String BINARY_SUPERCLASS = "org/kkotlyarenko/expression/CompiledFunction2Var";
+    private static final String SUPER_CONSTRUCTOR = "(Lorg/kkotlyarenko/expression/BatchProgram;)V";
+    private static final double LN_10 = Math.log(10.0);
+
+    private final ConstantPool pool = new ConstantPool();
+
+    private BytecodeEmitter() {
+    }
+
+    static byte[] emitUnary(Node node, String text) {
+        BytecodeEmitter emitter = new BytecodeEmitter();
+        int codeAttr = emitter.pool.utf8("Code");
+
+        MethodBody apply = emitter.new MethodBody(3);
+        apply.emit(node);
+        apply.op(DRETURN, -2);
+
+        MethodBody evaluate = emitter.new MethodBody(4);
+        evaluate.storeDual(evaluate.emitDual(node, 1), 3);
+        evaluate.op(RETURN, 0);
+
+        MethodBody derivative = emitter.new MethodBody(3);
+        derivative.push(derivative.emitDual(node, 1).tangents()[0]);
+        derivative.op(DRETURN, -2);
+
+        return emitter.emitClass(UNARY_SUPERCLASS, text, List.of(
+                emitter.method("applyAsDouble", "(D)D", codeAttr, apply),
+                emitter.method("evaluate", "(D[D)V", codeAttr, evaluate),
+                emitter.method("derivative", "(D)D", codeAttr, derivative)
+        ));
+    }
+
+    static byte[] emitBinary(Node node, String text) {
+        BytecodeEmitter emitter = new BytecodeEmitter();
+        int codeAttr = emitter.pool.utf8("Code");
+
+        MethodBody apply = emitter.new MethodBody(5);
+        apply.emit(node);
+        apply.op(DRETURN, -2);
+
+        MethodBody evaluate = emitter.new MethodBody(6);
+        evaluate.storeDual(evaluate.emitDual(node, 2), 5);
+        evaluate.op(RETURN, 0);
+
+        return emitter.emitClass(BINARY_SUPERCLASS, text, List.of(
+                emitter.method("apply", "(DD)D", codeAttr, apply),
+                emitter.method("evaluate", "(DD[D)V", codeAttr, evaluate)
+        ));
+    }
+
+    /** The generated class passes its constructor argument, the batch program, to the superclass. */
+    private byte[] emitClass(String superName, String text, List<byte[]> bodies) {
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef(superName);
+        int codeAttr = pool.utf8("Code");
+
+        MethodBody init = new MethodBody(2);
+        init.op(ALOAD_0, 1);
+        init.op(ALOAD_1, 1);
+        init.op(INVOKESPECIAL, -2);
+        init.u2(pool.methodRef(superName, "<init>", SUPER_CONSTRUCTOR));
+        init.op(RETURN, 0);
+
+        MethodBody toString = new MethodBody(1);
+        toString.op(LDC_W, 1);
+        toString.u2(pool.string(text));
+        toString.op(ARETURN, -1);
+
+        List<byte[]> methods = new ArrayList<>(bodies);
+        methods.add(method("<init>", SUPER_CONSTRUCTOR, codeAttr, init));
+        methods.add(method("toString", "()Ljava/lang/String;", codeAttr, toString));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(CLASS_VERSION);
+            pool.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);
+            out.writeShort(0);
+            out.writeShort(methods.size());
+            for (byte[] method : methods) out.write(method);
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] method(String name, String descriptor, int codeAttr, MethodBody body) {
+        int nameIndex = pool.utf8(name);
+        int descriptorIndex = pool.utf8(descriptor);
+        byte[] code = body.code.toByteArray();
+        if (code.length > 65535) {
+            throw new IllegalArgumentException("Выражение слишком длинное для компиляции.");
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeShort(ACC_PUBLIC);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+            out.writeShort(1);
+            out.writeShort(codeAttr);
+            out.writeInt(12 + code.length);
+            out.writeShort(body.maxStack);
+            out.writeShort(body.maxLocals);
+            out.writeInt(code.length);
+            out.write(code);
+            out.writeShort(0);
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private record Operand(int slot, double constant) {
+        static final Operand ZERO = new Operand(-1, 0.0);
+        static final Operand ONE = new Operand(-1, 1.0);
+
+        static Operand constant(double value) {
+            return new Operand(-1, value);
+        }
+
+        static Operand local(int slot) {
+            return new Operand(slot, Double.NaN);
+        }
+
+        boolean isConstant() {
+            return slot < 0;
+        }
+
+        boolean isZero() {
+            return slot < 0 && constant == 0.0;
+        }
+
+        boolean isOne() {
+            return slot < 0 && constant == 1.0;
+        }
+    }
+
+    private record Dual(Operand value, Operand[] tangents) {
+    }
+
+    private final class MethodBody {
+        private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+        private int stack;
+        private int maxStack;
+        private int maxLocals;
+
+        MethodBody(int parameterSlots) {
+            this.maxLocals = parameterSlots;
+        }
+
+        void emit(Node node) {
+            if (node instanceof Node.Constant c) {
+                pushConstant(c.value());
+            } else if (node instanceof Node.Variable v) {
+                load(variableSlot(v));
+            } else if (node instanceof Node.Negate n) {
+                emit(n.operand());
+                op(DNEG, 0);
+            } else if (node instanceof Node.Binary b) {
+                emit(b.left());
+                emit(b.right());
+                op(arithmetic(b.operator()), -2);
+            } else if (node instanceof Node.IntPower p) {
+                int base;
+                if (p.base() instanceof Node.Variable v) {
+                    base = variableSlot(v);
+                } else {
+                    emit(p.base());
+                    base = allocateLocal();
+                    store(base);
+                }
+                pushPower(base, p.exponent());
+            } else if (node instanceof Node.Call call) {
+                emit(call.first());
+                if (call.second() != null) emit(call.second());
+                invokeMath(call.function().jvmName(), call.second() != null ? 2 : 1);
+            } else {
+                throw new IllegalStateException("Неизвестный узел выражения: " + node);
+            }
+        }
+
+        Dual emitDual(Node node, int directions) {
+            Operand[] tangents = new Operand[directions];
+            if (node instanceof Node.Constant c) {
+                Arrays.fill(tangents, Operand.ZERO);
+                return new Dual(Operand.constant(c.value()), tangents);
+            }
+            if (node instanceof Node.Variable v) {
+                for (int k = 0; k < directions; k++) {
+                    tangents[k] = k == v.index() ? Operand.ONE : Operand.ZERO;
+                }
+                return new Dual(Operand.local(variableSlot(v)), tangents);
+            }
+            if (node instanceof Node.Negate n) {
+                Dual a = emitDual(n.operand(), directions);
+                for (int k = 0; k < directions; k++) tangents[k] = negate(a.tangents()[k]);
+                return new Dual(negate(a.value()), tangents);
+            }
+            if (node instanceof Node.Binary b) {
+                Dual l = emitDual(b.left(), directions);
+                Dual r = emitDual(b.right(), directions);
+                return switch (b.operator()) {
+                    case '+', '-' -> {
+                        for (int k = 0; k < directions; k++) {
+                            tangents[k] = addOrSubtract(b.operator(), l.tangents()[k], r.tangents()[k]);
+                        }
+                        yield new Dual(addOrSubtract(b.operator(), l.value(), r.value()), tangents);
+                    }
+                    case '*' -> {
+                        for (int k = 0; k < directions; k++) {
+                            tangents[k] = linear(l.tangents()[k], r.value(), l.value(), r.tangents()[k]);
+                        }
+                        yield new Dual(product(l.value(), r.value()), tangents);
+                    }
+                    case '/' -> {
+                        push(l.value());
+                        push(r.value());
+                        op(DDIV, -2);
+                        Operand quotient = storeNew();
+                        for (int k = 0; k < directions; k++) {
+                            tangents[k] = quotientTangent(l.tangents()[k], r.tangents()[k], quotient, r.value());
+                        }
+                        yield new Dual(quotient, tangents);
+                    }
+                    default -> throw new IllegalStateException("Неизвестная операция: " + b.operator());
+                };
+            }
+            if (node instanceof Node.IntPower p) {
+                Dual base = emitDual(p.base(), directions);
+                Operand baseValue = base.value();
+                if (baseValue.slot() < 0) {
+                    // A base that folded to a constant has no local for pushPower to load.
+                    push(baseValue);
+                    baseValue = storeNew();
+                }
+                pushPower(baseValue.slot(), p.exponent() - 1);
+                Operand lower = storeNew();
+                Operand value = product(lower, base.value());
+                push(Operand.constant(p.exponent()));
+                push(lower);
+                op(DMUL, -2);
+                Operand factor = storeNew();
+                for (int k = 0; k < directions; k++) tangents[k] = product(factor, base.tangents()[k]);
+                return new Dual(value, tangents);
+            }
+            if (node instanceof Node.Call call) {
+                return call.second() == null
+                        ? emitUnaryCall(call.function(), emitDual(call.first(), directions), directions)
+                        : emitBinaryCall(call.function(), emitDual(call.first(), directions), emitDual(call.second(), directions), directions);
+            }
+            throw new IllegalStateException("Неизвестный узел выражения: " + node);
+        }
+
+        private Dual emitUnaryCall(MathFunction function, Dual a, int directions) {
+            Operand av = a.value();
+            push(av);
+            invokeMath(function.jvmName(), 1);
+            Operand u = storeNew();
+
+            Operand factor;
+            switch (function) {
+                case SIN -> {
+                    push(av);
+                    invokeMath("cos", 1);
+                    factor = storeNew();
+                }
+                case COS -> {
+                    push(av);
+                    invokeMath("sin", 1);
+                    op(DNEG, 0);
+                    factor = storeNew();
+                }
+                case TAN -> {
+                    op(DCONST_1, 2);
+                    push(u);
+                    push(u);
+                    op(DMUL, -2);
+                    op(DADD, -2);
+                    factor = storeNew();
+                }
+                case ASIN, ACOS -> {
+                    op(DCONST_1, 2);
+                    op(DCONST_1, 2);
+                    push(av);
+                    push(av);
+                    op(DMUL, -2);
+                    op(DSUB, -2);
+                    invokeMath("sqrt", 1);
+                    op(DDIV, -2);
+                    if (function == MathFunction.ACOS) op(DNEG, 0);
+                    factor = storeNew();
+                }
+                case ATAN -> {
+                    op(DCONST_1, 2);
+                    op(DCONST_1, 2);
+                    push(av);
+                    push(av);
+                    op(DMUL, -2);
+                    op(DADD, -2);
+                    op(DDIV, -2);
+                    factor = storeNew();
+                }
+                case SINH -> {
+                    push(av);
+                    invokeMath("cosh", 1);
+                    factor = storeNew();
+                }
+                case COSH -> {
+                    push(av);
+                    invokeMath("sinh", 1);
+                    factor = storeNew();
+                }
+                case TANH -> {
+                    op(DCONST_1, 2);
+                    push(u);
+                    push(u);
+                    op(DMUL, -2);
+                    op(DSUB, -2);
+                    factor = storeNew();
+                }
+                case EXP -> factor = u;
+                case LN, LOG -> {
+                    op(DCONST_1, 2);
+                    push(av);
+                    op(DDIV, -2);
+                    factor = storeNew();
+                }
+                case LG, LOG10 -> {
+                    op(DCONST_1, 2);
+                    push(av);
+                    pushConstant(LN_10);
+                    op(DMUL, -2);
+                    op(DDIV, -2);
+                    factor = storeNew();
+                }
+                case SQRT -> {
+                    pushConstant(0.5);
+                    push(u);
+                    op(DDIV, -2);
+                    factor = storeNew();
+                }
+                case CBRT -> {
+                    push(u);
+                    pushConstant(3.0);
+                    push(av);
+                    op(DMUL, -2);
+                    op(DDIV, -2);
+                    factor = storeNew();
+                }
+                case ABS -> {
+                    push(av);
+                    invokeMath("signum", 1);
+                    factor = storeNew();
+                }
+                default -> throw new IllegalStateException("Функция не является унарной: " + function.displayName());
+            }
+
+            Operand[] tangents = new Operand[directions];
+            for (int k = 0; k < directions; k++) tangents[k] = product(factor, a.tangents()[k]);
+            return new Dual(u, tangents);
+        }
+
+        private Dual emitBinaryCall(MathFunction function, Dual a, Dual b, int directions) {
+            Operand av = a.value();
+            Operand bv = b.value();
+            push(av);
+            push(bv);
+            invokeMath(function.jvmName(), 2);
+            Operand u = storeNew();
+
+            Operand first;
+            Operand second;
+            switch (function) {
+                case POW -> {
+                    push(bv);
+                    push(av);
+                    push(bv);
+                    op(DCONST_1, 2);
+                    op(DSUB, -2);
+                    invokeMath("pow", 2);
+                    op(DMUL, -2);
+                    first = storeNew();
+                    if (allZero(b.tangents())) {
+                        second = Operand.ZERO;
+                    } else {
+                        push(u);
+                        push(av);
+                        invokeMath("log", 1);
+                        op(DMUL, -2);
+                        second = storeNew();
+                    }
+                }
+                case ATAN2 -> {
+                    push(av);
+                    push(av);
+                    op(DMUL, -2);
+                    push(bv);
+                    push(bv);
+                    op(DMUL, -2);
+                    op(DADD, -2);
+                    Operand denominator = storeNew();
+                    push(bv);
+                    push(denominator);
+                    op(DDIV, -2);
+                    first = storeNew();
+                    push(av);
+                    op(DNEG, 0);
+                    push(denominator);
+                    op(DDIV, -2);
+                    second = storeNew();
+                }
+                case MIN, MAX -> {
+                    op(DCONST_1, 2);
+                    if (function == MathFunction.MIN) {
+                        push(bv);
+                        push(av);
+                    } else {
+                        push(av);
+                        push(bv);
+                    }
+                    op(DSUB, -2);
+                    invokeMath("signum", 1);
+                    op(DADD, -2);
+                    pushConstant(0.5);
+                    op(DMUL, -2);
+                    first = storeNew();
+                    op(DCONST_1, 2);
+                    push(first);
+                    op(DSUB, -2);
+                    second = storeNew();
+                }
+                default -> throw new IllegalStateException("Функция не является бинарной: " + function.displayName());
+            }
+
+            Operand[] tangents = new Operand[directions];
+            for (int k = 0; k < directions; k++) {
+                tangents[k] = linear(first, a.tangents()[k], second, b.tangents()[k]);
+            }
+            return new Dual(u, tangents);
+        }
+
+        void storeDual(Dual dual, int arraySlot) {
+            storeElement(arraySlot, 0, dual.value());
+            for (int k = 0; k < dual.tangents().length; k++) {
+                storeElement(arraySlot, k + 1, dual.tangents()[k]);
+            }
+        }
+
+        private void storeElement(int arraySlot, int index, Operand value) {
+            op(ALOAD, 1);
+            code.write(arraySlot);
+            op(ICONST_0 + index, 1);
+            push(value);
+            op(DASTORE, -4);
+        }
+
+        private Operand negate(Operand a) {
+            if (a.isConstant()) return Operand.constant(-a.constant());
+            push(a);
+            op(DNEG, 0);
+            return storeNew();
+        }
+
+        private Operand addOrSubtract(char operator, Operand a, Operand b) {
+            if (a.isConstant() && b.isConstant()) {
+                return Operand.constant(operator == '+' ? a.constant() + b.constant() : a.constant() - b.constant());
+            }
+            if (b.isZero()) return a;
+            if (a.isZero()) return operator == '+' ? b : negate(b);
+            push(a);
+            push(b);
+            op(operator == '+' ? DADD : DSUB, -2);
+            return storeNew();
+        }
+
+        private Operand product(Operand a, Operand b) {
+            if (a.isZero() || b.isZero()) return Operand.ZERO;
+            if (a.isConstant() && b.isConstant()) return Operand.constant(a.constant() * b.constant());
+            if (a.isOne()) return b;
+            if (b.isOne()) return a;
+            push(a);
+            push(b);
+            op(DMUL, -2);
+            return storeNew();
+        }
+
+        private Operand linear(Operand p1, Operand q1, Operand p2, Operand q2) {
+            boolean first = !p1.isZero() && !q1.isZero();
+            boolean second = !p2.isZero() && !q2.isZero();
+            if (!first && !second) return Operand.ZERO;
+            if (!second) return product(p1, q1);
+            if (!first) return product(p2, q2);
+            if (p1.isConstant() && q1.isConstant() && p2.isConstant() && q2.isConstant()) {
+                return Operand.constant(p1.constant() * q1.constant() + p2.constant() * q2.constant());
+            }
+            pushProduct(p1, q1);
+            pushProduct(p2, q2);
+            op(DADD, -2);
+            return storeNew();
+        }
+
+        private Operand quotientTangent(Operand numeratorTangent, Operand denominatorTangent, Operand quotient, Operand denominator) {
+            if (numeratorTangent.isZero() && denominatorTangent.isZero()) return Operand.ZERO;
+            if (!numeratorTangent.isZero()) push(numeratorTangent);
+            if (!denominatorTangent.isZero()) {
+                pushProduct(quotient, denominatorTangent);
+                if (numeratorTangent.isZero()) {
+                    op(DNEG, 0);
+                } else {
+                    op(DSUB, -2);
+                }
+            }
+            push(denominator);
+            op(DDIV, -2);
+            return storeNew();
+        }
+
+        private void pushProduct(Operand a, Operand b) {
+            if (a.isOne()) {
+                push(b);
+            } else if (b.isOne()) {
+                push(a);
+            } else {
+                push(a);
+                push(b);
+                op(DMUL, -2);
+            }
+        }
+
+        private boolean allZero(Operand[] operands) {
+            for (Operand operand : operands) {
+                if (!operand.isZero()) return false;
+            }
+            return true;
+        }
+
+        private void pushPower(int base, int exponent) {
+            if (exponent == 0) {
+                op(DCONST_1, 2);
+                return;
+            }
+            boolean reciprocal = exponent < 0;
+            long remaining = Math.abs((long) exponent);
+            if (reciprocal) op(DCONST_1, 2);
+
+            int square = base;
+            int temp = -1;
+            boolean hasResult = false;
+            while (true) {
+                if ((remaining & 1) != 0) {
+                    load(square);
+                    if (hasResult) op(DMUL, -2);
+                    hasResult = true;
+                }
+                remaining >>= 1;
+                if (remaining == 0) break;
+                if (temp < 0) temp = allocateLocal();
+                load(square);
+                op(DUP2, 2);
+                op(DMUL, -2);
+                store(temp);
+                square = temp;
+            }
+
+            if (reciprocal) op(DDIV, -2);
+        }
+
+        private int arithmetic(char operator) {
+            return switch (operator) {
+                case '+' -> DADD;
+                case '-' -> DSUB;
+                case '*' -> DMUL;
+                case '/' -> DDIV;
+                default -> throw new IllegalStateException("Неизвестная операция: " + operator);
+            };
+        }
+
+        private void invokeMath(String name, int arity) {
+            op(INVOKESTATIC, arity == 2 ? -2 : 0);
+            u2(pool.methodRef("java/lang/Math", name, arity == 2 ? "(DD)D" : "(D)D"));
+        }
+
+        private void push(Operand operand) {
+            if (operand.isConstant()) {
+                pushConstant(operand.constant());
+            } else {
+                load(operand.slot());
+            }
+        }
+
+        private void pushConstant(double value) {
+            if (Double.doubleToRawLongBits(value) == 0L) {
+                op(DCONST_0, 2);
+            } else if (value == 1.0) {
+                op(DCONST_1, 2);
+            } else {
+                op(LDC2_W, 2);
+                u2(pool.doubleConstant(value));
+            }
+        }
+
+        private Operand storeNew() {
+            int slot = allocateLocal();
+            store(slot);
+            return Operand.local(slot);
+        }
+
+        private int variableSlot(Node.Variable v) {
+            return 1 + 2 * v.index();
+        }
+
+        private int allocateLocal() {
+            if (maxLocals + 2 > 65535) {
+                throw new IllegalArgumentException("Выражение слишком сложное для компиляции.");
+            }
+            int slot = maxLocals;
+            maxLocals += 2;
+            return slot;
+        }
+
+        private void load(int slot) {
+            localInstruction(DLOAD, slot, 2);
+        }
+
+        private void store(int slot) {
+            localInstruction(DSTORE, slot, -2);
+        }
+
+        private void localInstruction(int opcode, int slot, int stackDelta) {
+            if (slot > 255) {
+                code.write(WIDE);
+                op(opcode, stackDelta);
+                u2(slot);
+            } else {
+                op(opcode, stackDelta);
+                code.write(slot);
+            }
+        }
+
+        void op(int opcode, int stackDelta) {
+            code.write(opcode);
+            stack += stackDelta;
+            maxStack = Math.max(maxStack, stack);
+        }
+
+        void u2(int value) {
+            code.write(value >>> 8);
+            code.write(value);
+        }
+    }
+
+    private static final class ConstantPool {
+        private static final int UTF8 = 1;
+        private static final int DOUBLE = 6;
+        private static final int CLASS = 7;
+        private static final int STRING = 8;
+        private static final int METHOD_REF = 10;
+        private static final int NAME_AND_TYPE = 12;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) {
+            return entry("U" + value, 1, () -> {
+                out.writeByte(UTF8);
+                out.writeUTF(value);
+            });
+        }
+
+        int classRef(String internalName) {
+            int name = utf8(internalName);
+            return entry("C" + internalName, 1, () -> {
+                out.writeByte(CLASS);
+                out.writeShort(name);
+            });
+        }
+
+        int string(String value) {
+            int utf = utf8(value);
+            return entry("S" + value, 1, () -> {
+                out.writeByte(STRING);
+                out.writeShort(utf);
+            });
+        }
+
+        int doubleConstant(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            return entry("D" + bits, 2, () -> {
+                out.writeByte(DOUBLE);
+                out.writeLong(bits);
+            });
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndType = entry("N" + name + descriptor, 1, () -> {
+                out.writeByte(NAME_AND_TYPE);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+            return entry("M" + owner + "." + name + descriptor, 1, () -> {
+                out.writeByte(METHOD_REF);
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            out.flush();
+            target.writeShort(count);
+            bytes.writeTo(target);
+        }
+
+        private int entry(String key, int slots, EntryWriter writer) {
+            Integer existing = entries.get(key);
+            if (existing != null) return existing;
+            int index = count;
+            try {
+                writer.write();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count += slots;
+            entries.put(key, index);
+            return index;
+        }
+
+        @FunctionalInterface
+        private interface EntryWriter {
+            void write() throws IOException;
+        }
+    }
+}
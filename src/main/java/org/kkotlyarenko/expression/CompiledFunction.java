@@ -0,0 +1,23 @@
+package org.kkotlyarenko.expression;
+
+import org.kkotlyarenko.methods.BatchFunction;
+import org.kkotlyarenko.methods.DualFunction;
+
+/** Superclass of generated f(x) classes; batches run on SIMD lanes when the Vector API is available. */
+abstract class CompiledFunction implements DualFunction, BatchFunction {
+
+    private final BatchProgram program;
+
+    CompiledFunction(BatchProgram program) {
+        this.program = program;
+    }
+
+    @Override
+    public void applyBatch(double[] xs, double[] ys, int count) {
+        if (program != null) {
+            program.apply(xs, null, ys, count);
+            return;
+        }
+        for (int i = 0; i < count; i++) ys[i] = applyAsDouble(xs[i]);
+    }
+}
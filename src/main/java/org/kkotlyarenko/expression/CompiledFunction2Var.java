@@ -0,0 +1,23 @@
+package org.kkotlyarenko.expression;
+
+import org.kkotlyarenko.methods.BatchFunction2Var;
+import org.kkotlyarenko.methods.DualFunction2Var;
+
+/** Superclass of generated f(x, y) classes; see {@link CompiledFunction}. */
+abstract class CompiledFunction2Var implements DualFunction2Var, BatchFunction2Var {
+
+    private final BatchProgram program;
+
+    CompiledFunction2Var(BatchProgram program) {
+        this.program = program;
+    }
+
+    @Override
+    public void applyBatch(double[] xs, double[] ys, double[] out, int count) {
+        if (program != null) {
+            program.apply(xs, ys, out, count);
+            return;
+        }
+        for (int i = 0; i < count; i++) out[i] = apply(xs[i], ys[i]);
+    }
+}
@@ -0,0 +1,74 @@
+package org.kkotlyarenko.expression;
+
+import org.kkotlyarenko.methods.DualFunction;
+import org.kkotlyarenko.methods.DualFunction2Var;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public final class ExpressionCompiler {
+
+    static final int CACHE_CAPACITY = 256;
+
+    /**
+     * Least recently used first. The hidden classes are not strongly tied to their loader, so an
+     * evicted one is unloaded once no function compiled from it is reachable.
+     */
+    private static final Map<String, Object> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+            return size() > CACHE_CAPACITY;
+        }
+    };
+
+    private ExpressionCompiler() {
+    }
+
+    public static DualFunction compile(String expression) {
+        Node node = Parser.parse(expression, "x");
+        return (DualFunction) cached("x:" + node, () ->
+                define(BytecodeEmitter.emitUnary(node, node.toString()), BatchProgram.compile(node)));
+    }
+
+    public static DualFunction2Var compile2Var(String expression) {
+        Node node = Parser.parse(expression, "x", "y");
+        return (DualFunction2Var) cached("xy:" + node, () ->
+                define(BytecodeEmitter.emitBinary(node, node.toString()), BatchProgram.compile(node)));
+    }
+
+    public static String normalize(String expression, String... variables) {
+        return Parser.parse(expression, variables).toString();
+    }
+
+    public static int cacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /** Compiles outside the lock; when two threads race on one key, both get the first class stored. */
+    private static Object cached(String key, Supplier<Object> compiler) {
+        synchronized (cache) {
+            Object function = cache.get(key);
+            if (function != null) return function;
+        }
+        Object compiled = compiler.get();
+        synchronized (cache) {
+            Object existing = cache.putIfAbsent(key, compiled);
+            return existing != null ? existing : compiled;
+        }
+    }
+
+    private static Object define(byte[] classBytes, BatchProgram program) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(classBytes, true);
+            return lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, BatchProgram.class))
+                    .invoke(program);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Не удалось скомпилировать выражение: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.kkotlyarenko.expression;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+enum MathFunction {
+    SIN("sin", "sin", Math::sin),
+    COS("cos", "cos", Math::cos),
+    TAN("tan", "tan", Math::tan),
+    ASIN("asin", "asin", Math::asin),
+    ACOS("acos", "acos", Math::acos),
+    ATAN("atan", "atan", Math::atan),
+    SINH("sinh", "sinh", Math::sinh),
+    COSH("cosh", "cosh", Math::cosh),
+    TANH("tanh", "tanh", Math::tanh),
+    EXP("exp", "exp", Math::exp),
+    LN("ln", "log", Math::log),
+    LOG("log", "log", Math::log),
+    LG("lg", "log10", Math::log10),
+    LOG10("log10", "log10", Math::log10),
+    SQRT("sqrt", "sqrt", Math::sqrt),
+    CBRT("cbrt", "cbrt", Math::cbrt),
+    ABS("abs", "abs", Math::abs),
+    POW("pow", "pow", Math::pow),
+    ATAN2("atan2", "atan2", Math::atan2),
+    MIN("min", "min", Math::min),
+    MAX("max", "max", Math::max);
+
+    private final String name;
+    private final String jvmName;
+    private final DoubleUnaryOperator unary;
+    private final DoubleBinaryOperator binary;
+
+    MathFunction(String name, String jvmName, DoubleUnaryOperator unary) {
+        this.name = name;
+        this.jvmName = jvmName;
+        this.unary = unary;
+        this.binary = null;
+    }
+
+    MathFunction(String name, String jvmName, DoubleBinaryOperator binary) {
+        this.name = name;
+        this.jvmName = jvmName;
+        this.unary = null;
+        this.binary = binary;
+    }
+
+    static MathFunction byName(String name) {
+        for (MathFunction function : values()) {
+            if (function.name.equals(name)) return function;
+        }
+        return null;
+    }
+
+    String displayName() {
+        return name;
+    }
+
+    String jvmName() {
+        return jvmName;
+    }
+
+    int arity() {
+        return unary != null ? 1 : 2;
+    }
+
+    double apply(double x) {
+        return unary.applyAsDouble(x);
+    }
+
+    double apply(double x, double y) {
+        return binary.applyAsDouble(x, y);
+    }
+}
@@ -0,0 +1,130 @@
+package org.kkotlyarenko.expression;
+
+sealed interface Node {
+
+    int MAX_EXPANDED_EXPONENT = 64;
+
+    record Constant(double value) implements Node {
+        @Override
+        public String toString() {
+            return Double.toString(value);
+        }
+    }
+
+    record Variable(int index, String name) implements Node {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    record Negate(Node operand) implements Node {
+        @Override
+        public String toString() {
+            return "(-" + operand + ")";
+        }
+    }
+
+    record Binary(char operator, Node left, Node right) implements Node {
+        @Override
+        public String toString() {
+            return "(" + left + operator + right + ")";
+        }
+    }
+
+    record IntPower(Node base, int exponent) implements Node {
+        @Override
+        public String toString() {
+            return "(" + base + "^" + exponent + ")";
+        }
+    }
+
+    record Call(MathFunction function, Node first, Node second) implements Node {
+        @Override
+        public String toString() {
+            return function.displayName() + "(" + first + (second != null ? "," + second : "") + ")";
+        }
+    }
+
+    static Node negate(Node operand) {
+        if (operand instanceof Constant c) return new Constant(-c.value());
+        if (operand instanceof Negate n) return n.operand();
+        return new Negate(operand);
+    }
+
+    static Node binary(char operator, Node left, Node right) {
+        if (left instanceof Constant l && right instanceof Constant r) {
+            return new Constant(switch (operator) {
+                case '+' -> l.value() + r.value();
+                case '-' -> l.value() - r.value();
+                case '*' -> l.value() * r.value();
+                case '/' -> l.value() / r.value();
+                default -> throw new IllegalStateException("Неизвестная операция: " + operator);
+            });
+        }
+        switch (operator) {
+            case '+':
+                if (isConstant(right, 0.0)) return left;
+                if (isConstant(left, 0.0)) return right;
+                if (right instanceof Negate n) return binary('-', left, n.operand());
+                break;
+            case '-':
+                if (isConstant(right, 0.0)) return left;
+                if (isConstant(left, 0.0)) return negate(right);
+                if (right instanceof Negate n) return binary('+', left, n.operand());
+                break;
+            case '*':
+                if (isConstant(right, 1.0)) return left;
+                if (isConstant(left, 1.0)) return right;
+                if (isConstant(right, -1.0)) return negate(left);
+                if (isConstant(left, -1.0)) return negate(right);
+                break;
+            case '/':
+                if (isConstant(right, 1.0)) return left;
+                if (right instanceof Constant c && isPowerOfTwo(c.value()) && Double.isFinite(1.0 / c.value())) {
+                    return binary('*', left, new Constant(1.0 / c.value()));
+                }
+                break;
+            default:
+                throw new IllegalStateException("Неизвестная операция: " + operator);
+        }
+        return new Binary(operator, left, right);
+    }
+
+    static Node power(Node base, Node exponent) {
+        if (base instanceof Constant b && exponent instanceof Constant e) {
+            return new Constant(Math.pow(b.value(), e.value()));
+        }
+        if (isConstant(base, Math.E)) {
+            return call(MathFunction.EXP, exponent, null);
+        }
+        if (exponent instanceof Constant e) {
+            double value = e.value();
+            if (value == Math.rint(value) && Math.abs(value) <= MAX_EXPANDED_EXPONENT) {
+                int n = (int) value;
+                if (n == 0) return new Constant(1.0);
+                if (n == 1) return base;
+                return new IntPower(base, n);
+            }
+            if (value == 0.5) return call(MathFunction.SQRT, base, null);
+        }
+        return call(MathFunction.POW, base, exponent);
+    }
+
+    static Node call(MathFunction function, Node first, Node second) {
+        if (first instanceof Constant a) {
+            if (second == null) return new Constant(function.apply(a.value()));
+            if (second instanceof Constant b) return new Constant(function.apply(a.value(), b.value()));
+        }
+        return new Call(function, first, second);
+    }
+
+    private static boolean isConstant(Node node, double value) {
+        return node instanceof Constant c && c.value() == value;
+    }
+
+    private static boolean isPowerOfTwo(double value) {
+        double abs = Math.abs(value);
+        return abs == Math.scalb(1.0, Math.getExponent(abs));
+    }
+}
@@ -0,0 +1,187 @@
+package org.kkotlyarenko.expression;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+final class Parser {
+
+    private static final Pattern DEFINITION = Pattern.compile("\\s*([A-Za-z]\\w*)\\s*\\(\\s*[A-Za-z,\\s]*\\)\\s*");
+
+    private final String source;
+    private final String[] variables;
+    private int pos;
+
+    private Parser(String source, String[] variables) {
+        this.source = normalize(source);
+        this.variables = variables;
+    }
+
+    static Node parse(String source, String... variables) {
+        Parser parser = new Parser(source, variables);
+        Node node = parser.parseExpression();
+        if (parser.accept('=')) {
+            node = Node.binary('-', node, parser.parseExpression());
+        }
+        parser.skipSpaces();
+        if (parser.pos < parser.source.length()) {
+            throw parser.error("Неожиданный символ '" + parser.source.charAt(parser.pos) + "'");
+        }
+        return node;
+    }
+
+    private static String normalize(String source) {
+        String s = source.trim()
+                .replace('−', '-')
+                .replace('×', '*')
+                .replace('·', '*')
+                .replace("**", "^")
+                .replace("²", "^2")
+                .replace("³", "^3");
+        int eq = s.indexOf('=');
+        if (eq >= 0) {
+            Matcher matcher = DEFINITION.matcher(s.substring(0, eq));
+            if (matcher.matches() && MathFunction.byName(matcher.group(1).toLowerCase()) == null) {
+                s = s.substring(eq + 1);
+            }
+        }
+        return s;
+    }
+
+    private Node parseExpression() {
+        Node node = parseTerm();
+        while (true) {
+            if (accept('+')) {
+                node = Node.binary('+', node, parseTerm());
+            } else if (accept('-')) {
+                node = Node.binary('-', node, parseTerm());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node parseTerm() {
+        Node node = parseUnary();
+        while (true) {
+            if (accept('*')) {
+                node = Node.binary('*', node, parseUnary());
+            } else if (accept('/')) {
+                node = Node.binary('/', node, parseUnary());
+            } else if (startsImplicitFactor()) {
+                node = Node.binary('*', node, parsePower());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node parseUnary() {
+        if (accept('-')) return Node.negate(parseUnary());
+        if (accept('+')) return parseUnary();
+        return parsePower();
+    }
+
+    private Node parsePower() {
+        Node base = parsePrimary();
+        if (accept('^')) {
+            return Node.power(base, parseUnary());
+        }
+        return base;
+    }
+
+    private Node parsePrimary() {
+        skipSpaces();
+        if (pos >= source.length()) {
+            throw error("Неожиданный конец выражения");
+        }
+        char c = source.charAt(pos);
+        if (accept('(')) {
+            Node inner = parseExpression();
+            expect(')');
+            return inner;
+        }
+        if (Character.isDigit(c) || c == '.') {
+            return new Node.Constant(parseNumber());
+        }
+        if (Character.isLetter(c)) {
+            String name = parseIdentifier();
+            if (accept('(')) {
+                MathFunction function = MathFunction.byName(name);
+                if (function == null) {
+                    throw error("Неизвестная функция '" + name + "'");
+                }
+                Node first = parseExpression();
+                Node second = null;
+                if (function.arity() == 2) {
+                    expect(',');
+                    second = parseExpression();
+                }
+                expect(')');
+                if (function == MathFunction.POW) return Node.power(first, second);
+                return Node.call(function, first, second);
+            }
+            for (int i = 0; i < variables.length; i++) {
+                if (variables[i].equals(name)) return new Node.Variable(i, name);
+            }
+            if (name.equals("pi")) return new Node.Constant(Math.PI);
+            if (name.equals("e")) return new Node.Constant(Math.E);
+            throw error("Неизвестная переменная '" + name + "'");
+        }
+        throw error("Неожиданный символ '" + c + "'");
+    }
+
+    private double parseNumber() {
+        int start = pos;
+        while (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.')) pos++;
+        if (pos < source.length() && (source.charAt(pos) == 'e' || source.charAt(pos) == 'E')) {
+            int mark = pos++;
+            if (pos < source.length() && (source.charAt(pos) == '+' || source.charAt(pos) == '-')) pos++;
+            if (pos < source.length() && Character.isDigit(source.charAt(pos))) {
+                while (pos < source.length() && Character.isDigit(source.charAt(pos))) pos++;
+            } else {
+                pos = mark;
+            }
+        }
+        try {
+            return Double.parseDouble(source.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw error("Некорректное число '" + source.substring(start, pos) + "'");
+        }
+    }
+
+    private String parseIdentifier() {
+        int start = pos;
+        while (pos < source.length() && Character.isLetterOrDigit(source.charAt(pos))) pos++;
+        return source.substring(start, pos).toLowerCase();
+    }
+
+    private boolean startsImplicitFactor() {
+        skipSpaces();
+        if (pos >= source.length()) return false;
+        char c = source.charAt(pos);
+        return c == '(' || Character.isLetter(c);
+    }
+
+    private boolean accept(char expected) {
+        skipSpaces();
+        if (pos < source.length() && source.charAt(pos) == expected) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected) {
+        if (!accept(expected)) {
+            throw error("Ожидался символ '" + expected + "'");
+        }
+    }
+
+    private void skipSpaces() {
+        while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) pos++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " в позиции " + (pos + 1) + ": " + source);
+    }
+}
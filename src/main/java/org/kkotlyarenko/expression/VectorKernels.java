@@ -0,0 +1,293 @@
+package org.kkotlyarenko.expression;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * SIMD loops for {@link BatchProgram} instructions. Each operation has its own loop with the
+ * operator written as a literal: C2 intrinsifies lanewise() only for constant operators, and a
+ * shared loop taking the operator as a parameter runs boxed and far slower than scalar code.
+ * Loaded only when {@link BatchProgram#SUPPORTED} is true.
+ */
+final class VectorKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    static final int LANES = SPECIES.length();
+
+    private VectorKernels() {
+    }
+
+    /** Runs one instruction on the first {@code length} elements (a multiple of LANES) of its registers. */
+    static void execute(BatchProgram.Instruction instruction, double[][] r, int length) {
+        double[] d = r[instruction.target()];
+        double[] a = instruction.left() >= 0 ? r[instruction.left()] : null;
+        double[] b = instruction.right() >= 0 ? r[instruction.right()] : null;
+        double k = instruction.constant();
+        switch (instruction.op()) {
+            case BatchProgram.CONSTANT -> Arrays.fill(d, 0, length, k);
+            case BatchProgram.NEGATE -> negate(d, a, length);
+            case BatchProgram.ADD -> add(d, a, b, length);
+            case BatchProgram.SUBTRACT -> subtract(d, a, b, length);
+            case BatchProgram.MULTIPLY -> multiply(d, a, b, length);
+            case BatchProgram.DIVIDE -> divide(d, a, b, length);
+            case BatchProgram.ADD_CONSTANT -> addConstant(d, a, k, length);
+            case BatchProgram.SUBTRACT_FROM_CONSTANT -> subtractFromConstant(d, k, a, length);
+            case BatchProgram.MULTIPLY_CONSTANT -> multiplyConstant(d, a, k, length);
+            case BatchProgram.DIVIDE_BY_CONSTANT -> divideByConstant(d, a, k, length);
+            case BatchProgram.DIVIDE_CONSTANT -> divideConstant(d, k, a, length);
+            case BatchProgram.INT_POWER -> power(d, a, b, (int) k, length);
+            case BatchProgram.CALL -> {
+                if (b == null) {
+                    call(instruction.function(), d, a, length);
+                } else {
+                    call(instruction.function(), d, a, b, length);
+                }
+            }
+            default -> throw new IllegalStateException("Неизвестная инструкция: " + instruction.op());
+        }
+    }
+
+    private static void call(MathFunction function, double[] d, double[] a, int length) {
+        switch (function) {
+            case SIN -> sin(d, a, length);
+            case COS -> cos(d, a, length);
+            case TAN -> tan(d, a, length);
+            case ASIN -> asin(d, a, length);
+            case ACOS -> acos(d, a, length);
+            case ATAN -> atan(d, a, length);
+            case SINH -> sinh(d, a, length);
+            case COSH -> cosh(d, a, length);
+            case TANH -> tanh(d, a, length);
+            case EXP -> exp(d, a, length);
+            case LN, LOG -> log(d, a, length);
+            case LG, LOG10 -> log10(d, a, length);
+            case SQRT -> sqrt(d, a, length);
+            case CBRT -> cbrt(d, a, length);
+            case ABS -> abs(d, a, length);
+            default -> throw new IllegalStateException("Функция не является унарной: " + function.displayName());
+        }
+    }
+
+    private static void call(MathFunction function, double[] d, double[] a, double[] b, int length) {
+        switch (function) {
+            case POW -> pow(d, a, b, length);
+            case ATAN2 -> atan2(d, a, b, length);
+            case MIN -> min(d, a, b, length);
+            case MAX -> max(d, a, b, length);
+            default -> throw new IllegalStateException("Функция не является бинарной: " + function.displayName());
+        }
+    }
+
+    private static void sin(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.SIN).intoArray(d, i);
+        }
+    }
+
+    private static void cos(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.COS).intoArray(d, i);
+        }
+    }
+
+    private static void tan(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.TAN).intoArray(d, i);
+        }
+    }
+
+    private static void asin(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.ASIN).intoArray(d, i);
+        }
+    }
+
+    private static void acos(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.ACOS).intoArray(d, i);
+        }
+    }
+
+    private static void atan(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.ATAN).intoArray(d, i);
+        }
+    }
+
+    private static void sinh(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.SINH).intoArray(d, i);
+        }
+    }
+
+    private static void cosh(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.COSH).intoArray(d, i);
+        }
+    }
+
+    private static void tanh(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.TANH).intoArray(d, i);
+        }
+    }
+
+    private static void exp(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.EXP).intoArray(d, i);
+        }
+    }
+
+    private static void log(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.LOG).intoArray(d, i);
+        }
+    }
+
+    private static void log10(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.LOG10).intoArray(d, i);
+        }
+    }
+
+    private static void sqrt(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.SQRT).intoArray(d, i);
+        }
+    }
+
+    private static void cbrt(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.CBRT).intoArray(d, i);
+        }
+    }
+
+    private static void abs(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.ABS).intoArray(d, i);
+        }
+    }
+
+    private static void negate(double[] d, double[] a, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.NEG).intoArray(d, i);
+        }
+    }
+
+    private static void add(double[] d, double[] a, double[] b, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.ADD, DoubleVector.fromArray(SPECIES, b, i))
+                    .intoArray(d, i);
+        }
+    }
+
+    private static void subtract(double[] d, double[] a, double[] b, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.SUB, DoubleVector.fromArray(SPECIES, b, i))
+                    .intoArray(d, i);
+        }
+    }
+
+    private static void multiply(double[] d, double[] a, double[] b, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.MUL, DoubleVector.fromArray(SPECIES, b, i))
+                    .intoArray(d, i);
+        }
+    }
+
+    private static void divide(double[] d, double[] a, double[] b, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.DIV, DoubleVector.fromArray(SPECIES, b, i))
+                    .intoArray(d, i);
+        }
+    }
+
+    private static void pow(double[] d, double[] a, double[] b, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.POW, DoubleVector.fromArray(SPECIES, b, i))
+                    .intoArray(d, i);
+        }
+    }
+
+    private static void atan2(double[] d, double[] a, double[] b, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.ATAN2, DoubleVector.fromArray(SPECIES, b, i))
+                    .intoArray(d, i);
+        }
+    }
+
+    private static void min(double[] d, double[] a, double[] b, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.MIN, DoubleVector.fromArray(SPECIES, b, i))
+                    .intoArray(d, i);
+        }
+    }
+
+    private static void max(double[] d, double[] a, double[] b, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.MAX, DoubleVector.fromArray(SPECIES, b, i))
+                    .intoArray(d, i);
+        }
+    }
+
+    private static void addConstant(double[] d, double[] a, double k, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.ADD, k).intoArray(d, i);
+        }
+    }
+
+    private static void multiplyConstant(double[] d, double[] a, double k, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.MUL, k).intoArray(d, i);
+        }
+    }
+
+    private static void divideByConstant(double[] d, double[] a, double k, int length) {
+        for (int i = 0; i < length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).lanewise(VectorOperators.DIV, k).intoArray(d, i);
+        }
+    }
+
+    private static void subtractFromConstant(double[] d, double k, double[] a, int length) {
+        DoubleVector constant = DoubleVector.broadcast(SPECIES, k);
+        for (int i = 0; i < length; i += LANES) {
+            constant.lanewise(VectorOperators.SUB, DoubleVector.fromArray(SPECIES, a, i)).intoArray(d, i);
+        }
+    }
+
+    private static void divideConstant(double[] d, double k, double[] a, int length) {
+        DoubleVector constant = DoubleVector.broadcast(SPECIES, k);
+        for (int i = 0; i < length; i += LANES) {
+            constant.lanewise(VectorOperators.DIV, DoubleVector.fromArray(SPECIES, a, i)).intoArray(d, i);
+        }
+    }
+
+    /**
+     * Right-to-left binary powering over whole registers, with {@code square} as scratch; same
+     * multiplication order as the scalar code, so integer powers match it bit for bit. Writes to d
+     * only once a copy of a is no longer needed, so d may alias a.
+     */
+    private static void power(double[] d, double[] a, double[] square, int exponent, int length) {
+        long remaining = Math.abs((long) exponent);
+        double[] base = a;
+        boolean hasResult = false;
+        while (true) {
+            if ((remaining & 1) != 0) {
+                if (hasResult) {
+                    multiply(d, d, base, length);
+                } else if (d != base) {
+                    System.arraycopy(base, 0, d, 0, length);
+                }
+                hasResult = true;
+            }
+            remaining >>= 1;
+            if (remaining == 0) break;
+            multiply(square, base, base, length);
+            base = square;
+        }
+        if (exponent < 0) divideConstant(d, 1.0, d, length);
+    }
+}
@@ -0,0 +1,234 @@
+package org.kkotlyarenko.methods;
+
+import org.kkotlyarenko.results.BatchResult;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleUnaryOperator;
+
+public class AllRootsFinder {
+
+    public static final int DEFAULT_SUBINTERVALS = 4096;
+    private static final int CHUNK_SIZE = 256;
+    private static final double GOLDEN = (Math.sqrt(5.0) - 1.0) / 2.0;
+    private static final int MAX_MINIMUM_ITERATIONS = 200;
+
+    private final EquationSolver solver;
+    private final int subintervals;
+    private final CancellationToken token;
+    private final BisectionMethod fallback;
+
+    public AllRootsFinder(EquationSolver solver) {
+        this(solver, DEFAULT_SUBINTERVALS);
+    }
+
+    public AllRootsFinder(EquationSolver solver, int subintervals) {
+        this(solver, subintervals, CancellationToken.NONE);
+    }
+
+    /** Once the token stops, unscanned subintervals are skipped and the roots found so far are returned. */
+    public AllRootsFinder(EquationSolver solver, int subintervals, CancellationToken token) {
+        if (subintervals < 1) {
+            throw new IllegalArgumentException("Число подынтервалов должно быть положительным: " + subintervals);
+        }
+        this.solver = solver;
+        this.subintervals = subintervals;
+        this.token = token;
+        this.fallback = new BisectionMethod(IterationListener.NONE, token);
+    }
+
+    public double[] findRoots(DoubleUnaryOperator f, double a, double b, double eps) {
+        if (!(a < b)) {
+            throw new IllegalArgumentException("Левая граница 'a' должна быть строго меньше правой 'b'.");
+        }
+        int n = subintervals;
+        double step = (b - a) / n;
+        double[] values = new double[n + 1];
+        ForkJoinPool.commonPool().invoke(new ScanTask(f, a, b, step, n, values, 0, n + 1, token));
+
+        double[] found = new double[16];
+        int foundCount = 0;
+        double[] bracketA = new double[16];
+        double[] bracketB = new double[16];
+        double[] bracketLimit = new double[16];
+        int bracketCount = 0;
+
+        for (int i = 0; i <= n; i++) {
+            double v = values[i];
+            if (!Double.isFinite(v)) continue;
+            double x = gridPoint(a, b, step, n, i);
+
+            if (v == 0.0) {
+                found = append(found, foundCount++, x);
+                continue;
+            }
+            if (i == n) continue;
+
+            double next = values[i + 1];
+            if (!Double.isFinite(next) || next == 0.0) continue;
+
+            if ((v < 0) != (next < 0)) {
+                bracketA = append(bracketA, bracketCount, x);
+                bracketB = append(bracketB, bracketCount, gridPoint(a, b, step, n, i + 1));
+                bracketLimit = append(bracketLimit, bracketCount, Math.max(Math.abs(v), Math.abs(next)));
+                bracketCount++;
+            } else if (i > 0 && isLocalMinimum(values, i) && !token.shouldStop()) {
+                double xMin = minimizeAbs(f, gridPoint(a, b, step, n, i - 1), gridPoint(a, b, step, n, i + 1), eps);
+                double fMin = f.applyAsDouble(xMin);
+                if (Math.abs(fMin) < eps) {
+                    found = append(found, foundCount++, xMin);
+                }
+            }
+        }
+
+        if (bracketCount > 0) {
+            double[] lo = Arrays.copyOf(bracketA, bracketCount);
+            double[] hi = Arrays.copyOf(bracketB, bracketCount);
+            double[] tolerance = new double[bracketCount];
+            Arrays.fill(tolerance, eps);
+            BatchResult refined = new BatchResult(bracketCount);
+            solver.solveBatch(f, lo, hi, tolerance, refined);
+
+            double[] roots = refined.getRoots();
+            double[] rootValues = refined.getValues();
+            for (int i = 0; i < bracketCount; i++) {
+                double root = roots[i];
+                if (!refined.isSuccess(i) || root < lo[i] - eps || root > hi[i] + eps) {
+                    fallback.solve(f, lo[i], hi[i], eps, refined, i);
+                    if (!refined.isSuccess(i)) continue;
+                    root = roots[i];
+                }
+                if (isPole(rootValues[i], bracketLimit[i], eps)) continue;
+                found = append(found, foundCount++, root);
+            }
+        }
+
+        return deduplicate(found, foundCount, eps);
+    }
+
+    private static double gridPoint(double a, double b, double step, int n, int i) {
+        return i == n ? b : a + i * step;
+    }
+
+    /**
+     * A sign change across a pole (tan, 1/x) refines to a point where |f| grew past both bracket
+     * ends; a continuous sign change ends with |f| at most that of the larger end.
+     */
+    private static boolean isPole(double value, double bracketLimit, double eps) {
+        double magnitude = Math.abs(value);
+        return !(magnitude <= eps || magnitude <= bracketLimit);
+    }
+
+    private static boolean isLocalMinimum(double[] values, int i) {
+        double prev = values[i - 1];
+        double current = values[i];
+        double next = values[i + 1];
+        if (!Double.isFinite(prev) || (prev < 0) != (current < 0)) return false;
+        double absCurrent = Math.abs(current);
+        if (absCurrent > Math.abs(prev) || absCurrent > Math.abs(next)) return false;
+        return absCurrent <= Math.abs(prev - current) + Math.abs(next - current);
+    }
+
+    private static double minimizeAbs(DoubleUnaryOperator f, double left, double right, double eps) {
+        double x1 = right - GOLDEN * (right - left);
+        double x2 = left + GOLDEN * (right - left);
+        double f1 = Math.abs(f.applyAsDouble(x1));
+        double f2 = Math.abs(f.applyAsDouble(x2));
+        int iterations = 0;
+
+        while (right - left > eps && iterations++ < MAX_MINIMUM_ITERATIONS) {
+            if (f1 < f2) {
+                right = x2;
+                x2 = x1;
+                f2 = f1;
+                x1 = right - GOLDEN * (right - left);
+                f1 = Math.abs(f.applyAsDouble(x1));
+            } else {
+                left = x1;
+                x1 = x2;
+                f1 = f2;
+                x2 = left + GOLDEN * (right - left);
+                f2 = Math.abs(f.applyAsDouble(x2));
+            }
+        }
+        return (left + right) / 2.0;
+    }
+
+    private static double[] deduplicate(double[] roots, int count, double eps) {
+        if (count == 0) return new double[0];
+        Arrays.sort(roots, 0, count);
+        double tolerance = 2.0 * eps;
+        int unique = 1;
+        for (int i = 1; i < count; i++) {
+            if (roots[i] - roots[unique - 1] > tolerance) {
+                roots[unique++] = roots[i];
+            }
+        }
+        return Arrays.copyOf(roots, unique);
+    }
+
+    private static double[] append(double[] array, int size, double value) {
+        if (size == array.length) {
+            array = Arrays.copyOf(array, size * 2);
+        }
+        array[size] = value;
+        return array;
+    }
+
+    private static final class ScanTask extends RecursiveAction {
+        private final DoubleUnaryOperator f;
+        private final double a;
+        private final double b;
+        private final double step;
+        private final int n;
+        private final double[] values;
+        private final int from;
+        private final int to;
+        private final CancellationToken token;
+
+        ScanTask(DoubleUnaryOperator f, double a, double b, double step, int n, double[] values, int from, int to,
+                 CancellationToken token) {
+            this.f = f;
+            this.a = a;
+            this.b = b;
+            this.step = step;
+            this.n = n;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.token = token;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                if (token.shouldStop()) {
+                    Arrays.fill(values, from, to, Double.NaN);
+                    return;
+                }
+                int count = to - from;
+                double[] xs = new double[count];
+                for (int i = 0; i < count; i++) xs[i] = gridPoint(a, b, step, n, from + i);
+                double[] ys = new double[count];
+                try {
+                    BatchFunction.of(f).applyBatch(xs, ys, count);
+                } catch (ArithmeticException e) {
+                    for (int i = 0; i < count; i++) ys[i] = valueAt(xs[i]);
+                }
+                System.arraycopy(ys, 0, values, from, count);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScanTask(f, a, b, step, n, values, from, mid, token),
+                    new ScanTask(f, a, b, step, n, values, mid, to, token));
+        }
+
+        private double valueAt(double x) {
+            try {
+                return f.applyAsDouble(x);
+            } catch (ArithmeticException e) {
+                return Double.NaN;
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.kkotlyarenko.methods;
+
+import java.util.function.DoubleUnaryOperator;
+
+/** f(x) over many points in one call, so implementations can evaluate several points per instruction. */
+@FunctionalInterface
+public interface BatchFunction {
+
+    /** Writes f(xs[i]) to ys[i] for i in [0, count). */
+    void applyBatch(double[] xs, double[] ys, int count);
+
+    /** f itself when it already evaluates in batches, otherwise a point-by-point loop over f. */
+    static BatchFunction of(DoubleUnaryOperator f) {
+        if (f instanceof BatchFunction batch) return batch;
+        return (xs, ys, count) -> {
+            for (int i = 0; i < count; i++) ys[i] = f.applyAsDouble(xs[i]);
+        };
+    }
+}
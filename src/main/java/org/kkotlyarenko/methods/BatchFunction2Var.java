@@ -0,0 +1,16 @@
+package org.kkotlyarenko.methods;
+
+/** f(x, y) over many points in one call; see {@link BatchFunction}. */
+@FunctionalInterface
+public interface BatchFunction2Var {
+
+    /** Writes f(xs[i], ys[i]) to out[i] for i in [0, count). */
+    void applyBatch(double[] xs, double[] ys, double[] out, int count);
+
+    static BatchFunction2Var of(NewtonSystemSolver.Function2Var f) {
+        if (f instanceof BatchFunction2Var batch) return batch;
+        return (xs, ys, out, count) -> {
+            for (int i = 0; i < count; i++) out[i] = f.apply(xs[i], ys[i]);
+        };
+    }
+}
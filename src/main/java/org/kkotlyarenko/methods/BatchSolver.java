@@ -0,0 +1,73 @@
+package org.kkotlyarenko.methods;
+
+import org.kkotlyarenko.results.BatchResult;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleUnaryOperator;
+
+public final class BatchSolver {
+
+    private static final int SEQUENTIAL_THRESHOLD = 512;
+
+    private BatchSolver() {
+    }
+
+    public static void solve(EquationSolver solver, DoubleUnaryOperator f,
+                             double[] a, double[] b, double[] eps, BatchResult out) {
+        int n = a.length;
+        if (b.length != n || eps.length != n) {
+            throw new IllegalArgumentException("Массивы a, b и eps должны иметь одинаковую длину.");
+        }
+        if (out.size() < n) {
+            throw new IllegalArgumentException("Размер результата (" + out.size() + ") меньше числа задач (" + n + ").");
+        }
+        if (n == 0) return;
+
+        if (n <= SEQUENTIAL_THRESHOLD) {
+            solveRange(solver, f, a, b, eps, out, 0, n);
+        } else {
+            ForkJoinPool.commonPool().invoke(new SolveTask(solver, f, a, b, eps, out, 0, n));
+        }
+    }
+
+    private static void solveRange(EquationSolver solver, DoubleUnaryOperator f,
+                                   double[] a, double[] b, double[] eps, BatchResult out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            solver.solve(f, a[i], b[i], eps[i], out, i);
+        }
+    }
+
+    private static final class SolveTask extends RecursiveAction {
+        private final EquationSolver solver;
+        private final DoubleUnaryOperator f;
+        private final double[] a;
+        private final double[] b;
+        private final double[] eps;
+        private final BatchResult out;
+        private final int from;
+        private final int to;
+
+        SolveTask(EquationSolver solver, DoubleUnaryOperator f,
+                  double[] a, double[] b, double[] eps, BatchResult out, int from, int to) {
+            this.solver = solver;
+            this.f = f;
+            this.a = a;
+            this.b = b;
+            this.eps = eps;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                solveRange(solver, f, a, b, eps, out, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SolveTask(solver, f, a, b, eps, out, from, mid),
+                    new SolveTask(solver, f, a, b, eps, out, mid, to));
+        }
+    }
+}
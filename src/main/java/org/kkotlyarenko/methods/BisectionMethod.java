@@ -1,25 +1,57 @@
 package org.kkotlyarenko.methods;
 
 import org.kkotlyarenko.results.MethodResult;
+import org.kkotlyarenko.results.MutableMethodResult;
+import org.kkotlyarenko.results.ResultSink;
+import org.kkotlyarenko.results.SolveStatus;
 import java.util.function.DoubleUnaryOperator;
 
 public class BisectionMethod implements EquationSolver {
 
     private static final int MAX_ITERATIONS = 10000;
 
+    private final IterationListener listener;
+    private final CancellationToken token;
+
+    public BisectionMethod() {
+        this(IterationListener.NONE);
+    }
+
+    public BisectionMethod(IterationListener listener) {
+        this(listener, CancellationToken.NONE);
+    }
+
+    public BisectionMethod(IterationListener listener, CancellationToken token) {
+        this.listener = listener;
+        this.token = token;
+    }
+
     @Override
     public MethodResult solve(DoubleUnaryOperator f, double a, double b, double eps) {
+        MutableMethodResult out = new MutableMethodResult();
+        solve(f, a, b, eps, out, 0);
+        return out.toMethodResult();
+    }
+
+    @Override
+    public void solve(DoubleUnaryOperator f, double a, double b, double eps, ResultSink out, int index) {
         double fa = f.applyAsDouble(a);
         double fb = f.applyAsDouble(b);
 
         if (Double.isNaN(fa) || Double.isNaN(fb) || Double.isInfinite(fa) || Double.isInfinite(fb)) {
-            return MethodResult.failure("Значение функции не определено или бесконечно на границах интервала.");
+            out.failure(index, SolveStatus.UNDEFINED_AT_BOUNDS);
+            return;
         }
 
         if (Math.signum(fa) * Math.signum(fb) >= 0) {
-            if (Math.abs(fa) < eps) return MethodResult.success(a, fa, 0);
-            if (Math.abs(fb) < eps) return MethodResult.success(b, fb, 0);
-            return MethodResult.failure("Значения функции на концах интервала одного знака или равны нулю. Метод не гарантирует корень внутри интервала.");
+            if (Math.abs(fa) < eps) {
+                out.success(index, a, fa, 0);
+            } else if (Math.abs(fb) < eps) {
+                out.success(index, b, fb, 0);
+            } else {
+                out.failure(index, SolveStatus.NO_SIGN_CHANGE);
+            }
+            return;
         }
 
         double c = a;
@@ -27,23 +59,32 @@ public class BisectionMethod implements EquationSolver {
         double errorEstimate = Math.abs(b - a);
 
         while (errorEstimate > eps) {
+            if (token.shouldStop()) {
+                double estimate = (a + b) / 2.0;
+                out.set(index, token.solveStatus(), estimate, f.applyAsDouble(estimate), iterations, Math.abs(b - a) / 2.0);
+                return;
+            }
             if (iterations >= MAX_ITERATIONS) {
                 double lastRoot = (a + b) / 2.0;
                 double lastFVal = f.applyAsDouble(lastRoot);
-                return MethodResult.failure("Превышено максимальное количество итераций (" + MAX_ITERATIONS + ").", iterations, lastRoot, lastFVal);
+                out.set(index, SolveStatus.MAX_ITERATIONS, lastRoot, lastFVal, iterations, Double.NaN);
+                return;
             }
 
             c = a + (b - a) / 2.0;
             double fc = f.applyAsDouble(c);
             iterations++;
 
+            listener.onIteration(iterations, c, fc, Math.abs(b - a) / 2.0);
+
             if (Double.isNaN(fc) || Double.isInfinite(fc)) {
-                return MethodResult.failure("Значение функции не определено или бесконечно в точке c = " + c, iterations);
+                out.set(index, SolveStatus.UNDEFINED_AT_POINT, Double.NaN, Double.NaN, iterations, c);
+                return;
             }
 
             if (fc == 0.0 || Math.abs(b - a) / 2.0 < eps) {
-                errorEstimate = Math.abs(b - a) / 2.0;
-                break;
+                out.success(index, c, fc, iterations);
+                return;
             }
 
             if (Math.signum(fa) * Math.signum(fc) < 0) {
@@ -58,6 +99,6 @@ public class BisectionMethod implements EquationSolver {
 
         double finalRoot = (a + b) / 2.0;
         double finalFValue = f.applyAsDouble(finalRoot);
-        return MethodResult.success(finalRoot, finalFValue, iterations);
+        out.success(index, finalRoot, finalFValue, iterations);
     }
 }
@@ -0,0 +1,142 @@
+package org.kkotlyarenko.methods;
+
+import org.kkotlyarenko.results.MethodResult;
+import org.kkotlyarenko.results.MutableMethodResult;
+import org.kkotlyarenko.results.ResultSink;
+import org.kkotlyarenko.results.SolveStatus;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Brent's method: inverse quadratic or secant steps inside a sign-change bracket, falling back
+ * to bisection whenever a step would not shrink the bracket fast enough. Keeps the bisection
+ * guarantee and converges superlinearly near simple roots; one evaluation per iteration.
+ */
+public class BrentMethod implements EquationSolver {
+
+    private static final int MAX_ITERATIONS = 10000;
+    private static final double MACHINE_EPSILON = Math.ulp(1.0);
+
+    private final IterationListener listener;
+    private final CancellationToken token;
+
+    public BrentMethod() {
+        this(IterationListener.NONE);
+    }
+
+    public BrentMethod(IterationListener listener) {
+        this(listener, CancellationToken.NONE);
+    }
+
+    public BrentMethod(IterationListener listener, CancellationToken token) {
+        this.listener = listener;
+        this.token = token;
+    }
+
+    @Override
+    public MethodResult solve(DoubleUnaryOperator f, double a, double b, double eps) {
+        MutableMethodResult out = new MutableMethodResult();
+        solve(f, a, b, eps, out, 0);
+        return out.toMethodResult();
+    }
+
+    @Override
+    public void solve(DoubleUnaryOperator f, double a, double b, double eps, ResultSink out, int index) {
+        double fa = f.applyAsDouble(a);
+        double fb = f.applyAsDouble(b);
+
+        if (Double.isNaN(fa) || Double.isNaN(fb) || Double.isInfinite(fa) || Double.isInfinite(fb)) {
+            out.failure(index, SolveStatus.UNDEFINED_AT_BOUNDS);
+            return;
+        }
+
+        if (Math.signum(fa) * Math.signum(fb) >= 0) {
+            if (Math.abs(fa) < eps) {
+                out.success(index, a, fa, 0);
+            } else if (Math.abs(fb) < eps) {
+                out.success(index, b, fb, 0);
+            } else {
+                out.failure(index, SolveStatus.NO_SIGN_CHANGE);
+            }
+            return;
+        }
+
+        // b is the best estimate, c the other end of the bracket, a the previous b.
+        double c = b, fc = fb;
+        double d = b - a, e = d;
+        int iterations = 0;
+
+        while (true) {
+            if ((fb > 0) == (fc > 0)) {
+                c = a;
+                fc = fa;
+                d = b - a;
+                e = d;
+            }
+            if (Math.abs(fc) < Math.abs(fb)) {
+                a = b;
+                b = c;
+                c = a;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+
+            double tolerance = 2.0 * MACHINE_EPSILON * Math.abs(b) + 0.5 * eps;
+            double half = 0.5 * (c - b);
+            if (Math.abs(half) <= tolerance || fb == 0.0) {
+                out.success(index, b, fb, iterations);
+                return;
+            }
+            if (token.shouldStop()) {
+                out.set(index, token.solveStatus(), b, fb, iterations, Math.abs(half));
+                return;
+            }
+            if (iterations >= MAX_ITERATIONS) {
+                out.set(index, SolveStatus.MAX_ITERATIONS, b, fb, iterations, Math.abs(half));
+                return;
+            }
+
+            if (Math.abs(e) >= tolerance && Math.abs(fa) > Math.abs(fb)) {
+                double s = fb / fa;
+                double p, q;
+                if (a == c) {
+                    p = 2.0 * half * s;
+                    q = 1.0 - s;
+                } else {
+                    double qa = fa / fc;
+                    double r = fb / fc;
+                    p = s * (2.0 * half * qa * (qa - r) - (b - a) * (r - 1.0));
+                    q = (qa - 1.0) * (r - 1.0) * (s - 1.0);
+                }
+                if (p > 0) {
+                    q = -q;
+                } else {
+                    p = -p;
+                }
+                if (2.0 * p < Math.min(3.0 * half * q - Math.abs(tolerance * q), Math.abs(e * q))) {
+                    e = d;
+                    d = p / q;
+                } else {
+                    d = half;
+                    e = d;
+                }
+            } else {
+                d = half;
+                e = d;
+            }
+
+            a = b;
+            fa = fb;
+            b += Math.abs(d) > tolerance ? d : Math.copySign(tolerance, half);
+            fb = f.applyAsDouble(b);
+            iterations++;
+
+            listener.onIteration(iterations, b, fb, Math.abs(half));
+
+            if (Double.isNaN(fb) || Double.isInfinite(fb)) {
+                out.set(index, SolveStatus.UNDEFINED_AT_POINT, Double.NaN, Double.NaN, iterations, b);
+                return;
+            }
+        }
+    }
+}
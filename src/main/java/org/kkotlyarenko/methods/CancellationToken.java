@@ -0,0 +1,60 @@
+package org.kkotlyarenko.methods;
+
+import org.kkotlyarenko.results.SolveStatus;
+import org.kkotlyarenko.results.SystemStatus;
+
+import java.time.Duration;
+
+/**
+ * Cooperative stop signal for solvers and plotting: set by {@link #cancel()} from any thread, or
+ * when the optional deadline passes. Loops poll {@link #shouldStop()} once per iteration and
+ * return their current estimate instead of throwing.
+ */
+public final class CancellationToken {
+
+    /** Shared by every solver that was given no token, so cancel() on it does nothing. */
+    public static final CancellationToken NONE = new CancellationToken(false, false, 0);
+
+    private final boolean cancellable;
+    private final boolean hasDeadline;
+    private final long deadline;
+    private volatile boolean cancelled;
+
+    private CancellationToken(boolean cancellable, boolean hasDeadline, long deadline) {
+        this.cancellable = cancellable;
+        this.hasDeadline = hasDeadline;
+        this.deadline = deadline;
+    }
+
+    public static CancellationToken create() {
+        return new CancellationToken(true, false, 0);
+    }
+
+    public static CancellationToken withTimeout(Duration timeout) {
+        return new CancellationToken(true, true, System.nanoTime() + timeout.toNanos());
+    }
+
+    public void cancel() {
+        if (cancellable) cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isExpired() {
+        return hasDeadline && System.nanoTime() - deadline >= 0;
+    }
+
+    public boolean shouldStop() {
+        return cancelled || (hasDeadline && System.nanoTime() - deadline >= 0);
+    }
+
+    SolveStatus solveStatus() {
+        return cancelled ? SolveStatus.CANCELLED : SolveStatus.DEADLINE_EXCEEDED;
+    }
+
+    SystemStatus systemStatus() {
+        return cancelled ? SystemStatus.CANCELLED : SystemStatus.DEADLINE_EXCEEDED;
+    }
+}
@@ -0,0 +1,33 @@
+package org.kkotlyarenko.methods;
+
+import org.kkotlyarenko.results.SolveCost;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Wall-clock and CPU time from construction to {@link #stop}. CPU time is that of the thread
+ * that created the meter, so work handed to other threads (all-roots scans, the portfolio race)
+ * shows up only in wall time.
+ */
+public final class CostMeter {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final long wallStart = System.nanoTime();
+    private final long cpuStart = cpuTime();
+
+    public SolveCost stop(long functionEvaluations, long derivativeEvaluations, long jacobianEvaluations) {
+        long wall = System.nanoTime() - wallStart;
+        long cpu = cpuStart < 0 ? -1 : cpuTime() - cpuStart;
+        return new SolveCost(functionEvaluations, derivativeEvaluations, jacobianEvaluations, wall, cpu);
+    }
+
+    public SolveCost stop(CountingFunction f) {
+        return stop(f.functionEvaluations(), f.derivativeEvaluations(), 0);
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+}
@@ -0,0 +1,55 @@
+package org.kkotlyarenko.methods;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counts calls to f and f'; safe to share between the threads of a parallel solve. */
+public final class CountingFunction implements DualFunction, BatchFunction {
+
+    private final DualFunction f;
+    private final BatchFunction batch;
+    private final LongAdder values = new LongAdder();
+    private final LongAdder derivatives = new LongAdder();
+
+    public CountingFunction(DualFunction f) {
+        this.f = f;
+        this.batch = BatchFunction.of(f);
+    }
+
+    @Override
+    public double applyAsDouble(double x) {
+        values.increment();
+        return f.applyAsDouble(x);
+    }
+
+    @Override
+    public void evaluate(double x, double[] out) {
+        values.increment();
+        derivatives.increment();
+        f.evaluate(x, out);
+    }
+
+    @Override
+    public double derivative(double x) {
+        derivatives.increment();
+        return f.derivative(x);
+    }
+
+    @Override
+    public void applyBatch(double[] xs, double[] ys, int count) {
+        values.add(count);
+        batch.applyBatch(xs, ys, count);
+    }
+
+    public long functionEvaluations() {
+        return values.sum();
+    }
+
+    public long derivativeEvaluations() {
+        return derivatives.sum();
+    }
+
+    @Override
+    public String toString() {
+        return f.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package org.kkotlyarenko.methods;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counts calls to f(x, y) and its partials; {@link #evaluate} is one value and two partials. */
+public final class CountingFunction2Var implements DualFunction2Var, BatchFunction2Var {
+
+    private final DualFunction2Var f;
+    private final BatchFunction2Var batch;
+    private final LongAdder values = new LongAdder();
+    private final LongAdder gradients = new LongAdder();
+
+    public CountingFunction2Var(DualFunction2Var f) {
+        this.f = f;
+        this.batch = BatchFunction2Var.of(f);
+    }
+
+    @Override
+    public double apply(double x, double y) {
+        values.increment();
+        return f.apply(x, y);
+    }
+
+    @Override
+    public void evaluate(double x, double y, double[] out) {
+        values.increment();
+        gradients.increment();
+        f.evaluate(x, y, out);
+    }
+
+    @Override
+    public void applyBatch(double[] xs, double[] ys, double[] out, int count) {
+        values.add(count);
+        batch.applyBatch(xs, ys, out, count);
+    }
+
+    public long functionEvaluations() {
+        return values.sum();
+    }
+
+    public long derivativeEvaluations() {
+        return 2 * gradients.sum();
+    }
+
+    @Override
+    public String toString() {
+        return f.toString();
+    }
+}
@@ -0,0 +1,11 @@
+package org.kkotlyarenko.methods;
+
+import java.util.function.DoubleUnaryOperator;
+
+public interface DualFunction extends DoubleUnaryOperator {
+
+    /** Writes f(x) to out[0] and f'(x) to out[1]. */
+    void evaluate(double x, double[] out);
+
+    double derivative(double x);
+}
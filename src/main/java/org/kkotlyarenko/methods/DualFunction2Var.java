@@ -0,0 +1,7 @@
+package org.kkotlyarenko.methods;
+
+public interface DualFunction2Var extends NewtonSystemSolver.Function2Var {
+
+    /** Writes f(x, y) to out[0], df/dx to out[1] and df/dy to out[2]. */
+    void evaluate(double x, double y, double[] out);
+}
@@ -1,9 +1,19 @@
 package org.kkotlyarenko.methods;
 
+import org.kkotlyarenko.results.BatchResult;
 import org.kkotlyarenko.results.MethodResult;
+import org.kkotlyarenko.results.ResultSink;
 import java.util.function.DoubleUnaryOperator;
 
 @FunctionalInterface
 public interface EquationSolver {
     MethodResult solve(DoubleUnaryOperator f, double a, double b, double eps);
+
+    default void solve(DoubleUnaryOperator f, double a, double b, double eps, ResultSink out, int index) {
+        out.set(index, solve(f, a, b, eps));
+    }
+
+    default void solveBatch(DoubleUnaryOperator f, double[] a, double[] b, double[] eps, BatchResult out) {
+        BatchSolver.solve(this, f, a, b, eps, out);
+    }
 }
@@ -0,0 +1,119 @@
+package org.kkotlyarenko.methods;
+
+import java.util.Arrays;
+
+/**
+ * A bounded open-addressing table from the raw bits of one or two doubles to a double, with no
+ * boxing. A key is looked for in a short window of slots after its hash; when the window is full,
+ * one of its slots is evicted. Entries are never removed one by one, so a lookup can stop at the
+ * first empty slot. Not thread-safe: one cache belongs to one solve-and-plot session.
+ */
+public final class EvaluationCache {
+
+    public static final int DEFAULT_CAPACITY = 1 << 13;
+    private static final int WINDOW = 8;
+
+    public record Stats(long hits, long misses, long evictions, int size, int capacity) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    private final long[] firstKeys;
+    private final long[] secondKeys;
+    private final double[] values;
+    /** A slot is live when its stamp equals the current generation; clear() just moves on. */
+    private final int[] stamps;
+    private final int mask;
+    private int generation = 1;
+    private int size;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public EvaluationCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** capacity is rounded up to a power of two, at least the probe window. */
+    public EvaluationCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ёмкость кэша должна быть положительной: " + capacity);
+        }
+        int slots = Math.max(WINDOW, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+        firstKeys = new long[slots];
+        secondKeys = new long[slots];
+        values = new double[slots];
+        stamps = new int[slots];
+        mask = slots - 1;
+    }
+
+    /** The slot holding the key, or -1; counts a hit or a miss. */
+    int find(long first, long second) {
+        int home = hash(first, second);
+        for (int i = 0; i < WINDOW; i++) {
+            int slot = (home + i) & mask;
+            if (stamps[slot] != generation) break;
+            if (firstKeys[slot] == first && secondKeys[slot] == second) {
+                hits++;
+                return slot;
+            }
+        }
+        misses++;
+        return -1;
+    }
+
+    double value(int slot) {
+        return values[slot];
+    }
+
+    void put(long first, long second, double value) {
+        int home = hash(first, second);
+        int target = -1;
+        for (int i = 0; i < WINDOW; i++) {
+            int slot = (home + i) & mask;
+            if (stamps[slot] != generation) {
+                target = slot;
+                size++;
+                break;
+            }
+            if (firstKeys[slot] == first && secondKeys[slot] == second) {
+                target = slot;
+                break;
+            }
+        }
+        if (target < 0) {
+            // Rotating the victim through the window keeps one hot key from being evicted every time.
+            target = (home + (int) (evictions++ % WINDOW)) & mask;
+        }
+        firstKeys[target] = first;
+        secondKeys[target] = second;
+        values[target] = value;
+        stamps[target] = generation;
+    }
+
+    /** Forgets every entry and resets the statistics, in O(1) except once per 2^32 clears. */
+    public void clear() {
+        if (++generation == 0) {
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+        size = 0;
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    public Stats stats() {
+        return new Stats(hits, misses, evictions, size, stamps.length);
+    }
+
+    private int hash(long first, long second) {
+        long h = first * 0x9E3779B97F4A7C15L + second * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 32;
+        return (int) h & mask;
+    }
+}
@@ -0,0 +1,35 @@
+package org.kkotlyarenko.methods;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** Writes one CSV line per iteration: iteration;x;value;error. */
+public class FileIterationListener implements IterationListener, Closeable {
+    private final BufferedWriter writer;
+
+    public FileIterationListener(Path path) throws IOException {
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        writer.write("iteration;x;value;error");
+        writer.newLine();
+    }
+
+    @Override
+    public void onIteration(int iteration, double x, double value, double error) {
+        try {
+            writer.write(iteration + ";" + x + ";" + value + ";" + error);
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,43 @@
+package org.kkotlyarenko.methods;
+
+import java.io.PrintStream;
+
+@FunctionalInterface
+public interface IterationListener {
+
+    IterationListener NONE = (iteration, x, value, error) -> {
+    };
+
+    /** value is NaN when the method does not evaluate f on that iteration. */
+    void onIteration(int iteration, double x, double value, double error);
+
+    /** point is the solver's own buffer and is only valid during the call. */
+    default void onSystemIteration(int iteration, double[] point, double residualNorm, double stepNorm) {
+        onIteration(iteration, point[0], residualNorm, stepNorm);
+    }
+
+    static IterationListener console(String label) {
+        return console(label, System.out);
+    }
+
+    static IterationListener console(String label, PrintStream stream) {
+        return new IterationListener() {
+            @Override
+            public void onIteration(int iteration, double x, double value, double error) {
+                stream.printf("%s Iter %d: x=%.10f, f(x)=%.3e, error=%.3e%n", label, iteration, x, value, error);
+            }
+
+            @Override
+            public void onSystemIteration(int iteration, double[] point, double residualNorm, double stepNorm) {
+                StringBuilder sb = new StringBuilder();
+                sb.append(label).append(" Iter ").append(iteration).append(": x=[");
+                for (int i = 0; i < point.length; i++) {
+                    if (i > 0) sb.append(", ");
+                    sb.append(String.format("%.10f", point[i]));
+                }
+                sb.append(String.format("], |F|=%.3e, |dx|=%.3e", residualNorm, stepNorm));
+                stream.println(sb);
+            }
+        };
+    }
+}
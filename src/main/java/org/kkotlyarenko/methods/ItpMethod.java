@@ -0,0 +1,123 @@
+package org.kkotlyarenko.methods;
+
+import org.kkotlyarenko.results.MethodResult;
+import org.kkotlyarenko.results.MutableMethodResult;
+import org.kkotlyarenko.results.ResultSink;
+import org.kkotlyarenko.results.SolveStatus;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * ITP (Interpolate, Truncate, Project; Oliveira and Takahashi): a regula falsi point is pulled
+ * towards the midpoint and then projected into a shrinking ball around it. Never needs more
+ * than N0 iterations beyond bisection, and converges superlinearly on smooth functions.
+ */
+public class ItpMethod implements EquationSolver {
+
+    private static final int MAX_ITERATIONS = 10000;
+    /** k1 = K1_SCALE / (b - a), k2 = 2 and n0 = 1, the values suggested by the authors. */
+    private static final double K1_SCALE = 0.2;
+    private static final double K2 = 2.0;
+    private static final int N0 = 1;
+
+    private final IterationListener listener;
+    private final CancellationToken token;
+
+    public ItpMethod() {
+        this(IterationListener.NONE);
+    }
+
+    public ItpMethod(IterationListener listener) {
+        this(listener, CancellationToken.NONE);
+    }
+
+    public ItpMethod(IterationListener listener, CancellationToken token) {
+        this.listener = listener;
+        this.token = token;
+    }
+
+    @Override
+    public MethodResult solve(DoubleUnaryOperator f, double a, double b, double eps) {
+        MutableMethodResult out = new MutableMethodResult();
+        solve(f, a, b, eps, out, 0);
+        return out.toMethodResult();
+    }
+
+    /** The root returned is the bracket end with the smaller |f|, within eps of the true root. */
+    @Override
+    public void solve(DoubleUnaryOperator f, double a, double b, double eps, ResultSink out, int index) {
+        double fa = f.applyAsDouble(a);
+        double fb = f.applyAsDouble(b);
+
+        if (Double.isNaN(fa) || Double.isNaN(fb) || Double.isInfinite(fa) || Double.isInfinite(fb)) {
+            out.failure(index, SolveStatus.UNDEFINED_AT_BOUNDS);
+            return;
+        }
+
+        if (Math.signum(fa) * Math.signum(fb) >= 0) {
+            if (Math.abs(fa) < eps) {
+                out.success(index, a, fa, 0);
+            } else if (Math.abs(fb) < eps) {
+                out.success(index, b, fb, 0);
+            } else {
+                out.failure(index, SolveStatus.NO_SIGN_CHANGE);
+            }
+            return;
+        }
+
+        double halfEps = Math.max(0.5 * eps, Math.ulp(Math.max(Math.abs(a), Math.abs(b))));
+        double k1 = K1_SCALE / (b - a);
+        int maxSteps = Math.max(0, (int) Math.ceil(Math.log((b - a) / (2.0 * halfEps)) / Math.log(2.0))) + N0;
+        int iterations = 0;
+
+        while (b - a > 2.0 * halfEps) {
+            if (token.shouldStop()) {
+                setBest(out, index, token.solveStatus(), a, fa, b, fb, iterations);
+                return;
+            }
+            if (iterations >= MAX_ITERATIONS) {
+                setBest(out, index, SolveStatus.MAX_ITERATIONS, a, fa, b, fb, iterations);
+                return;
+            }
+
+            double mid = 0.5 * (a + b);
+            double radius = Math.scalb(halfEps, maxSteps - iterations) - 0.5 * (b - a);
+            double delta = k1 * Math.pow(b - a, K2);
+
+            double falsi = (fb * a - fa * b) / (fb - fa);
+            double sigma = Math.signum(mid - falsi);
+            double truncated = delta <= Math.abs(mid - falsi) ? falsi + sigma * delta : mid;
+            double x = Math.abs(truncated - mid) <= radius ? truncated : mid - sigma * radius;
+            if (!(x > a && x < b)) x = mid;
+
+            double fx = f.applyAsDouble(x);
+            iterations++;
+
+            if (Double.isNaN(fx) || Double.isInfinite(fx)) {
+                out.set(index, SolveStatus.UNDEFINED_AT_POINT, Double.NaN, Double.NaN, iterations, x);
+                return;
+            }
+            if (fx == 0.0) {
+                listener.onIteration(iterations, x, fx, 0.0);
+                out.success(index, x, fx, iterations);
+                return;
+            }
+            if ((fx > 0) == (fa > 0)) {
+                a = x;
+                fa = fx;
+            } else {
+                b = x;
+                fb = fx;
+            }
+            listener.onIteration(iterations, x, fx, b - a);
+        }
+
+        boolean left = Math.abs(fa) <= Math.abs(fb);
+        out.success(index, left ? a : b, left ? fa : fb, iterations);
+    }
+
+    private static void setBest(ResultSink out, int index, SolveStatus status, double a, double fa, double b, double fb,
+                                int iterations) {
+        boolean left = Math.abs(fa) <= Math.abs(fb);
+        out.set(index, status, left ? a : b, left ? fa : fb, iterations, b - a);
+    }
+}
@@ -0,0 +1,7 @@
+package org.kkotlyarenko.methods;
+
+@FunctionalInterface
+public interface JacobianFunction {
+    /** Writes dF_i/dx_j to jacobian[i * n + j]. */
+    void apply(double[] x, double[] jacobian);
+}
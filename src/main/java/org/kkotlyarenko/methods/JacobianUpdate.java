@@ -0,0 +1,18 @@
+package org.kkotlyarenko.methods;
+
+public enum JacobianUpdate {
+    NEWTON("Ньютона"),
+    BROYDEN_GOOD("Бройдена (хороший)"),
+    BROYDEN_BAD("Бройдена (плохой)");
+
+    private final String title;
+
+    JacobianUpdate(String title) {
+        this.title = title;
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+}
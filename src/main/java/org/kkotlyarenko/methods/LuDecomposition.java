@@ -0,0 +1,83 @@
+package org.kkotlyarenko.methods;
+
+public final class LuDecomposition {
+
+    private static final double SINGULARITY_THRESHOLD = 1e-14;
+
+    private LuDecomposition() {
+    }
+
+    public static boolean factor(double[] a, int n, int[] pivots) {
+        double scale = 0.0;
+        for (int i = 0, size = n * n; i < size; i++) {
+            scale = Math.max(scale, Math.abs(a[i]));
+        }
+        if (scale == 0.0 || !Double.isFinite(scale)) return false;
+        double threshold = SINGULARITY_THRESHOLD * scale;
+
+        for (int k = 0; k < n; k++) {
+            int pivotRow = k;
+            double pivotAbs = Math.abs(a[k * n + k]);
+            for (int i = k + 1; i < n; i++) {
+                double candidate = Math.abs(a[i * n + k]);
+                if (candidate > pivotAbs) {
+                    pivotAbs = candidate;
+                    pivotRow = i;
+                }
+            }
+            if (pivotAbs <= threshold) return false;
+
+            pivots[k] = pivotRow;
+            if (pivotRow != k) {
+                int rowK = k * n;
+                int rowP = pivotRow * n;
+                for (int j = 0; j < n; j++) {
+                    double tmp = a[rowK + j];
+                    a[rowK + j] = a[rowP + j];
+                    a[rowP + j] = tmp;
+                }
+            }
+
+            int rowK = k * n;
+            double inversePivot = 1.0 / a[rowK + k];
+            for (int i = k + 1; i < n; i++) {
+                int rowI = i * n;
+                double l = a[rowI + k] * inversePivot;
+                a[rowI + k] = l;
+                if (l != 0.0) {
+                    for (int j = k + 1; j < n; j++) {
+                        a[rowI + j] -= l * a[rowK + j];
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    public static void solve(double[] lu, int n, int[] pivots, double[] b) {
+        for (int k = 0; k < n; k++) {
+            int p = pivots[k];
+            if (p != k) {
+                double tmp = b[k];
+                b[k] = b[p];
+                b[p] = tmp;
+            }
+        }
+        for (int i = 1; i < n; i++) {
+            int row = i * n;
+            double sum = b[i];
+            for (int j = 0; j < i; j++) {
+                sum -= lu[row + j] * b[j];
+            }
+            b[i] = sum;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            int row = i * n;
+            double sum = b[i];
+            for (int j = i + 1; j < n; j++) {
+                sum -= lu[row + j] * b[j];
+            }
+            b[i] = sum / lu[row + i];
+        }
+    }
+}
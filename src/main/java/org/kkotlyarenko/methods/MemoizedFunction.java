@@ -0,0 +1,81 @@
+package org.kkotlyarenko.methods;
+
+/**
+ * Remembers f(x) for the points a solve-and-plot session has already evaluated, so the plot and
+ * the annotation at the root do not pay again for what the solver computed. Derivatives are not
+ * cached, but {@link #evaluate} stores the value it returns. Not thread-safe, like the cache.
+ */
+public final class MemoizedFunction implements DualFunction, BatchFunction {
+
+    private final DualFunction f;
+    private final EvaluationCache cache;
+    private double[] missX = new double[0];
+    private double[] missY = new double[0];
+    private int[] missIndex = new int[0];
+
+    public MemoizedFunction(DualFunction f) {
+        this(f, new EvaluationCache());
+    }
+
+    public MemoizedFunction(DualFunction f, EvaluationCache cache) {
+        this.f = f;
+        this.cache = cache;
+    }
+
+    @Override
+    public double applyAsDouble(double x) {
+        long key = Double.doubleToRawLongBits(x);
+        int slot = cache.find(key, 0L);
+        if (slot >= 0) return cache.value(slot);
+        double y = f.applyAsDouble(x);
+        cache.put(key, 0L, y);
+        return y;
+    }
+
+    @Override
+    public void evaluate(double x, double[] out) {
+        f.evaluate(x, out);
+        cache.put(Double.doubleToRawLongBits(x), 0L, out[0]);
+    }
+
+    @Override
+    public double derivative(double x) {
+        return f.derivative(x);
+    }
+
+    /** Only the points not in the cache go to f, in one batch. */
+    @Override
+    public void applyBatch(double[] xs, double[] ys, int count) {
+        if (missX.length < count) {
+            missX = new double[count];
+            missY = new double[count];
+            missIndex = new int[count];
+        }
+        int misses = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = cache.find(Double.doubleToRawLongBits(xs[i]), 0L);
+            if (slot >= 0) {
+                ys[i] = cache.value(slot);
+            } else {
+                missX[misses] = xs[i];
+                missIndex[misses++] = i;
+            }
+        }
+        if (misses == 0) return;
+        BatchFunction.of(f).applyBatch(missX, missY, misses);
+        for (int m = 0; m < misses; m++) {
+            ys[missIndex[m]] = missY[m];
+            cache.put(Double.doubleToRawLongBits(missX[m]), 0L, missY[m]);
+        }
+    }
+
+    public EvaluationCache.Stats stats() {
+        return cache.stats();
+    }
+
+    /** The wrapped function's text, so keys built from toString() are unchanged by memoizing. */
+    @Override
+    public String toString() {
+        return f.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package org.kkotlyarenko.methods;
+
+/**
+ * f(x, y) memoized by the bits of both coordinates; see {@link MemoizedFunction}. The gradient from
+ * {@link #evaluate} is not cached, only the value it includes.
+ */
+public final class MemoizedFunction2Var implements DualFunction2Var, BatchFunction2Var {
+
+    private final DualFunction2Var f;
+    private final EvaluationCache cache;
+    private double[] missX = new double[0];
+    private double[] missY = new double[0];
+    private double[] missOut = new double[0];
+    private int[] missIndex = new int[0];
+
+    public MemoizedFunction2Var(DualFunction2Var f) {
+        this(f, new EvaluationCache());
+    }
+
+    public MemoizedFunction2Var(DualFunction2Var f, EvaluationCache cache) {
+        this.f = f;
+        this.cache = cache;
+    }
+
+    @Override
+    public double apply(double x, double y) {
+        long first = Double.doubleToRawLongBits(x);
+        long second = Double.doubleToRawLongBits(y);
+        int slot = cache.find(first, second);
+        if (slot >= 0) return cache.value(slot);
+        double value = f.apply(x, y);
+        cache.put(first, second, value);
+        return value;
+    }
+
+    @Override
+    public void evaluate(double x, double y, double[] out) {
+        f.evaluate(x, y, out);
+        cache.put(Double.doubleToRawLongBits(x), Double.doubleToRawLongBits(y), out[0]);
+    }
+
+    @Override
+    public void applyBatch(double[] xs, double[] ys, double[] out, int count) {
+        if (missX.length < count) {
+            missX = new double[count];
+            missY = new double[count];
+            missOut = new double[count];
+            missIndex = new int[count];
+        }
+        int misses = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = cache.find(Double.doubleToRawLongBits(xs[i]), Double.doubleToRawLongBits(ys[i]));
+            if (slot >= 0) {
+                out[i] = cache.value(slot);
+            } else {
+                missX[misses] = xs[i];
+                missY[misses] = ys[i];
+                missIndex[misses++] = i;
+            }
+        }
+        if (misses == 0) return;
+        BatchFunction2Var.of(f).applyBatch(missX, missY, missOut, misses);
+        for (int m = 0; m < misses; m++) {
+            out[missIndex[m]] = missOut[m];
+            cache.put(Double.doubleToRawLongBits(missX[m]), Double.doubleToRawLongBits(missY[m]), missOut[m]);
+        }
+    }
+
+    public EvaluationCache.Stats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public String toString() {
+        return f.toString();
+    }
+}
@@ -1,7 +1,11 @@
 package org.kkotlyarenko.methods;
 
+import org.kkotlyarenko.results.MutableSystemResult;
 import org.kkotlyarenko.results.SystemResult;
+import org.kkotlyarenko.results.SystemResultSink;
+import org.kkotlyarenko.results.SystemStatus;
 
+/** Reuses its work buffers across solves; use one instance per thread. */
 public class NewtonSystemSolver {
 
     @FunctionalInterface
@@ -18,6 +22,47 @@ public class NewtonSystemSolver {
     private final Function2Var dF1dy;
     private final Function2Var dF2dx;
     private final Function2Var dF2dy;
+    private final DualFunction2Var dualF1;
+    private final DualFunction2Var dualF2;
+    private final IterationListener listener;
+    private final CancellationToken token;
+    private final int maxIterations;
+
+    private final double[] residuals = new double[2];
+    private final double[] currentSolution = new double[2];
+    private final double[] row1 = new double[3];
+    private final double[] row2 = new double[3];
+
+    public NewtonSystemSolver(DualFunction2Var f1, DualFunction2Var f2) {
+        this(f1, f2, IterationListener.NONE);
+    }
+
+    public NewtonSystemSolver(DualFunction2Var f1, DualFunction2Var f2, IterationListener listener) {
+        this(f1, f2, listener, CancellationToken.NONE);
+    }
+
+    public NewtonSystemSolver(DualFunction2Var f1, DualFunction2Var f2, IterationListener listener,
+                              CancellationToken token) {
+        this(f1, f2, listener, token, MAX_ITERATIONS);
+    }
+
+    public NewtonSystemSolver(DualFunction2Var f1, DualFunction2Var f2, IterationListener listener,
+                              CancellationToken token, int maxIterations) {
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("Максимальное число итераций должно быть положительным: " + maxIterations);
+        }
+        this.f1 = f1;
+        this.f2 = f2;
+        this.dF1dx = null;
+        this.dF1dy = null;
+        this.dF2dx = null;
+        this.dF2dy = null;
+        this.dualF1 = f1;
+        this.dualF2 = f2;
+        this.listener = listener;
+        this.token = token;
+        this.maxIterations = maxIterations;
+    }
 
     public NewtonSystemSolver(
             Function2Var f1, Function2Var f2,
@@ -30,46 +75,88 @@ public class NewtonSystemSolver {
         this.dF1dy = dF1dy;
         this.dF2dx = dF2dx;
         this.dF2dy = dF2dy;
+        this.dualF1 = null;
+        this.dualF2 = null;
+        this.listener = IterationListener.NONE;
+        this.token = CancellationToken.NONE;
+        this.maxIterations = MAX_ITERATIONS;
     }
 
     public SystemResult solve(double x0, double y0, double eps) {
+        MutableSystemResult out = new MutableSystemResult(2);
+        solve(x0, y0, eps, out);
+        return out.toSystemResult();
+    }
+
+    public void solve(double x0, double y0, double eps, SystemResultSink out) {
         double x = x0;
         double y = y0;
         int iterations = 0;
-        double[] residuals = new double[2];
-        double[] currentSolution = new double[]{x, y};
+        int residualEvaluations = 0;
+        int jacobianEvaluations = 0;
+        currentSolution[0] = x;
+        currentSolution[1] = y;
 
-        while (iterations < MAX_ITERATIONS) {
+        SystemStatus finalStatus = SystemStatus.MAX_ITERATIONS;
+        while (iterations < maxIterations) {
+            if (token.shouldStop()) {
+                finalStatus = token.systemStatus();
+                break;
+            }
             iterations++;
 
-            double f1Val = f1.apply(x, y);
-            double f2Val = f2.apply(x, y);
+            double f1Val;
+            double f2Val;
+            if (dualF1 != null) {
+                dualF1.evaluate(x, y, row1);
+                dualF2.evaluate(x, y, row2);
+                f1Val = row1[0];
+                f2Val = row2[0];
+            } else {
+                f1Val = f1.apply(x, y);
+                f2Val = f2.apply(x, y);
+            }
+            residualEvaluations++;
             residuals[0] = f1Val;
             residuals[1] = f2Val;
             currentSolution[0] = x;
             currentSolution[1] = y;
 
             if (Double.isNaN(f1Val) || Double.isNaN(f2Val) || Double.isInfinite(f1Val) || Double.isInfinite(f2Val)) {
-                return SystemResult.failure("Значение функции не определено или бесконечно в точке (" + x + ", " + y + ")", iterations, currentSolution, residuals);
+                out.set(SystemStatus.UNDEFINED_FUNCTION_AT_POINT, currentSolution, residuals, iterations, residualEvaluations, jacobianEvaluations);
+                return;
             }
 
-            double df1dxVal = dF1dx.apply(x, y);
-            double df1dyVal = dF1dy.apply(x, y);
-            double df2dxVal = dF2dx.apply(x, y);
-            double df2dyVal = dF2dy.apply(x, y);
+            double df1dxVal;
+            double df1dyVal;
+            double df2dxVal;
+            double df2dyVal;
+            if (dualF1 != null) {
+                df1dxVal = row1[1];
+                df1dyVal = row1[2];
+                df2dxVal = row2[1];
+                df2dyVal = row2[2];
+            } else {
+                df1dxVal = dF1dx.apply(x, y);
+                df1dyVal = dF1dy.apply(x, y);
+                df2dxVal = dF2dx.apply(x, y);
+                df2dyVal = dF2dy.apply(x, y);
+            }
+            jacobianEvaluations++;
 
             if (Double.isNaN(df1dxVal) || Double.isNaN(df1dyVal) || Double.isNaN(df2dxVal) || Double.isNaN(df2dyVal) ||
                     Double.isInfinite(df1dxVal) || Double.isInfinite(df1dyVal) || Double.isInfinite(df2dxVal) || Double.isInfinite(df2dyVal)) {
-                return SystemResult.failure("Значение производной не определено или бесконечно в точке (" + x + ", " + y + ")", iterations, currentSolution, residuals);
+                out.set(SystemStatus.UNDEFINED_DERIVATIVE_AT_POINT, currentSolution, residuals, iterations, residualEvaluations, jacobianEvaluations);
+                return;
             }
 
             double J = df1dxVal * df2dyVal - df1dyVal * df2dxVal;
 
             if (Math.abs(J) < JACOBIAN_ZERO_THRESHOLD) {
                 boolean maybeSolution = Math.max(Math.abs(f1Val), Math.abs(f2Val)) < eps * 10;
-                String message = "Якобиан близок к нулю (сингулярная матрица). ";
-                message += maybeSolution ? "Возможно, найдено приближенное решение." : "Решение не может быть найдено.";
-                return SystemResult.failure(message, iterations, currentSolution, residuals);
+                SystemStatus status = maybeSolution ? SystemStatus.SINGULAR_JACOBIAN_NEAR_SOLUTION : SystemStatus.SINGULAR_JACOBIAN;
+                out.set(status, currentSolution, residuals, iterations, residualEvaluations, jacobianEvaluations);
+                return;
             }
 
             double dx = -(f1Val * df2dyVal - f2Val * df1dyVal) / J;
@@ -79,26 +166,31 @@ public class NewtonSystemSolver {
             y += dy;
 
             if (Double.isNaN(x) || Double.isNaN(y) || Double.isInfinite(x) || Double.isInfinite(y)) {
-                return SystemResult.failure("Получено нечисловое значение для x или y на итерации " + iterations, iterations, currentSolution, residuals);
+                out.set(SystemStatus.NON_NUMERIC_XY, currentSolution, residuals, iterations, residualEvaluations, jacobianEvaluations);
+                return;
             }
 
 
             double error = Math.max(Math.abs(dx), Math.abs(dy));
-            double residualNorm = Math.max(Math.abs(f1.apply(x, y)), Math.abs(f2.apply(x, y)));
+            residuals[0] = f1.apply(x, y);
+            residuals[1] = f2.apply(x, y);
+            residualEvaluations++;
+            double residualNorm = Math.max(Math.abs(residuals[0]), Math.abs(residuals[1]));
+            currentSolution[0] = x;
+            currentSolution[1] = y;
+            listener.onSystemIteration(iterations, currentSolution, residualNorm, error);
 
             if (error < eps && residualNorm < eps) {
-                residuals[0] = f1.apply(x, y);
-                residuals[1] = f2.apply(x, y);
-                currentSolution[0] = x;
-                currentSolution[1] = y;
-                return SystemResult.success(currentSolution, residuals, iterations);
+                out.set(SystemStatus.SUCCESS, currentSolution, residuals, iterations, residualEvaluations, jacobianEvaluations);
+                return;
             }
         }
 
         residuals[0] = f1.apply(x, y);
         residuals[1] = f2.apply(x, y);
+        residualEvaluations++;
         currentSolution[0] = x;
         currentSolution[1] = y;
-        return SystemResult.failure("Превышено максимальное количество итераций.", iterations, currentSolution, residuals);
+        out.set(finalStatus, currentSolution, residuals, iterations, residualEvaluations, jacobianEvaluations);
     }
 }
@@ -0,0 +1,313 @@
+package org.kkotlyarenko.methods;
+
+import org.kkotlyarenko.results.MutableSystemResult;
+import org.kkotlyarenko.results.SystemResult;
+import org.kkotlyarenko.results.SystemResultSink;
+import org.kkotlyarenko.results.SystemStatus;
+
+import java.util.Arrays;
+
+/** Reuses its work buffers across iterations and solves; use one instance per thread. */
+public class NewtonVectorSolver {
+
+    private static final int MAX_ITERATIONS = 500;
+    private static final double UPDATE_DENOMINATOR_THRESHOLD = 1e-30;
+
+    private final int n;
+    private final VectorFunction residual;
+    private final JacobianFunction jacobian;
+    private final JacobianUpdate update;
+    private final IterationListener listener;
+    private final CancellationToken token;
+
+    private final double[] x;
+    private final double[] f;
+    private final double[] lu;
+    private final double[] step;
+    private final int[] pivots;
+    private final double[] inverse;
+    private final double[] delta;
+    private final double[] product;
+
+    private int residualEvaluations;
+    private int jacobianEvaluations;
+    private int iterations;
+
+    public NewtonVectorSolver(int n, VectorFunction residual, JacobianFunction jacobian) {
+        this(n, residual, jacobian, JacobianUpdate.NEWTON);
+    }
+
+    public NewtonVectorSolver(int n, VectorFunction residual, JacobianFunction jacobian, JacobianUpdate update) {
+        this(n, residual, jacobian, update, IterationListener.NONE);
+    }
+
+    public NewtonVectorSolver(int n, VectorFunction residual, JacobianFunction jacobian, JacobianUpdate update,
+                              IterationListener listener) {
+        this(n, residual, jacobian, update, listener, CancellationToken.NONE);
+    }
+
+    public NewtonVectorSolver(int n, VectorFunction residual, JacobianFunction jacobian, JacobianUpdate update,
+                              IterationListener listener, CancellationToken token) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Размерность системы должна быть положительной: " + n);
+        }
+        this.n = n;
+        this.residual = residual;
+        this.jacobian = jacobian;
+        this.update = update;
+        this.listener = listener;
+        this.token = token;
+        this.x = new double[n];
+        this.f = new double[n];
+        this.lu = new double[n * n];
+        this.step = new double[n];
+        this.pivots = new int[n];
+        boolean broyden = update != JacobianUpdate.NEWTON;
+        this.inverse = broyden ? new double[n * n] : null;
+        this.delta = broyden ? new double[n] : null;
+        this.product = broyden ? new double[n] : null;
+    }
+
+    public static NewtonVectorSolver forSystem(DualFunction2Var f1, DualFunction2Var f2, JacobianUpdate update) {
+        return forSystem(f1, f2, update, IterationListener.NONE);
+    }
+
+    public static NewtonVectorSolver forSystem(DualFunction2Var f1, DualFunction2Var f2, JacobianUpdate update,
+                                               IterationListener listener) {
+        return forSystem(f1, f2, update, listener, CancellationToken.NONE);
+    }
+
+    public static NewtonVectorSolver forSystem(DualFunction2Var f1, DualFunction2Var f2, JacobianUpdate update,
+                                               IterationListener listener, CancellationToken token) {
+        double[] row = new double[3];
+        return new NewtonVectorSolver(2,
+                (x, out) -> {
+                    out[0] = f1.apply(x[0], x[1]);
+                    out[1] = f2.apply(x[0], x[1]);
+                },
+                (x, jacobian) -> {
+                    f1.evaluate(x[0], x[1], row);
+                    jacobian[0] = row[1];
+                    jacobian[1] = row[2];
+                    f2.evaluate(x[0], x[1], row);
+                    jacobian[2] = row[1];
+                    jacobian[3] = row[2];
+                },
+                update, listener, token);
+    }
+
+    public int dimension() {
+        return n;
+    }
+
+    public JacobianUpdate update() {
+        return update;
+    }
+
+    public SystemResult solve(double[] x0, double eps) {
+        MutableSystemResult out = new MutableSystemResult(n);
+        solve(x0, eps, out);
+        return out.toSystemResult();
+    }
+
+    public void solve(double[] x0, double eps, SystemResultSink out) {
+        if (x0.length != n) {
+            throw new IllegalArgumentException("Начальное приближение должно иметь длину " + n + ", получено " + x0.length);
+        }
+        System.arraycopy(x0, 0, x, 0, n);
+        residualEvaluations = 0;
+        jacobianEvaluations = 0;
+        SystemStatus status = update == JacobianUpdate.NEWTON ? solveNewton(eps) : solveBroyden(eps);
+        out.set(status, x, f, iterations, residualEvaluations, jacobianEvaluations);
+    }
+
+    private SystemStatus solveNewton(double eps) {
+        iterations = 0;
+
+        evaluateResidual();
+        if (!allFinite(f)) {
+            return SystemStatus.UNDEFINED_AT_START;
+        }
+
+        while (iterations < MAX_ITERATIONS) {
+            if (token.shouldStop()) return token.systemStatus();
+            iterations++;
+
+            SystemStatus jacobianFailure = factorJacobian(eps);
+            if (jacobianFailure != null) return jacobianFailure;
+
+            for (int i = 0; i < n; i++) step[i] = -f[i];
+            LuDecomposition.solve(lu, n, pivots, step);
+
+            double error = 0.0;
+            for (int i = 0; i < n; i++) {
+                x[i] += step[i];
+                error = Math.max(error, Math.abs(step[i]));
+            }
+            if (!allFinite(x)) {
+                return SystemStatus.NON_NUMERIC_SOLUTION;
+            }
+
+            evaluateResidual();
+            if (!allFinite(f)) {
+                return SystemStatus.UNDEFINED_FUNCTION;
+            }
+
+            double norm = maxAbs(f);
+            listener.onSystemIteration(iterations, x, norm, error);
+            if (error < eps && norm < eps) {
+                return SystemStatus.SUCCESS;
+            }
+        }
+
+        return SystemStatus.MAX_ITERATIONS;
+    }
+
+    private SystemStatus solveBroyden(double eps) {
+        iterations = 0;
+
+        evaluateResidual();
+        if (!allFinite(f)) {
+            return SystemStatus.UNDEFINED_AT_START;
+        }
+
+        boolean refresh = true;
+        while (iterations < MAX_ITERATIONS) {
+            if (token.shouldStop()) return token.systemStatus();
+            iterations++;
+
+            boolean refreshed = refresh;
+            if (refresh) {
+                SystemStatus jacobianFailure = factorJacobian(eps);
+                if (jacobianFailure != null) return jacobianFailure;
+                invertFactoredJacobian();
+                refresh = false;
+            }
+
+            double error = 0.0;
+            for (int i = 0; i < n; i++) {
+                double sum = 0.0;
+                int row = i * n;
+                for (int j = 0; j < n; j++) {
+                    sum -= inverse[row + j] * f[j];
+                }
+                step[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                x[i] += step[i];
+                error = Math.max(error, Math.abs(step[i]));
+            }
+            if (!allFinite(x)) {
+                return SystemStatus.NON_NUMERIC_SOLUTION;
+            }
+
+            double previousNorm = maxAbs(f);
+            System.arraycopy(f, 0, delta, 0, n);
+            evaluateResidual();
+            if (!allFinite(f)) {
+                return SystemStatus.UNDEFINED_FUNCTION;
+            }
+
+            double norm = maxAbs(f);
+            listener.onSystemIteration(iterations, x, norm, error);
+            if (error < eps && norm < eps) {
+                return SystemStatus.SUCCESS;
+            }
+
+            if (norm >= previousNorm && !refreshed) {
+                refresh = true;
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                delta[i] = f[i] - delta[i];
+            }
+            refresh = !updateInverse();
+        }
+
+        return SystemStatus.MAX_ITERATIONS;
+    }
+
+    private SystemStatus factorJacobian(double eps) {
+        jacobian.apply(x, lu);
+        jacobianEvaluations++;
+        if (!allFinite(lu)) {
+            return SystemStatus.UNDEFINED_DERIVATIVE;
+        }
+        if (!LuDecomposition.factor(lu, n, pivots)) {
+            return maxAbs(f) < eps * 10 ? SystemStatus.SINGULAR_JACOBIAN_NEAR_SOLUTION : SystemStatus.SINGULAR_JACOBIAN;
+        }
+        return null;
+    }
+
+    private void invertFactoredJacobian() {
+        for (int j = 0; j < n; j++) {
+            Arrays.fill(product, 0.0);
+            product[j] = 1.0;
+            LuDecomposition.solve(lu, n, pivots, product);
+            for (int i = 0; i < n; i++) {
+                inverse[i * n + j] = product[i];
+            }
+        }
+    }
+
+    private boolean updateInverse() {
+        for (int i = 0; i < n; i++) {
+            double sum = 0.0;
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                sum += inverse[row + j] * delta[j];
+            }
+            product[i] = sum;
+        }
+
+        double denominator = 0.0;
+        if (update == JacobianUpdate.BROYDEN_GOOD) {
+            for (int i = 0; i < n; i++) denominator += step[i] * product[i];
+        } else {
+            for (int i = 0; i < n; i++) denominator += delta[i] * delta[i];
+        }
+        if (Math.abs(denominator) < UPDATE_DENOMINATOR_THRESHOLD || !Double.isFinite(denominator)) {
+            return false;
+        }
+
+        for (int i = 0; i < n; i++) {
+            product[i] = (step[i] - product[i]) / denominator;
+        }
+        if (update == JacobianUpdate.BROYDEN_GOOD) {
+            for (int j = 0; j < n; j++) {
+                double sum = 0.0;
+                for (int i = 0; i < n; i++) {
+                    sum += step[i] * inverse[i * n + j];
+                }
+                delta[j] = sum;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            double u = product[i];
+            if (u == 0.0) continue;
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                inverse[row + j] += u * delta[j];
+            }
+        }
+        return allFinite(inverse);
+    }
+
+    private void evaluateResidual() {
+        residual.apply(x, f);
+        residualEvaluations++;
+    }
+
+    private static boolean allFinite(double[] values) {
+        for (double v : values) {
+            if (!Double.isFinite(v)) return false;
+        }
+        return true;
+    }
+
+    private static double maxAbs(double[] values) {
+        double max = 0.0;
+        for (double v : values) max = Math.max(max, Math.abs(v));
+        return max;
+    }
+}
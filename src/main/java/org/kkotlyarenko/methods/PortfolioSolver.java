@@ -0,0 +1,162 @@
+package org.kkotlyarenko.methods;
+
+import org.kkotlyarenko.results.MethodResult;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Races several methods on the same equation, one virtual thread each, and keeps the first
+ * result that passes the quality check; the others are stopped through a shared token. Wins are
+ * counted per function: a method that has won every race on it so far, at least
+ * {@link #TRUSTED_WINS} times, runs alone first, and the rest race only if it fails the check.
+ */
+public class PortfolioSolver implements EquationSolver {
+
+    public static final int TRUSTED_WINS = 3;
+    private static final long POLL_MILLIS = 20;
+
+    @FunctionalInterface
+    public interface SolverFactory {
+        /** May throw when the method does not apply to f on [a, b]; the method then simply loses. */
+        EquationSolver create(DoubleUnaryOperator f, double a, double b, CancellationToken token);
+    }
+
+    public record Method(String name, SolverFactory factory) {
+    }
+
+    @FunctionalInterface
+    public interface QualityCheck {
+        /** Success and a finite root inside [a, b] widened by eps. */
+        QualityCheck DEFAULT = (f, a, b, eps, result) -> result.isSuccess()
+                && Double.isFinite(result.getRoot())
+                && result.getRoot() >= Math.min(a, b) - eps
+                && result.getRoot() <= Math.max(a, b) + eps;
+
+        boolean accept(DoubleUnaryOperator f, double a, double b, double eps, MethodResult result);
+    }
+
+    /** {@code method} is null when no method passed the check; the result then explains why. */
+    public record Outcome(String method, MethodResult result) {
+    }
+
+    /** Win counts per function key and method name; safe to share between solvers and threads. */
+    public static final class Wins {
+        private final Map<Object, Map<String, Integer>> counts = new ConcurrentHashMap<>();
+
+        public void record(Object key, String method) {
+            counts.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).merge(method, 1, Integer::sum);
+        }
+
+        public int count(Object key, String method) {
+            Map<String, Integer> byMethod = counts.get(key);
+            return byMethod == null ? 0 : byMethod.getOrDefault(method, 0);
+        }
+
+        public int total(Object key) {
+            Map<String, Integer> byMethod = counts.get(key);
+            return byMethod == null ? 0 : byMethod.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        /** The method with the most wins for key, or null if none was recorded. */
+        public String preferred(Object key) {
+            Map<String, Integer> byMethod = counts.get(key);
+            if (byMethod == null) return null;
+            return byMethod.entrySet().stream().max(Map.Entry.comparingByValue()).map(Map.Entry::getKey).orElse(null);
+        }
+    }
+
+    private record Finished(Method method, MethodResult result) {
+    }
+
+    private final List<Method> methods;
+    private final QualityCheck quality;
+    private final Wins wins;
+    private final CancellationToken token;
+
+    public PortfolioSolver(List<Method> methods, QualityCheck quality, Wins wins, CancellationToken token) {
+        if (methods.isEmpty()) {
+            throw new IllegalArgumentException("Портфель должен содержать хотя бы один метод.");
+        }
+        this.methods = List.copyOf(methods);
+        this.quality = quality;
+        this.wins = wins;
+        this.token = token;
+    }
+
+    /** Wins are keyed by f.toString(), which is the normalized expression for compiled functions. */
+    @Override
+    public MethodResult solve(DoubleUnaryOperator f, double a, double b, double eps) {
+        return race(String.valueOf(f), f, a, b, eps).result();
+    }
+
+    public Outcome race(Object key, DoubleUnaryOperator f, double a, double b, double eps) {
+        List<Method> order = new ArrayList<>(methods);
+        order.sort(Comparator.comparingInt((Method m) -> wins.count(key, m.name())).reversed());
+        StringBuilder failures = new StringBuilder();
+
+        String favourite = wins.preferred(key);
+        if (favourite != null && wins.count(key, favourite) >= TRUSTED_WINS
+                && wins.count(key, favourite) == wins.total(key) && order.get(0).name().equals(favourite)) {
+            Method method = order.remove(0);
+            MethodResult result = run(method, f, a, b, eps, token);
+            if (quality.accept(f, a, b, eps, result)) {
+                wins.record(key, method.name());
+                return new Outcome(method.name(), result);
+            }
+            failures.append("\n  ").append(method.name()).append(": ").append(summary(result));
+            if (order.isEmpty() || token.shouldStop()) {
+                return new Outcome(null, MethodResult.failure("Ни один метод не дал приемлемого результата:" + failures));
+            }
+        }
+
+        CancellationToken race = CancellationToken.create();
+        BlockingQueue<Finished> finished = new ArrayBlockingQueue<>(order.size());
+        for (Method method : order) {
+            Thread.ofVirtual().name("portfolio-" + method.name())
+                    .start(() -> finished.add(new Finished(method, run(method, f, a, b, eps, race))));
+        }
+
+        try {
+            for (int remaining = order.size(); remaining > 0; ) {
+                Finished done = finished.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (done == null) {
+                    if (token.shouldStop()) race.cancel();
+                    continue;
+                }
+                remaining--;
+                if (!race.isCancelled() && quality.accept(f, a, b, eps, done.result())) {
+                    race.cancel();
+                    wins.record(key, done.method().name());
+                    return new Outcome(done.method().name(), done.result());
+                }
+                failures.append("\n  ").append(done.method().name()).append(": ").append(summary(done.result()));
+            }
+        } catch (InterruptedException e) {
+            race.cancel();
+            Thread.currentThread().interrupt();
+            return new Outcome(null, MethodResult.failure("Гонка методов прервана."));
+        }
+        return new Outcome(null, MethodResult.failure("Ни один метод не дал приемлемого результата:" + failures));
+    }
+
+    private static MethodResult run(Method method, DoubleUnaryOperator f, double a, double b, double eps,
+                                    CancellationToken race) {
+        try {
+            return method.factory().create(f, a, b, race).solve(f, a, b, eps);
+        } catch (RuntimeException e) {
+            return MethodResult.failure(String.valueOf(e.getMessage()));
+        }
+    }
+
+    private static String summary(MethodResult result) {
+        return result.isSuccess() ? "корень " + result.getRoot() + " отклонён проверкой качества" : result.getMessage();
+    }
+}
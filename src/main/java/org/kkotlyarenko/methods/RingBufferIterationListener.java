@@ -0,0 +1,73 @@
+package org.kkotlyarenko.methods;
+
+/** Keeps the last capacity iterations in preallocated arrays; not thread-safe. */
+public class RingBufferIterationListener implements IterationListener {
+    private final int[] iterations;
+    private final double[] xs;
+    private final double[] values;
+    private final double[] errors;
+    private int next;
+    private long total;
+
+    public RingBufferIterationListener(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Ёмкость буфера должна быть положительной: " + capacity);
+        }
+        this.iterations = new int[capacity];
+        this.xs = new double[capacity];
+        this.values = new double[capacity];
+        this.errors = new double[capacity];
+    }
+
+    @Override
+    public void onIteration(int iteration, double x, double value, double error) {
+        iterations[next] = iteration;
+        xs[next] = x;
+        values[next] = value;
+        errors[next] = error;
+        next = next + 1 == iterations.length ? 0 : next + 1;
+        total++;
+    }
+
+    public void clear() {
+        next = 0;
+        total = 0;
+    }
+
+    public int capacity() {
+        return iterations.length;
+    }
+
+    public int size() {
+        return (int) Math.min(total, iterations.length);
+    }
+
+    public long totalRecorded() {
+        return total;
+    }
+
+    private int slot(int i) {
+        if (i < 0 || i >= size()) {
+            throw new IndexOutOfBoundsException("Индекс " + i + " вне диапазона [0, " + size() + ")");
+        }
+        int start = total > iterations.length ? next : 0;
+        int slot = start + i;
+        return slot >= iterations.length ? slot - iterations.length : slot;
+    }
+
+    public int getIteration(int i) {
+        return iterations[slot(i)];
+    }
+
+    public double getX(int i) {
+        return xs[slot(i)];
+    }
+
+    public double getValue(int i) {
+        return values[slot(i)];
+    }
+
+    public double getError(int i) {
+        return errors[slot(i)];
+    }
+}
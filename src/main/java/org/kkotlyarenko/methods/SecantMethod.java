@@ -1,53 +1,90 @@
 package org.kkotlyarenko.methods;
 
 import org.kkotlyarenko.results.MethodResult;
+import org.kkotlyarenko.results.MutableMethodResult;
+import org.kkotlyarenko.results.ResultSink;
+import org.kkotlyarenko.results.SolveStatus;
 import java.util.function.DoubleUnaryOperator;
 
 public class SecantMethod implements EquationSolver {
 
     private static final int MAX_ITERATIONS = 1000;
 
+    private final IterationListener listener;
+    private final CancellationToken token;
+
+    public SecantMethod() {
+        this(IterationListener.NONE);
+    }
+
+    public SecantMethod(IterationListener listener) {
+        this(listener, CancellationToken.NONE);
+    }
+
+    public SecantMethod(IterationListener listener, CancellationToken token) {
+        this.listener = listener;
+        this.token = token;
+    }
+
     @Override
     public MethodResult solve(DoubleUnaryOperator f, double x0, double x1, double eps) {
+        MutableMethodResult out = new MutableMethodResult();
+        solve(f, x0, x1, eps, out, 0);
+        return out.toMethodResult();
+    }
+
+    @Override
+    public void solve(DoubleUnaryOperator f, double x0, double x1, double eps, ResultSink out, int index) {
         double fx0 = f.applyAsDouble(x0);
         double fx1 = f.applyAsDouble(x1);
         int iterations = 0;
 
         if (Double.isNaN(fx0) || Double.isNaN(fx1) || Double.isInfinite(fx0) || Double.isInfinite(fx1)) {
-            return MethodResult.failure("Значение функции не определено или бесконечно в начальных точках.");
+            out.failure(index, SolveStatus.UNDEFINED_AT_START);
+            return;
         }
 
         if (Math.abs(fx0) < eps) {
-            return MethodResult.success(x0, fx0, iterations);
+            out.success(index, x0, fx0, iterations);
+            return;
         }
         if (Math.abs(fx1) < eps) {
-            return MethodResult.success(x1, fx1, iterations);
+            out.success(index, x1, fx1, iterations);
+            return;
         }
 
 
         double x2 = x1;
 
         while (iterations < MAX_ITERATIONS) {
+            if (token.shouldStop()) {
+                out.set(index, token.solveStatus(), x1, fx1, iterations, Math.abs(x1 - x0));
+                return;
+            }
             iterations++;
 
             double denominator = fx1 - fx0;
             if (Math.abs(denominator) < 1e-15) {
                 if (Math.abs(fx1) < eps) {
-                    return MethodResult.success(x1, fx1, iterations);
+                    out.success(index, x1, fx1, iterations);
                 } else {
-                    return MethodResult.failure("Делитель близок к нулю (f(x1) - f(x0) ~ 0), метод не может продолжаться.", iterations);
+                    out.set(index, SolveStatus.ZERO_DENOMINATOR, Double.NaN, Double.NaN, iterations, Double.NaN);
                 }
+                return;
             }
 
             x2 = x1 - fx1 * (x1 - x0) / denominator;
             double fx2 = f.applyAsDouble(x2);
+            listener.onIteration(iterations, x2, fx2, Math.abs(x2 - x1));
 
             if (Double.isNaN(x2) || Double.isInfinite(x2) || Double.isNaN(fx2) || Double.isInfinite(fx2)) {
-                return MethodResult.failure("Получено нечисловое значение для x или f(x) на итерации " + iterations, iterations);
+                out.set(index, SolveStatus.NON_NUMERIC_STEP, Double.NaN, Double.NaN, iterations, Double.NaN);
+                return;
             }
 
             if (Math.abs(x2 - x1) < eps || Math.abs(fx2) < eps) {
-                return MethodResult.success(x2, fx2, iterations);
+                out.success(index, x2, fx2, iterations);
+                return;
             }
 
             x0 = x1;
@@ -56,6 +93,6 @@ public class SecantMethod implements EquationSolver {
             fx1 = fx2;
         }
 
-        return MethodResult.failure("Превышено максимальное количество итераций.", iterations);
+        out.set(index, SolveStatus.MAX_ITERATIONS, Double.NaN, Double.NaN, iterations, Double.NaN);
     }
 }
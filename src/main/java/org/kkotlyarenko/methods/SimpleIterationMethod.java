@@ -1,6 +1,9 @@
 package org.kkotlyarenko.methods;
 
 import org.kkotlyarenko.results.MethodResult;
+import org.kkotlyarenko.results.MutableMethodResult;
+import org.kkotlyarenko.results.ResultSink;
+import org.kkotlyarenko.results.SolveStatus;
 import java.util.function.DoubleUnaryOperator;
 
 public class SimpleIterationMethod implements EquationSolver {
@@ -8,22 +11,74 @@ public class SimpleIterationMethod implements EquationSolver {
     private static final int MAX_ITERATIONS = 50000;
     private final DoubleUnaryOperator phi;
     private final DoubleUnaryOperator dphi;
+    private final IterationListener listener;
+    private final CancellationToken token;
 
     public SimpleIterationMethod(DoubleUnaryOperator phi, DoubleUnaryOperator dphi) {
+        this(phi, dphi, IterationListener.NONE);
+    }
+
+    public SimpleIterationMethod(DoubleUnaryOperator phi, DoubleUnaryOperator dphi, IterationListener listener) {
+        this(phi, dphi, listener, CancellationToken.NONE);
+    }
+
+    public SimpleIterationMethod(DoubleUnaryOperator phi, DoubleUnaryOperator dphi, IterationListener listener,
+                                 CancellationToken token) {
         this.phi = phi;
         this.dphi = dphi;
+        this.listener = listener;
+        this.token = token;
+    }
+
+    public static SimpleIterationMethod forFunction(DualFunction f, double a, double b, IterationListener listener) {
+        return forFunction(f, a, b, listener, CancellationToken.NONE);
+    }
+
+    public static SimpleIterationMethod forFunction(DualFunction f, double a, double b, IterationListener listener,
+                                                    CancellationToken token) {
+        double midPoint = (a + b) / 2.0;
+        double derivativeAtMid;
+        try {
+            derivativeAtMid = f.derivative(midPoint);
+        } catch (Exception ex) {
+            throw new ArithmeticException("Не удалось вычислить производную в середине интервала (" + midPoint +"): " + ex.getMessage());
+        }
+
+        if (Double.isNaN(derivativeAtMid) || Double.isInfinite(derivativeAtMid)) {
+            throw new ArithmeticException("Производная не определена или бесконечна в середине интервала (" + midPoint +").");
+        }
+        if (Math.abs(derivativeAtMid) < 1e-12) {
+            throw new ArithmeticException("Производная близка к нулю в середине интервала (" + midPoint +"), невозможно подобрать lambda.");
+        }
+        double lambda = -1.0 / derivativeAtMid;
+
+        final double MAX_LAMBDA = 1e6;
+        if (Math.abs(lambda) > MAX_LAMBDA) {
+            throw new ArithmeticException("Вычисленное значение lambda (" + lambda + ") слишком велико. Возможно, производная близка к нулю.");
+        }
+
+
+        DoubleUnaryOperator phi = x -> x + lambda * f.applyAsDouble(x);
+        DoubleUnaryOperator dphi = x -> 1 + lambda * f.derivative(x);
+
+        return new SimpleIterationMethod(phi, dphi, listener, token);
     }
 
     @Override
     public MethodResult solve(DoubleUnaryOperator f, double a, double b, double eps) {
+        MutableMethodResult out = new MutableMethodResult();
+        solve(f, a, b, eps, out, 0);
+        return out.toMethodResult();
+    }
 
+    @Override
+    public void solve(DoubleUnaryOperator f, double a, double b, double eps, ResultSink out, int index) {
         double x0 = a + (b - a) / 2.0;
         double dphiX0 = dphi.applyAsDouble(x0);
 
-        System.out.printf("SI Start: a=%.4f, b=%.4f, x0=%.4f, phi'(x0)=%.4f\n", a, b, x0, dphiX0);
-
         if (Double.isNaN(dphiX0) || Double.isInfinite(dphiX0)) {
-            return MethodResult.failure("Производная phi'(x) не определена или бесконечна в начальной точке x0=" + x0);
+            out.set(index, SolveStatus.UNDEFINED_DERIVATIVE, Double.NaN, Double.NaN, -1, x0);
+            return;
         }
 
         double x = x0;
@@ -32,37 +87,28 @@ public class SimpleIterationMethod implements EquationSolver {
         double error = Double.MAX_VALUE;
 
         while (iterations < MAX_ITERATIONS) {
+            if (token.shouldStop()) {
+                out.set(index, token.solveStatus(), x, f.applyAsDouble(x), iterations, iterations > 0 ? error : Double.NaN);
+                return;
+            }
             iterations++;
             double prevX = x;
             nextX = phi.applyAsDouble(x);
-
-            double currentDphi = Double.NaN;
-            try {
-                currentDphi = dphi.applyAsDouble(x);
-            } catch (Exception ignore) {}
-            System.out.printf("SI Iter %d: x=%.10f, nextX=%.10f, diff=%.3e, phi'(x)=%.4f\n",
-                    iterations, x, nextX, Math.abs(nextX - x), currentDphi);
-
+            error = Math.abs(nextX - x);
+            // f(x_k) costs an extra evaluation, so it is computed only when someone records it.
+            double residual = listener == IterationListener.NONE ? Double.NaN : f.applyAsDouble(nextX);
+            listener.onIteration(iterations, nextX, residual, error);
 
             if (Double.isNaN(nextX) || Double.isInfinite(nextX)) {
-                System.err.println("SI Error: NaN/Infinity detected.");
-                return MethodResult.failure("Получено нечисловое значение phi(x) на итерации " + iterations, iterations, prevX, f.applyAsDouble(prevX));
-            }
-
-            if (nextX < a || nextX > b) {
-                System.err.printf("SI Warning: Iteration %d exited interval [%.4f, %.4f]. nextX = %.10f\n", iterations, a, b, nextX);
+                out.set(index, SolveStatus.NON_NUMERIC_PHI, prevX, f.applyAsDouble(prevX), iterations, Double.NaN);
+                return;
             }
 
-
-            error = Math.abs(nextX - x);
-
             if (error < eps) {
-                double fValue = f.applyAsDouble(nextX);
+                double fValue = Double.isNaN(residual) ? f.applyAsDouble(nextX) : residual;
                 if (Math.abs(fValue) < eps * 10 || error < eps * 0.1) {
-                    System.out.printf("SI Converged: Iter=%d, Root=%.10f, f(Root)=%.3e, Error=%.3e\n", iterations, nextX, fValue, error);
-                    return MethodResult.success(nextX, fValue, iterations);
-                } else {
-                    System.err.printf("SI Warning: |x_k - x_{k-1}| < eps (%.2e), but |f(x_k)| is still large (%.2e) at iter %d\n", error, Math.abs(fValue), iterations);
+                    out.success(index, nextX, fValue, iterations);
+                    return;
                 }
             }
 
@@ -70,7 +116,6 @@ public class SimpleIterationMethod implements EquationSolver {
         }
 
         double finalFValue = f.applyAsDouble(nextX);
-        System.err.println("SI Error: Max iterations exceeded.");
-        return MethodResult.failure("Превышено максимальное количество итераций ("+ MAX_ITERATIONS +"). Последняя оценка ошибки: " + error, iterations, nextX, finalFValue);
+        out.set(index, SolveStatus.MAX_ITERATIONS, nextX, finalFValue, iterations, error);
     }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package org.kkotlyarenko.methods;
+
+@FunctionalInterface
+public interface VectorFunction {
+    void apply(double[] x, double[] out);
+}
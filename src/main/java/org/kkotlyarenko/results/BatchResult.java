@@ -0,0 +1,79 @@
+package org.kkotlyarenko.results;
+
+public class BatchResult implements ResultSink {
+    private final double[] roots;
+    private final double[] values;
+    private final double[] details;
+    private final int[] iterations;
+    private final byte[] statuses;
+    /** Failure messages of adapted MethodResults, allocated on the first one. */
+    private String[] messages;
+
+    public BatchResult(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Размер пакета не может быть отрицательным: " + size);
+        }
+        this.roots = new double[size];
+        this.values = new double[size];
+        this.details = new double[size];
+        this.iterations = new int[size];
+        this.statuses = new byte[size];
+    }
+
+    @Override
+    public void set(int index, SolveStatus status, double root, double value, int iterationCount, double detail) {
+        roots[index] = root;
+        values[index] = value;
+        iterations[index] = iterationCount;
+        details[index] = detail;
+        statuses[index] = status.code();
+        if (messages != null) messages[index] = null;
+    }
+
+    @Override
+    public void set(int index, MethodResult result) {
+        ResultSink.super.set(index, result);
+        if (result.isSuccess()) return;
+        if (messages == null) messages = new String[roots.length];
+        messages[index] = result.getMessage();
+    }
+
+    public int size() {
+        return roots.length;
+    }
+
+    public double[] getRoots() {
+        return roots;
+    }
+
+    public double[] getValues() {
+        return values;
+    }
+
+    public int[] getIterations() {
+        return iterations;
+    }
+
+    public byte[] getStatuses() {
+        return statuses;
+    }
+
+    public SolveStatus getStatus(int index) {
+        return SolveStatus.fromCode(statuses[index]);
+    }
+
+    public boolean isSuccess(int index) {
+        return statuses[index] == SolveStatus.SUCCESS.code();
+    }
+
+    public MethodResult toMethodResult(int index) {
+        SolveStatus status = getStatus(index);
+        if (status == SolveStatus.SUCCESS) {
+            return MethodResult.success(roots[index], values[index], iterations[index]);
+        }
+        String message = messages != null && messages[index] != null
+                ? messages[index]
+                : status.format(iterations[index], details[index]);
+        return MethodResult.failure(message, iterations[index], roots[index], values[index]);
+    }
+}
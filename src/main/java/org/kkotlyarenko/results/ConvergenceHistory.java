@@ -0,0 +1,124 @@
+package org.kkotlyarenko.results;
+
+/**
+ * Bounded trace of a solve. When the buffer fills up every other entry is dropped and the
+ * recording stride doubles, so long runs keep an evenly thinned history; the latest
+ * iteration is always kept. Not thread-safe.
+ */
+public class ConvergenceHistory {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final int[] iterations;
+    private final double[] xs;
+    private final double[] values;
+    private final double[] steps;
+    private int stored;
+    private int stride = 1;
+    private long calls;
+
+    private boolean lastStored;
+    private int lastIteration;
+    private double lastX;
+    private double lastValue;
+    private double lastStep;
+
+    public ConvergenceHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ConvergenceHistory(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Ёмкость истории должна быть не меньше 2: " + capacity);
+        }
+        capacity += capacity & 1;
+        this.iterations = new int[capacity];
+        this.xs = new double[capacity];
+        this.values = new double[capacity];
+        this.steps = new double[capacity];
+        this.lastStored = true;
+    }
+
+    public void record(int iteration, double x, double value, double step) {
+        lastIteration = iteration;
+        lastX = x;
+        lastValue = value;
+        lastStep = step;
+        long call = calls++;
+        if (call % stride != 0) {
+            lastStored = false;
+            return;
+        }
+        if (stored == iterations.length) {
+            decimate();
+            if (call % stride != 0) {
+                lastStored = false;
+                return;
+            }
+        }
+        iterations[stored] = iteration;
+        xs[stored] = x;
+        values[stored] = value;
+        steps[stored] = step;
+        stored++;
+        lastStored = true;
+    }
+
+    private void decimate() {
+        int kept = 0;
+        for (int i = 0; i < stored; i += 2) {
+            iterations[kept] = iterations[i];
+            xs[kept] = xs[i];
+            values[kept] = values[i];
+            steps[kept] = steps[i];
+            kept++;
+        }
+        stored = kept;
+        stride *= 2;
+    }
+
+    public void clear() {
+        stored = 0;
+        stride = 1;
+        calls = 0;
+        lastStored = true;
+    }
+
+    public int size() {
+        return lastStored ? stored : stored + 1;
+    }
+
+    public int capacity() {
+        return iterations.length;
+    }
+
+    public int getStride() {
+        return stride;
+    }
+
+    public long getTotalIterations() {
+        return calls;
+    }
+
+    public int getIteration(int i) {
+        return i == stored && !lastStored ? lastIteration : iterations[checked(i)];
+    }
+
+    public double getX(int i) {
+        return i == stored && !lastStored ? lastX : xs[checked(i)];
+    }
+
+    public double getValue(int i) {
+        return i == stored && !lastStored ? lastValue : values[checked(i)];
+    }
+
+    public double getStep(int i) {
+        return i == stored && !lastStored ? lastStep : steps[checked(i)];
+    }
+
+    private int checked(int i) {
+        if (i < 0 || i >= stored) {
+            throw new IndexOutOfBoundsException("Индекс " + i + " вне диапазона [0, " + size() + ")");
+        }
+        return i;
+    }
+}
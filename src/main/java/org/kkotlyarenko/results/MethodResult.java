@@ -6,13 +6,22 @@ public class MethodResult {
     private final int iterations;
     private final boolean success;
     private final String message;
+    private final ConvergenceHistory history;
+    private final SolveCost cost;
 
     private MethodResult(double root, double functionValueAtRoot, int iterations, String message, boolean success) {
+        this(root, functionValueAtRoot, iterations, message, success, null, null);
+    }
+
+    private MethodResult(double root, double functionValueAtRoot, int iterations, String message, boolean success,
+                         ConvergenceHistory history, SolveCost cost) {
         this.root = root;
         this.functionValueAtRoot = functionValueAtRoot;
         this.iterations = iterations;
         this.message = message;
         this.success = success;
+        this.history = history;
+        this.cost = cost;
     }
 
 
@@ -32,6 +41,13 @@ public class MethodResult {
         return new MethodResult(lastApprox, lastFuncVal, iterations, message, false);
     }
 
+    public MethodResult withHistory(ConvergenceHistory history) {
+        return new MethodResult(root, functionValueAtRoot, iterations, message, success, history, cost);
+    }
+
+    public MethodResult withCost(SolveCost cost) {
+        return new MethodResult(root, functionValueAtRoot, iterations, message, success, history, cost);
+    }
 
     public double getRoot() {
         return root;
@@ -53,9 +69,22 @@ public class MethodResult {
         return message;
     }
 
+    public ConvergenceHistory getHistory() {
+        return history;
+    }
+
+    /** Null when the result was not produced by a measured solve. */
+    public SolveCost getCost() {
+        return cost;
+    }
+
 
     @Override
     public String toString() {
+        return cost == null ? describe() : describe() + "\n" + cost.summary();
+    }
+
+    private String describe() {
         if (success) {
             return String.format("Корень: %.10f\nf(корень): %.2e\nИтераций: %d",
                     root, functionValueAtRoot, iterations);
@@ -0,0 +1,67 @@
+package org.kkotlyarenko.results;
+
+public class MutableMethodResult implements ResultSink {
+    private SolveStatus status = SolveStatus.FAILED;
+    private double root = Double.NaN;
+    private double value = Double.NaN;
+    private double detail = Double.NaN;
+    private int iterations = -1;
+    /** The failure message of an adapted MethodResult, which no status can express. */
+    private String message;
+
+    @Override
+    public void set(int index, SolveStatus status, double root, double value, int iterationCount, double detail) {
+        this.message = null;
+        this.status = status;
+        this.root = root;
+        this.value = value;
+        this.iterations = iterationCount;
+        this.detail = detail;
+    }
+
+    @Override
+    public void set(int index, MethodResult result) {
+        ResultSink.super.set(index, result);
+        if (!result.isSuccess()) message = result.getMessage();
+    }
+
+    public SolveStatus getStatus() {
+        return status;
+    }
+
+    public boolean isSuccess() {
+        return status == SolveStatus.SUCCESS;
+    }
+
+    public double getRoot() {
+        return root;
+    }
+
+    public double getFunctionValueAtRoot() {
+        return value;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public double getDetail() {
+        return detail;
+    }
+
+    public String getMessage() {
+        return message != null ? message : status.format(iterations, detail);
+    }
+
+    public MethodResult toMethodResult() {
+        if (isSuccess()) {
+            return MethodResult.success(root, value, iterations);
+        }
+        return MethodResult.failure(getMessage(), iterations, root, value);
+    }
+
+    @Override
+    public String toString() {
+        return toMethodResult().toString();
+    }
+}
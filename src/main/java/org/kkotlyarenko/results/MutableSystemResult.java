@@ -0,0 +1,74 @@
+package org.kkotlyarenko.results;
+
+public class MutableSystemResult implements SystemResultSink {
+    private SystemStatus status = SystemStatus.MAX_ITERATIONS;
+    private double[] solution;
+    private double[] residuals;
+    private int iterations = -1;
+    private int residualEvaluations = -1;
+    private int jacobianEvaluations = -1;
+
+    public MutableSystemResult(int dimension) {
+        this.solution = new double[dimension];
+        this.residuals = new double[dimension];
+    }
+
+    @Override
+    public void set(SystemStatus status, double[] solution, double[] residuals, int iterations,
+                    int residualEvaluations, int jacobianEvaluations) {
+        if (this.solution.length != solution.length) {
+            this.solution = new double[solution.length];
+            this.residuals = new double[solution.length];
+        }
+        System.arraycopy(solution, 0, this.solution, 0, solution.length);
+        System.arraycopy(residuals, 0, this.residuals, 0, residuals.length);
+        this.status = status;
+        this.iterations = iterations;
+        this.residualEvaluations = residualEvaluations;
+        this.jacobianEvaluations = jacobianEvaluations;
+    }
+
+    public SystemStatus getStatus() {
+        return status;
+    }
+
+    public boolean isSuccess() {
+        return status == SystemStatus.SUCCESS;
+    }
+
+    public double[] getSolution() {
+        return solution;
+    }
+
+    public double[] getResiduals() {
+        return residuals;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getResidualEvaluations() {
+        return residualEvaluations;
+    }
+
+    public int getJacobianEvaluations() {
+        return jacobianEvaluations;
+    }
+
+    public String getMessage() {
+        return status.format(iterations, solution);
+    }
+
+    public SystemResult toSystemResult() {
+        SystemResult result = isSuccess()
+                ? SystemResult.success(solution.clone(), residuals.clone(), iterations)
+                : SystemResult.failure(getMessage(), iterations, solution.clone(), residuals.clone());
+        return residualEvaluations < 0 ? result : result.withEvaluations(residualEvaluations, jacobianEvaluations);
+    }
+
+    @Override
+    public String toString() {
+        return toSystemResult().toString();
+    }
+}
@@ -0,0 +1,21 @@
+package org.kkotlyarenko.results;
+
+public interface ResultSink {
+    void set(int index, SolveStatus status, double root, double value, int iterationCount, double detail);
+
+    default void success(int index, double root, double value, int iterationCount) {
+        set(index, SolveStatus.SUCCESS, root, value, iterationCount, Double.NaN);
+    }
+
+    default void failure(int index, SolveStatus status) {
+        set(index, status, Double.NaN, Double.NaN, -1, Double.NaN);
+    }
+
+    default void set(int index, MethodResult result) {
+        if (result.isSuccess()) {
+            success(index, result.getRoot(), result.getFunctionValueAtRoot(), result.getIterations());
+        } else {
+            set(index, SolveStatus.FAILED, result.getRoot(), result.getFunctionValueAtRoot(), result.getIterations(), Double.NaN);
+        }
+    }
+}
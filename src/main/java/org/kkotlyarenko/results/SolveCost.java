@@ -0,0 +1,19 @@
+package org.kkotlyarenko.results;
+
+/**
+ * What a solve actually cost: calls to f, to its derivatives (each partial counts once) and full
+ * Jacobian evaluations, plus wall-clock and CPU time. cpuNanos is -1 when the JVM cannot measure
+ * thread CPU time.
+ */
+public record SolveCost(long functionEvaluations, long derivativeEvaluations, long jacobianEvaluations,
+                        long wallNanos, long cpuNanos) {
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder("Вычислений f: ").append(functionEvaluations)
+                .append(", производных: ").append(derivativeEvaluations);
+        if (jacobianEvaluations > 0) sb.append(", якобианов: ").append(jacobianEvaluations);
+        sb.append(String.format("; время: %.3f мс", wallNanos / 1e6));
+        if (cpuNanos >= 0) sb.append(String.format(", ЦП: %.3f мс", cpuNanos / 1e6));
+        return sb.toString();
+    }
+}
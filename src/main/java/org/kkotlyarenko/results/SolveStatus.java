@@ -0,0 +1,47 @@
+package org.kkotlyarenko.results;
+
+public enum SolveStatus {
+    SUCCESS("Решение найдено успешно."),
+    UNDEFINED_AT_BOUNDS("Значение функции не определено или бесконечно на границах интервала."),
+    UNDEFINED_AT_START("Значение функции не определено или бесконечно в начальных точках."),
+    NO_SIGN_CHANGE("Значения функции на концах интервала одного знака или равны нулю. Метод не гарантирует корень внутри интервала."),
+    UNDEFINED_AT_POINT("Значение функции не определено или бесконечно в точке c = "),
+    UNDEFINED_DERIVATIVE("Производная phi'(x) не определена или бесконечна в начальной точке x0="),
+    ZERO_DENOMINATOR("Делитель близок к нулю (f(x1) - f(x0) ~ 0), метод не может продолжаться."),
+    NON_NUMERIC_STEP("Получено нечисловое значение для x или f(x) на итерации "),
+    NON_NUMERIC_PHI("Получено нечисловое значение phi(x) на итерации "),
+    MAX_ITERATIONS("Превышено максимальное количество итераций"),
+    FAILED("Метод завершился с ошибкой."),
+    CANCELLED("Вычисление отменено"),
+    DEADLINE_EXCEEDED("Превышен лимит времени");
+
+    private static final SolveStatus[] VALUES = values();
+
+    private final String message;
+
+    SolveStatus(String message) {
+        this.message = message;
+    }
+
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    public static SolveStatus fromCode(byte code) {
+        return VALUES[code];
+    }
+
+    public String format(int iterations, double detail) {
+        return switch (this) {
+            case UNDEFINED_AT_POINT, UNDEFINED_DERIVATIVE -> message + detail;
+            case NON_NUMERIC_STEP, NON_NUMERIC_PHI -> message + iterations;
+            case CANCELLED, DEADLINE_EXCEEDED -> Double.isNaN(detail)
+                    ? message + " после " + iterations + " итераций. Возвращена последняя оценка."
+                    : message + " после " + iterations + " итераций. Возвращена последняя оценка, ошибка: " + detail;
+            case MAX_ITERATIONS -> Double.isNaN(detail)
+                    ? message + " (" + iterations + ")."
+                    : message + " (" + iterations + "). Последняя оценка ошибки: " + detail;
+            default -> message;
+        };
+    }
+}
@@ -1,20 +1,33 @@
 package org.kkotlyarenko.results;
 
-import java.util.Arrays;
-
 public class SystemResult {
+    private static final int MAX_PRINTED_COMPONENTS = 10;
+
     private final double[] solution;
     private final double[] residuals;
     private final int iterations;
     private final boolean success;
     private final String message;
+    private final int residualEvaluations;
+    private final int jacobianEvaluations;
+    private final ConvergenceHistory history;
+    private final SolveCost cost;
 
     public SystemResult(double[] solution, double[] residuals, int iterations, String message, boolean success) {
+        this(solution, residuals, iterations, message, success, -1, -1, null, null);
+    }
+
+    private SystemResult(double[] solution, double[] residuals, int iterations, String message, boolean success,
+                         int residualEvaluations, int jacobianEvaluations, ConvergenceHistory history, SolveCost cost) {
         this.solution = solution;
         this.residuals = residuals;
         this.iterations = iterations;
         this.message = message;
         this.success = success;
+        this.residualEvaluations = residualEvaluations;
+        this.jacobianEvaluations = jacobianEvaluations;
+        this.history = history;
+        this.cost = cost;
     }
 
     public static SystemResult success(double[] solution, double[] residuals, int iterations) {
@@ -29,6 +42,17 @@ public class SystemResult {
         return new SystemResult(lastApprox, lastResiduals, iterations, message, false);
     }
 
+    public SystemResult withEvaluations(int residualEvaluations, int jacobianEvaluations) {
+        return new SystemResult(solution, residuals, iterations, message, success, residualEvaluations, jacobianEvaluations, history, cost);
+    }
+
+    public SystemResult withCost(SolveCost cost) {
+        return new SystemResult(solution, residuals, iterations, message, success, residualEvaluations, jacobianEvaluations, history, cost);
+    }
+
+    public SystemResult withHistory(ConvergenceHistory history) {
+        return new SystemResult(solution, residuals, iterations, message, success, residualEvaluations, jacobianEvaluations, history, cost);
+    }
 
     public double[] getSolution() {
         return solution;
@@ -50,8 +74,38 @@ public class SystemResult {
         return message;
     }
 
+    public int getResidualEvaluations() {
+        return residualEvaluations;
+    }
+
+    public int getJacobianEvaluations() {
+        return jacobianEvaluations;
+    }
+
+    public ConvergenceHistory getHistory() {
+        return history;
+    }
+
+    /** Null when the result was not produced by a measured solve. */
+    public SolveCost getCost() {
+        return cost;
+    }
+
+    public String evaluationSummary() {
+        if (residualEvaluations < 0) return "";
+        return String.format("\nВычислений F: %d, якобиана: %d", residualEvaluations, jacobianEvaluations);
+    }
+
     @Override
     public String toString() {
+        String text = describe() + evaluationSummary();
+        return cost == null ? text : text + "\n" + cost.summary();
+    }
+
+    private String describe() {
+        if (solution != null && solution.length != 2) {
+            return toVectorString();
+        }
         if (success) {
             return String.format("Решение: x = %.8f, y = %.8f\nПогрешности (f1, f2): [%.2e, %.2e]\nИтераций: %d",
                     solution[0], solution[1], residuals[0], residuals[1], iterations);
@@ -68,4 +122,31 @@ public class SystemResult {
             return "Ошибка: " + message + iterInfo + approxInfo + residualInfo;
         }
     }
+
+    private String toVectorString() {
+        StringBuilder sb = new StringBuilder();
+        if (success) {
+            sb.append("Решение (n = ").append(solution.length).append("):");
+        } else {
+            sb.append("Ошибка: ").append(message);
+            if (iterations >= 0) sb.append(String.format(" (Итераций: %d)", iterations));
+            sb.append("\nПоследнее приближение (n = ").append(solution.length).append("):");
+        }
+        int shown = Math.min(solution.length, MAX_PRINTED_COMPONENTS);
+        for (int i = 0; i < shown; i++) {
+            sb.append(String.format("\n  x%d = %.8f", i + 1, solution[i]));
+        }
+        if (shown < solution.length) {
+            sb.append("\n  ... (ещё ").append(solution.length - shown).append(")");
+        }
+        if (residuals != null) {
+            double norm = 0.0;
+            for (double r : residuals) norm = Math.max(norm, Math.abs(r));
+            sb.append(String.format("\nМакс. погрешность |F(x)|: %.2e", norm));
+        }
+        if (success) {
+            sb.append(String.format("\nИтераций: %d", iterations));
+        }
+        return sb.toString();
+    }
 }
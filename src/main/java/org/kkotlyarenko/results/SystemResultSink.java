@@ -0,0 +1,7 @@
+package org.kkotlyarenko.results;
+
+public interface SystemResultSink {
+    /** The arrays are copied; callers may keep reusing them. Evaluation counts are -1 when not tracked. */
+    void set(SystemStatus status, double[] solution, double[] residuals, int iterations,
+             int residualEvaluations, int jacobianEvaluations);
+}
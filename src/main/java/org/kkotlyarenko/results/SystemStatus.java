@@ -0,0 +1,42 @@
+package org.kkotlyarenko.results;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public enum SystemStatus {
+    SUCCESS("Solution found successfully."),
+    UNDEFINED_AT_START("Значение функции не определено или бесконечно в начальной точке."),
+    UNDEFINED_FUNCTION("Значение функции не определено или бесконечно на итерации "),
+    UNDEFINED_DERIVATIVE("Значение производной не определено или бесконечно на итерации "),
+    UNDEFINED_FUNCTION_AT_POINT("Значение функции не определено или бесконечно в точке "),
+    UNDEFINED_DERIVATIVE_AT_POINT("Значение производной не определено или бесконечно в точке "),
+    SINGULAR_JACOBIAN("Якобиан близок к нулю (сингулярная матрица). Решение не может быть найдено."),
+    SINGULAR_JACOBIAN_NEAR_SOLUTION("Якобиан близок к нулю (сингулярная матрица). Возможно, найдено приближенное решение."),
+    NON_NUMERIC_SOLUTION("Получено нечисловое значение решения на итерации "),
+    NON_NUMERIC_XY("Получено нечисловое значение для x или y на итерации "),
+    MAX_ITERATIONS("Превышено максимальное количество итераций."),
+    CANCELLED("Вычисление отменено после итерации "),
+    DEADLINE_EXCEEDED("Превышен лимит времени после итерации ");
+
+    private final String message;
+
+    SystemStatus(String message) {
+        this.message = message;
+    }
+
+    public String format(int iterations, double[] point) {
+        return switch (this) {
+            case UNDEFINED_FUNCTION, UNDEFINED_DERIVATIVE, NON_NUMERIC_SOLUTION, NON_NUMERIC_XY -> message + iterations;
+            case CANCELLED, DEADLINE_EXCEEDED -> message + iterations + ". Возвращена последняя оценка.";
+            case UNDEFINED_FUNCTION_AT_POINT, UNDEFINED_DERIVATIVE_AT_POINT ->
+                    message + formatPoint(point);
+            default -> message;
+        };
+    }
+
+    /** "(x1, ..., xn)" for any dimension; "(?)" when the point is not known. */
+    private static String formatPoint(double[] point) {
+        if (point == null) return "(?)";
+        return Arrays.stream(point).mapToObj(Double::toString).collect(Collectors.joining(", ", "(", ")"));
+    }
+}
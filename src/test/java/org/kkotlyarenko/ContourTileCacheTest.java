@@ -0,0 +1,28 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.methods.CancellationToken;
+import org.kkotlyarenko.methods.NewtonSystemSolver;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ContourTileCacheTest {
+
+    private static final NewtonSystemSolver.Function2Var F1 = (x, y) -> Math.sin(x) + Math.cos(y);
+    private static final NewtonSystemSolver.Function2Var F2 = (x, y) -> Math.sin(0.5 * x) - Math.cos(0.7 * y);
+
+    @Test
+    void panningBackToPartlyCachedViewAtCapacityDrawsEveryTile() {
+        ContourTileCache cache = new ContourTileCache();
+        for (double from : new double[]{0, 2000, 4000}) {
+            cache.contour("system", F1, F2, from, from + 1000, from, from + 1000, 1000, CancellationToken.NONE);
+        }
+
+        ContourTileCache.Contours panned = cache.contour("system", F1, F2, -500, 500, -500, 500, 1000, CancellationToken.NONE);
+        ContourTileCache.Contours fresh = new ContourTileCache()
+                .contour("system", F1, F2, -500, 500, -500, 500, 1000, CancellationToken.NONE);
+
+        assertEquals(fresh.first().count(), panned.first().count());
+        assertEquals(fresh.second().count(), panned.second().count());
+    }
+}
@@ -0,0 +1,70 @@
+package org.kkotlyarenko;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DecimalConverterTest {
+
+    /** NaN means "fall back to Double.parseDouble", which is always allowed. */
+    private static void assertConverts(long w, int q, boolean negative) {
+        double converted = DecimalConverter.toDouble(w, q, negative);
+        if (Double.isNaN(converted)) return;
+        double expected = Double.parseDouble((negative ? "-" : "") + Long.toUnsignedString(w) + "e" + q);
+        assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(converted),
+                (negative ? "-" : "") + w + "e" + q);
+    }
+
+    @Test
+    void exactSmallValuesTakeTheFastPath() {
+        assertEquals(0.1, DecimalConverter.toDouble(1, -1, false));
+        assertEquals(-1.5, DecimalConverter.toDouble(15, -1, true));
+        assertEquals(1e22, DecimalConverter.toDouble(1, 22, false));
+        assertEquals(9007199254740992.0, DecimalConverter.toDouble(1L << 53, 0, false));
+    }
+
+    @Test
+    void zeroesAndOutOfRangeExponents() {
+        assertEquals(0.0, DecimalConverter.toDouble(0, 100, false));
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(DecimalConverter.toDouble(0, 0, true)));
+        assertEquals(0.0, DecimalConverter.toDouble(1, -400, false));
+        assertEquals(Double.POSITIVE_INFINITY, DecimalConverter.toDouble(1, 400, false));
+        assertEquals(Double.NEGATIVE_INFINITY, DecimalConverter.toDouble(2, 308, true));
+        assertEquals(Double.MAX_VALUE, DecimalConverter.toDouble(17976931348623157L, 292, false));
+    }
+
+    @Test
+    void halfwayCasesRoundToEven() {
+        assertConverts(9007199254740993L, 0, false);
+        assertConverts(9007199254740995L, 0, false);
+        assertConverts(18014398509481985L, 0, false);
+        assertConverts(2251799813685248L, -52, false);
+        assertConverts(1000000000000000128L, 0, false);
+        assertConverts(1000000000000000129L, 0, false);
+    }
+
+    @Test
+    void randomInputsMatchParseDouble() {
+        Random random = new Random(12345);
+        for (int i = 0; i < 200_000; i++) {
+            long w = switch (i % 3) {
+                case 0 -> random.nextLong(1, Long.MAX_VALUE);
+                case 1 -> random.nextLong(1, 1L << 53);
+                default -> random.nextInt(1, 1_000_000);
+            };
+            int q = random.nextInt(-330, 300);
+            assertConverts(w, q, random.nextBoolean());
+        }
+    }
+
+    @Test
+    void nineteenDigitMantissasMatchParseDouble() {
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            long w = 1_000_000_000_000_000_000L + random.nextLong(8_000_000_000_000_000_000L);
+            assertConverts(w, random.nextInt(-40, 40), false);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.kkotlyarenko;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobFileReaderTest {
+
+    private static List<JobRecord> read(Path file) throws IOException {
+        try (JobFileReader reader = JobFileReader.open(file)) {
+            return reader.records().toList();
+        }
+    }
+
+    @Test
+    void customFormulasAreReadWithTheirText(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("jobs.txt");
+        Files.writeString(file, """
+                EQUATION_PARAMS
+                -1
+                x³ − 2·x + 1
+                3
+                -2
+                0
+                1e-8
+                --- Исходные данные ---
+                SYSTEM_PARAMS
+                -1
+                x^2+y^2=4; y=x-1
+                1
+                1
+                1e-6
+                EQUATION_PARAMS
+                0
+                1
+                1
+                3
+                1e-4
+                """, StandardCharsets.UTF_8);
+
+        assertEquals(List.of(
+                new JobRecord(ParameterFile.TASK_EQUATION, -1, "x³ − 2·x + 1", 3, -2, 0, 1e-8),
+                new JobRecord(ParameterFile.TASK_SYSTEM, -1, "x^2+y^2=4; y=x-1", -1, 1, 1, 1e-6),
+                new JobRecord(ParameterFile.TASK_EQUATION, 0, null, 1, 1, 3, 1e-4)
+        ), read(file));
+    }
+
+    private static Path write(Path dir, String text) throws IOException {
+        Path file = dir.resolve("jobs.txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    void numbersMatchParseDoubleInEveryNotation(@TempDir Path dir) throws IOException {
+        String[] numbers = {"1", "-0.5", "+2.25", "1,5", "1e-8", "1.0E-8", "-3.5e+2", ".25", "5.", "0.1",
+                "123456789012345678901234567890", "0.30000000000000004", "1.7976931348623157e308", "4.9e-324",
+                "2.2250738585072011e-308", "1e400", "Infinity", "-Infinity", "NaN"};
+        StringBuilder text = new StringBuilder();
+        for (String number : numbers) {
+            text.append("SYSTEM_PARAMS\n0\n").append(number).append("\n0\n1e-6\n");
+        }
+        List<JobRecord> records = read(write(dir, text.toString()));
+
+        assertEquals(numbers.length, records.size());
+        for (int i = 0; i < numbers.length; i++) {
+            assertEquals(Double.parseDouble(numbers[i].replace(',', '.')), records.get(i).a(), numbers[i]);
+        }
+    }
+
+    @Test
+    void itemIndexOutsideIntIsRejected(@TempDir Path dir) throws IOException {
+        assertEquals(Integer.MAX_VALUE, read(write(dir, "SYSTEM_PARAMS\n2147483647\n0\n0\n1e-6\n")).get(0).itemIndex());
+        assertEquals(Integer.MIN_VALUE, read(write(dir, "SYSTEM_PARAMS\n-2147483648\n0\n0\n1e-6\n")).get(0).itemIndex());
+        for (String item : new String[]{"2147483648", "-2147483649", "99999999999", "12x", "-"}) {
+            Path file = write(dir, "SYSTEM_PARAMS\n" + item + "\n0\n0\n1e-6\n");
+            UncheckedIOException error = assertThrows(UncheckedIOException.class, () -> read(file), item);
+            assertInstanceOf(IOException.class, error.getCause());
+        }
+    }
+
+    @Test
+    void incompleteRecordIsAnError(@TempDir Path dir) throws IOException {
+        Path file = write(dir, "EQUATION_PARAMS\n0\n1\n0.5\nSYSTEM_PARAMS\n0\n1\n1\n1e-6\n");
+        try (JobFileReader reader = JobFileReader.open(file)) {
+            IOException error = assertThrows(IOException.class, () -> reader.forEach((t, i, x, m, a, b, eps) -> { }));
+            assertTrue(error.getMessage().startsWith("Неполная запись"), error.getMessage());
+        }
+    }
+
+    @Test
+    void byteOrderMarkAndCarriageReturnsAreSkipped(@TempDir Path dir) throws IOException {
+        Path file = write(dir, "\uFEFFEQUATION_PARAMS\r\n 1 \r\n2\r\n\r\n0.5\r\n1.5\r\n1e-6\r\n");
+        assertEquals(List.of(new JobRecord(ParameterFile.TASK_EQUATION, 1, null, 2, 0.5, 1.5, 1e-6)), read(file));
+    }
+
+    @Test
+    void parallelSplitsAndForEachSeeEveryRecordOnce(@TempDir Path dir) throws IOException {
+        Random random = new Random(3);
+        List<JobRecord> expected = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 3 << 20) {
+            boolean equation = random.nextBoolean();
+            int item = random.nextInt(5);
+            double a = -random.nextDouble() * 10, b = random.nextDouble() * 10;
+            if (equation) {
+                int method = random.nextInt(5);
+                expected.add(new JobRecord(ParameterFile.TASK_EQUATION, item, null, method, a, b, 1e-8));
+                text.append("EQUATION_PARAMS\n").append(item).append('\n').append(method).append('\n');
+            } else {
+                expected.add(new JobRecord(ParameterFile.TASK_SYSTEM, item, null, -1, a, b, 1e-8));
+                text.append("SYSTEM_PARAMS\n").append(item).append('\n');
+            }
+            text.append(a).append('\n').append(String.format(Locale.ROOT, "%.17g", b)).append("\n1e-8\n")
+                    .append("\n--- Исходные данные ---\nЗадача: что-то\n\n");
+        }
+        Path file = write(dir, text.toString());
+
+        try (JobFileReader reader = JobFileReader.open(file)) {
+            assertEquals(expected, reader.records().parallel().toList());
+            List<JobRecord> visited = new ArrayList<>();
+            reader.forEach((task, item, expression, method, a, b, eps) ->
+                    visited.add(new JobRecord(task, item, expression, method, a, b, eps)));
+            assertEquals(expected, visited);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.kkotlyarenko;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParameterFileTest {
+
+    private static ParameterFile roundTrip(ParameterFile params, String itemTitle) throws IOException {
+        StringWriter text = new StringWriter();
+        try (PrintWriter writer = new PrintWriter(text)) {
+            params.writeReport(writer, itemTitle, "Метод", "Корень: 1");
+        }
+        return ParameterFile.read(new BufferedReader(new StringReader(text.toString())));
+    }
+
+    @Test
+    void customEquationKeepsItsFormula() throws IOException {
+        ParameterFile params = new ParameterFile(ParameterFile.TASK_EQUATION, ParameterFile.CUSTOM_ITEM,
+                "x^3 - 2*x + 1", 3, "-2", "0", "1e-8");
+        assertEquals(params, roundTrip(params, params.expression()));
+    }
+
+    @Test
+    void customSystemKeepsItsFormula() throws IOException {
+        ParameterFile params = new ParameterFile(ParameterFile.TASK_SYSTEM, ParameterFile.CUSTOM_ITEM,
+                "x^2+y^2=4; y=x-1", -1, "1", "1", "1e-6");
+        assertEquals(params, roundTrip(params, params.expression()));
+    }
+
+    @Test
+    void builtInItemHasNoFormulaLine() throws IOException {
+        ParameterFile params = new ParameterFile(ParameterFile.TASK_EQUATION, 2, 1, "0", "1", "1e-6");
+        ParameterFile read = roundTrip(params, FunctionSet.descriptions[2]);
+        assertEquals(params, read);
+        assertNull(read.expression());
+    }
+
+    @Test
+    void customItemNeedsFormula() {
+        assertThrows(IllegalArgumentException.class, () -> new ParameterFile(ParameterFile.TASK_EQUATION,
+                ParameterFile.CUSTOM_ITEM, " ", 0, "0", "1", "1e-6"));
+        String truncated = ParameterFile.FILE_MARKER_SYSTEM + "\n-1\n";
+        assertThrows(IOException.class, () -> ParameterFile.read(new BufferedReader(new StringReader(truncated))));
+    }
+}
@@ -0,0 +1,59 @@
+package org.kkotlyarenko;
+
+import org.kkotlyarenko.expression.ExpressionCompiler;
+import org.kkotlyarenko.methods.IterationListener;
+import org.kkotlyarenko.methods.JacobianUpdate;
+import org.kkotlyarenko.results.MethodResult;
+import org.kkotlyarenko.results.SystemResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ResultFileTest {
+
+    @Test
+    void roundTripKeepsResultTextIncludingCost(@TempDir Path dir) throws IOException {
+        MethodResult equation = ProblemSolver.solveEquation(FunctionSet.functions[0], 3, 1, 3, 1e-8, IterationListener.NONE);
+        SystemResult system = ProblemSolver.solveSystem(SystemFunctionSet.systems[0], JacobianUpdate.BROYDEN_GOOD,
+                0.5, 0.5, 1e-8, IterationListener.NONE);
+        assertNotNull(equation.getCost());
+        assertNotNull(system.getCost());
+
+        Path path = dir.resolve("results" + ResultFile.EXTENSION);
+        try (ResultFile.Writer writer = ResultFile.Writer.create(path)) {
+            writer.add(new ParameterFile(ParameterFile.TASK_EQUATION, 0, 3, "1", "3", "1e-8"), 3, "f", "Брента", equation, null);
+            writer.add(new ParameterFile(ParameterFile.TASK_SYSTEM, 0, -1, "0.5", "0.5", "1e-8"), -1, "s", "Бройдена", system, null);
+        }
+        try (ResultFile.Reader reader = ResultFile.Reader.open(path)) {
+            assertEquals(equation.toString(), reader.result(0).toString());
+            assertEquals(system.toString(), reader.result(1).toString());
+        }
+    }
+
+    @Test
+    void customFormulaSurvivesConversionToText(@TempDir Path dir) throws IOException {
+        MethodResult equation = ProblemSolver.solveEquation(
+                ExpressionCompiler.compile("x^3 - 2*x + 1"), 3, -2, 0, 1e-8, IterationListener.NONE);
+        ParameterFile params = new ParameterFile(ParameterFile.TASK_EQUATION, ParameterFile.CUSTOM_ITEM,
+                "x^3 - 2*x + 1", 3, "-2.0", "0.0", "1.0E-8");
+
+        Path path = dir.resolve("custom" + ResultFile.EXTENSION);
+        try (ResultFile.Writer writer = ResultFile.Writer.create(path)) {
+            writer.add(params, 3, "x^3 - 2*x + 1", "Брента", equation, null);
+        }
+        StringWriter text = new StringWriter();
+        try (ResultFile.Reader reader = ResultFile.Reader.open(path); PrintWriter writer = new PrintWriter(text)) {
+            reader.writeText(writer);
+        }
+        assertEquals(params, ParameterFile.read(new BufferedReader(new StringReader(text.toString()))));
+    }
+}
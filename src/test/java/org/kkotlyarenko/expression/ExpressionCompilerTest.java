@@ -0,0 +1,179 @@
+package org.kkotlyarenko.expression;
+
+import org.kkotlyarenko.methods.BatchFunction;
+import org.kkotlyarenko.methods.DualFunction;
+import org.kkotlyarenko.methods.DualFunction2Var;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpressionCompilerTest {
+
+    private static final double[] POINTS = {-0.4, 0.3, 0.7, 2.5};
+    private static final double SECOND = 1.1;
+
+    /** Equal within a relative tolerance; NaN and infinities must match exactly. */
+    private static void assertClose(double expected, double actual, double relative, String message) {
+        if (!Double.isFinite(expected)) {
+            assertEquals(expected, actual, message);
+        } else {
+            assertEquals(expected, actual, relative * Math.max(Double.MIN_NORMAL, Math.abs(expected)), message);
+        }
+    }
+
+    private static double value(String expression, double x) {
+        return ExpressionCompiler.compile(expression).applyAsDouble(x);
+    }
+
+    @Test
+    void powerOfBaseFoldedToConstantCompiles() {
+        DualFunction f = ExpressionCompiler.compile("(x*0)^2 + x");
+        double[] out = new double[2];
+        f.evaluate(3.0, out);
+        assertEquals(3.0, f.applyAsDouble(3.0));
+        assertEquals(3.0, out[0]);
+        assertEquals(1.0, out[1]);
+        assertEquals(1.0, f.derivative(3.0));
+    }
+
+    @Test
+    void unaryMinusBindsLooserThanPower() {
+        assertEquals(-9.0, value("-x^2", 3.0));
+        assertEquals(9.0, value("(-x)^2", 3.0));
+        assertEquals(0.125, value("2^-x", 3.0));
+        assertEquals(3.0, value("--x", 3.0));
+        assertEquals(-1.0, value("2 − x", 3.0));
+        assertEquals("(-(x^2))", ExpressionCompiler.normalize("-x^2", "x"));
+    }
+
+    @Test
+    void adjacentFactorsMultiply() {
+        assertEquals(6.0, value("2x", 3.0));
+        assertEquals(8.0, value("2(x+1)", 3.0));
+        assertEquals(3.0 * Math.sin(3.0), value("x sin(x)", 3.0));
+        assertEquals(2 * Math.PI * 3.0, value("2pi x", 3.0), 1e-12);
+        assertEquals(12.0, value("(x+1)(x)", 3.0));
+        assertEquals(2e3 * 3.0, value("2e3x", 3.0));
+    }
+
+    @Test
+    void typographicPowersAndOperatorsAreAccepted() {
+        assertEquals(9.0, value("x²", 3.0));
+        assertEquals(27.0, value("x³", 3.0));
+        assertEquals(27.0, value("x**3", 3.0));
+        assertEquals(6.0, value("2·x", 3.0));
+        assertEquals(6.0, value("2×x", 3.0));
+    }
+
+    @Test
+    void definitionPrefixIsDroppedAndEquationsBecomeDifferences() {
+        assertEquals(8.0, value("f(x) = x^2 - 1", 3.0));
+        assertEquals(8.0, value("g( x )=x^2-1", 3.0));
+        assertEquals(5.0, value("x^2 = 4", 3.0));
+        assertEquals(Math.sin(3.0) - 0.5, value("sin(x) = 0.5", 3.0));
+        assertEquals(-1.0, ExpressionCompiler.compile2Var("y = x + 1").apply(1.0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("x = 1 = 2"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("foo(x)"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("x + y"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("(x + 1"));
+    }
+
+    @Test
+    void constantsAreFolded() {
+        assertEquals(new Node.Constant(6.0), Parser.parse("2*3 + sin(0) + ln(e) - 1", "x"));
+        assertEquals(new Node.Constant(Math.PI / 2), Parser.parse("pi/2", "x"));
+        assertEquals(new Node.Constant(1024.0), Parser.parse("2^10", "x"));
+        assertEquals("x", Parser.parse("x*1 + 0", "x").toString());
+        assertEquals("(x*0.25)", Parser.parse("x/4", "x").toString());
+        assertEquals("(x/3.0)", Parser.parse("x/3", "x").toString());
+        assertEquals("exp(x)", Parser.parse("e^x", "x").toString());
+        assertEquals("sqrt(x)", Parser.parse("x^0.5", "x").toString());
+        assertEquals(new Node.Constant(1.0), Parser.parse("x^0", "x"));
+    }
+
+    @Test
+    void everyFunctionMatchesMath() {
+        double[] out = new double[2];
+        for (MathFunction function : MathFunction.values()) {
+            String name = function.displayName();
+            DualFunction f = ExpressionCompiler.compile(function.arity() == 1 ? name + "(x)" : name + "(x, " + SECOND + ")");
+            for (double x : POINTS) {
+                double expected = function.arity() == 1 ? function.apply(x) : function.apply(x, SECOND);
+                assertClose(expected, f.applyAsDouble(x), 1e-15, name + " at " + x);
+                f.evaluate(x, out);
+                assertClose(expected, out[0], 1e-15, name + " at " + x);
+
+                double h = 1e-6;
+                double plus = f.applyAsDouble(x + h);
+                double minus = f.applyAsDouble(x - h);
+                if (Double.isFinite(plus) && Double.isFinite(minus) && Double.isFinite(out[1])) {
+                    double numeric = (plus - minus) / (2 * h);
+                    assertEquals(numeric, out[1], 1e-6 * Math.max(1, Math.abs(numeric)), name + "' at " + x);
+                }
+            }
+            if (f instanceof BatchFunction batch) {
+                double[] ys = new double[POINTS.length];
+                batch.applyBatch(POINTS, ys, POINTS.length);
+                for (int i = 0; i < POINTS.length; i++) {
+                    assertClose(f.applyAsDouble(POINTS[i]), ys[i], 1e-15, name + " batch at " + POINTS[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void binaryFunctionsMatchMathInTwoVariables() {
+        for (MathFunction function : MathFunction.values()) {
+            if (function.arity() != 2) continue;
+            DualFunction2Var f = ExpressionCompiler.compile2Var(function.displayName() + "(x, y)");
+            for (double x : POINTS) {
+                for (double y : POINTS) {
+                    assertClose(function.apply(x, y), f.apply(x, y), 1e-15,
+                            function.displayName() + " at " + x + ", " + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    void negativeAndLargeIntegerPowers() {
+        assertInstanceOf(Node.IntPower.class, Parser.parse("x^-3", "x"));
+        assertInstanceOf(Node.IntPower.class, Parser.parse("x^64", "x"));
+        assertInstanceOf(Node.Call.class, Parser.parse("x^65", "x"));
+
+        DualFunction inverseCube = ExpressionCompiler.compile("x^-3");
+        assertEquals(0.125, inverseCube.applyAsDouble(2.0));
+        assertEquals(-0.1875, inverseCube.derivative(2.0));
+        assertEquals(-0.125, inverseCube.applyAsDouble(-2.0));
+        assertEquals(Double.POSITIVE_INFINITY, inverseCube.applyAsDouble(0.0));
+
+        for (int n : new int[]{-64, -17, -1, 2, 7, 31, 64, 65}) {
+            DualFunction f = ExpressionCompiler.compile("x^" + n);
+            for (double x : new double[]{-1.3, 0.9, 1.01, 2.0}) {
+                double expected = Math.pow(x, n);
+                assertClose(expected, f.applyAsDouble(x), 1e-13, "x^" + n + " at " + x);
+                double slope = n * Math.pow(x, n - 1);
+                assertClose(slope, f.derivative(x), 1e-13, "(x^" + n + ")' at " + x);
+            }
+        }
+    }
+
+    @Test
+    void equalExpressionsShareOneCompiledFunction() {
+        assertSame(ExpressionCompiler.compile("x^2 - 1"), ExpressionCompiler.compile("f(x) = x² - 1"));
+    }
+
+    @Test
+    void cacheEvictsLeastRecentlyUsedBeyondCapacity() {
+        DualFunction kept = ExpressionCompiler.compile("x + 0.123456");
+        for (int i = 0; i < ExpressionCompiler.CACHE_CAPACITY + 10; i++) {
+            ExpressionCompiler.compile("x * " + (i + 2) + ".5");
+            assertSame(kept, ExpressionCompiler.compile("x + 0.123456"));
+        }
+        assertTrue(ExpressionCompiler.cacheSize() <= ExpressionCompiler.CACHE_CAPACITY);
+    }
+}
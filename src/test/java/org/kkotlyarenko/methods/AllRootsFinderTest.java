@@ -0,0 +1,22 @@
+package org.kkotlyarenko.methods;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class AllRootsFinderTest {
+
+    @Test
+    void signChangesAcrossPolesAreNotRoots() {
+        // tan has roots at 0, pi and 2pi, and poles at pi/2 and 3pi/2.
+        for (EquationSolver solver : new EquationSolver[]{new BisectionMethod(), new SecantMethod(), new BrentMethod(), new ItpMethod()}) {
+            double[] roots = new AllRootsFinder(solver).findRoots(Math::tan, -0.5, 6.5, 1e-10);
+            assertArrayEquals(new double[]{0.0, Math.PI, 2 * Math.PI}, roots, 1e-8, solver.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void reciprocalHasNoRoots() {
+        assertArrayEquals(new double[0], new AllRootsFinder(new BrentMethod()).findRoots(x -> 1.0 / x, -1.0, 1.3, 1e-10));
+    }
+}
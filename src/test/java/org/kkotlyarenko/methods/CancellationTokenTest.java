@@ -0,0 +1,23 @@
+package org.kkotlyarenko.methods;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CancellationTokenTest {
+
+    @Test
+    void sharedNoneTokenCannotBeCancelled() {
+        CancellationToken.NONE.cancel();
+        assertFalse(CancellationToken.NONE.isCancelled());
+        assertFalse(CancellationToken.NONE.shouldStop());
+    }
+
+    @Test
+    void createdTokenStopsOnCancel() {
+        CancellationToken token = CancellationToken.create();
+        token.cancel();
+        assertTrue(token.shouldStop());
+    }
+}
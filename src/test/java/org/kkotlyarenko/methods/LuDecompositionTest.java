@@ -0,0 +1,55 @@
+package org.kkotlyarenko.methods;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LuDecompositionTest {
+
+    @Test
+    void zeroLeadingEntryIsPivotedAway() {
+        double[] a = {
+                0, 2, 1,
+                1, 1, 1,
+                2, 1, 3
+        };
+        double[] b = {2 * 2 + 3, 1 + 2 + 3, 2 + 2 + 9};
+        int[] pivots = new int[3];
+
+        assertTrue(LuDecomposition.factor(a, 3, pivots));
+        assertEquals(2, pivots[0]);
+        LuDecomposition.solve(a, 3, pivots, b);
+        assertArrayEquals(new double[]{1, 2, 3}, b, 1e-12);
+    }
+
+    @Test
+    void factorsReuseForSeveralRightHandSides() {
+        double[] a = {4, 3, 6, 3};
+        int[] pivots = new int[2];
+        assertTrue(LuDecomposition.factor(a, 2, pivots));
+
+        double[] first = {10, 12};
+        LuDecomposition.solve(a, 2, pivots, first);
+        assertArrayEquals(new double[]{1, 2}, first, 1e-12);
+        double[] second = {-3, -3};
+        LuDecomposition.solve(a, 2, pivots, second);
+        assertArrayEquals(new double[]{0, -1}, second, 1e-12);
+    }
+
+    @Test
+    void singularMatricesAreRejected() {
+        assertFalse(LuDecomposition.factor(new double[]{1, 2, 2, 4}, 2, new int[2]));
+        assertFalse(LuDecomposition.factor(new double[]{0, 0, 0, 0}, 2, new int[2]));
+        assertFalse(LuDecomposition.factor(new double[]{1, 2, 3, 4, 5, 6, 7, 8, 9}, 3, new int[3]));
+        assertFalse(LuDecomposition.factor(new double[]{1, Double.NaN, 0, 1}, 2, new int[2]));
+    }
+
+    @Test
+    void nearlySingularRelativeToScaleIsRejected() {
+        assertFalse(LuDecomposition.factor(new double[]{1e20, 1e20, 1e20, 1e20 + 1}, 2, new int[2]));
+        assertTrue(LuDecomposition.factor(new double[]{1e-20, 0, 0, 1e-20}, 2, new int[2]));
+    }
+}
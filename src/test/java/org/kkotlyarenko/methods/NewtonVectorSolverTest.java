@@ -0,0 +1,88 @@
+package org.kkotlyarenko.methods;
+
+import org.junit.jupiter.api.Test;
+import org.kkotlyarenko.results.MutableSystemResult;
+import org.kkotlyarenko.results.SystemStatus;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NewtonVectorSolverTest {
+
+    /** x² + y² + z² = 3, xy = 1, yz = 1, with the root (1, 1, 1). */
+    private static final VectorFunction SPHERE = (x, out) -> {
+        out[0] = x[0] * x[0] + x[1] * x[1] + x[2] * x[2] - 3;
+        out[1] = x[0] * x[1] - 1;
+        out[2] = x[1] * x[2] - 1;
+    };
+
+    private static final JacobianFunction SPHERE_JACOBIAN = (x, j) -> {
+        j[0] = 2 * x[0];
+        j[1] = 2 * x[1];
+        j[2] = 2 * x[2];
+        j[3] = x[1];
+        j[4] = x[0];
+        j[5] = 0;
+        j[6] = 0;
+        j[7] = x[2];
+        j[8] = x[1];
+    };
+
+    private static final double[] START = {1.3, 0.8, 1.2};
+
+    private static MutableSystemResult solve(JacobianUpdate update) {
+        MutableSystemResult out = new MutableSystemResult(3);
+        new NewtonVectorSolver(3, SPHERE, SPHERE_JACOBIAN, update).solve(START, 1e-10, out);
+        return out;
+    }
+
+    @Test
+    void newtonSolvesThreeEquations() {
+        MutableSystemResult newton = solve(JacobianUpdate.NEWTON);
+
+        assertEquals(SystemStatus.SUCCESS, newton.getStatus());
+        assertArrayEquals(new double[]{1, 1, 1}, newton.getSolution(), 1e-9);
+        assertEquals(newton.getIterations(), newton.getJacobianEvaluations());
+        assertEquals(newton.getIterations() + 1, newton.getResidualEvaluations());
+    }
+
+    @Test
+    void broydenReachesNewtonRootWithFewerJacobians() {
+        MutableSystemResult newton = solve(JacobianUpdate.NEWTON);
+        for (JacobianUpdate update : new JacobianUpdate[]{JacobianUpdate.BROYDEN_GOOD, JacobianUpdate.BROYDEN_BAD}) {
+            MutableSystemResult broyden = solve(update);
+
+            assertEquals(SystemStatus.SUCCESS, broyden.getStatus(), update.name());
+            assertArrayEquals(newton.getSolution(), broyden.getSolution(), 1e-9, update.name());
+            assertTrue(broyden.getJacobianEvaluations() < newton.getJacobianEvaluations(),
+                    update.name() + ": " + broyden.getJacobianEvaluations() + " vs " + newton.getJacobianEvaluations());
+        }
+    }
+
+    @Test
+    void singularJacobianIsReported() {
+        VectorFunction parallel = (x, out) -> {
+            out[0] = x[0] + x[1] - 1;
+            out[1] = 2 * x[0] + 2 * x[1] - 3;
+        };
+        JacobianFunction constant = (x, j) -> {
+            j[0] = 1;
+            j[1] = 1;
+            j[2] = 2;
+            j[3] = 2;
+        };
+        MutableSystemResult out = new MutableSystemResult(2);
+        new NewtonVectorSolver(2, parallel, constant).solve(new double[]{0, 0}, 1e-8, out);
+
+        assertEquals(SystemStatus.SINGULAR_JACOBIAN, out.getStatus());
+        assertEquals(1, out.getJacobianEvaluations());
+    }
+
+    @Test
+    void startOfWrongDimensionIsRejected() {
+        NewtonVectorSolver solver = new NewtonVectorSolver(3, SPHERE, SPHERE_JACOBIAN);
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(new double[]{1, 1}, 1e-8));
+    }
+}
@@ -0,0 +1,90 @@
+package org.kkotlyarenko.methods;
+
+import org.junit.jupiter.api.Test;
+import org.kkotlyarenko.results.MethodResult;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PortfolioSolverTest {
+
+    private static final DoubleUnaryOperator F = x -> x * x - 2;
+
+    private static PortfolioSolver.Method counted(String name, AtomicInteger starts, EquationSolver solver) {
+        return new PortfolioSolver.Method(name, (f, a, b, token) -> {
+            starts.incrementAndGet();
+            return solver;
+        });
+    }
+
+    @Test
+    void trustedWinnerRunsAlone() {
+        PortfolioSolver.Wins wins = new PortfolioSolver.Wins();
+        for (int i = 0; i < PortfolioSolver.TRUSTED_WINS; i++) wins.record("f", "Брента");
+        AtomicInteger brent = new AtomicInteger();
+        AtomicInteger bisection = new AtomicInteger();
+        PortfolioSolver portfolio = new PortfolioSolver(List.of(
+                counted("Половинного деления", bisection, new BisectionMethod(IterationListener.NONE, CancellationToken.NONE)),
+                counted("Брента", brent, new BrentMethod(IterationListener.NONE, CancellationToken.NONE))
+        ), PortfolioSolver.QualityCheck.DEFAULT, wins, CancellationToken.NONE);
+
+        PortfolioSolver.Outcome outcome = portfolio.race("f", F, 0, 2, 1e-10);
+
+        assertEquals("Брента", outcome.method());
+        assertEquals(Math.sqrt(2), outcome.result().getRoot(), 1e-9);
+        assertEquals(1, brent.get());
+        assertEquals(0, bisection.get());
+        assertEquals(PortfolioSolver.TRUSTED_WINS + 1, wins.count("f", "Брента"));
+    }
+
+    @Test
+    void othersRaceWhenTrustedWinnerFails() {
+        PortfolioSolver.Wins wins = new PortfolioSolver.Wins();
+        for (int i = 0; i < PortfolioSolver.TRUSTED_WINS; i++) wins.record("f", "Сломанный");
+        PortfolioSolver portfolio = new PortfolioSolver(List.of(
+                counted("Половинного деления", new AtomicInteger(), new BisectionMethod(IterationListener.NONE, CancellationToken.NONE)),
+                counted("Сломанный", new AtomicInteger(), (f, a, b, eps) -> MethodResult.failure("Не сошёлся"))
+        ), PortfolioSolver.QualityCheck.DEFAULT, wins, CancellationToken.NONE);
+
+        PortfolioSolver.Outcome outcome = portfolio.race("f", F, 0, 2, 1e-10);
+
+        assertEquals("Половинного деления", outcome.method());
+    }
+
+    @Test
+    void contestedFunctionStillRaces() throws InterruptedException {
+        PortfolioSolver.Wins wins = new PortfolioSolver.Wins();
+        for (int i = 0; i < PortfolioSolver.TRUSTED_WINS; i++) wins.record("f", "Брента");
+        wins.record("f", "Половинного деления");
+        CountDownLatch bisectionStarted = new CountDownLatch(1);
+        AtomicInteger brentSolves = new AtomicInteger();
+        BrentMethod brent = new BrentMethod(IterationListener.NONE, CancellationToken.NONE);
+        PortfolioSolver portfolio = new PortfolioSolver(List.of(
+                new PortfolioSolver.Method("Половинного деления", (f, a, b, token) -> {
+                    bisectionStarted.countDown();
+                    return (g, left, right, eps) -> MethodResult.failure("Не сошёлся");
+                }),
+                new PortfolioSolver.Method("Брента", (f, a, b, token) -> (g, left, right, eps) -> {
+                    brentSolves.incrementAndGet();
+                    try {
+                        if (!bisectionStarted.await(1, TimeUnit.SECONDS)) return MethodResult.failure("Запущен один");
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return brent.solve(g, left, right, eps);
+                })
+        ), PortfolioSolver.QualityCheck.DEFAULT, wins, CancellationToken.NONE);
+
+        PortfolioSolver.Outcome outcome = portfolio.race("f", F, 0, 2, 1e-10);
+
+        assertEquals("Брента", outcome.method());
+        assertEquals(1, brentSolves.get());
+        assertNull(wins.preferred("g"));
+    }
+}
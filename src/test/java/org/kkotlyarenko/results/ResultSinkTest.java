@@ -0,0 +1,33 @@
+package org.kkotlyarenko.results;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResultSinkTest {
+
+    private static final MethodResult FAILURE = MethodResult.failure("Своё сообщение", 7, 1.5, 0.25);
+
+    @Test
+    void mutableResultKeepsAdaptedFailureMessage() {
+        MutableMethodResult out = new MutableMethodResult();
+        out.set(0, FAILURE);
+        assertEquals("Своё сообщение", out.getMessage());
+        assertEquals(FAILURE.toString(), out.toMethodResult().toString());
+
+        out.failure(0, SolveStatus.NO_SIGN_CHANGE);
+        assertEquals(SolveStatus.NO_SIGN_CHANGE.format(-1, Double.NaN), out.getMessage());
+    }
+
+    @Test
+    void batchResultKeepsAdaptedFailureMessagePerIndex() {
+        BatchResult out = new BatchResult(2);
+        out.set(0, FAILURE);
+        out.set(1, MethodResult.success(2.0, 0.0, 3));
+        assertEquals(FAILURE.toString(), out.toMethodResult(0).toString());
+        assertEquals(MethodResult.success(2.0, 0.0, 3).toString(), out.toMethodResult(1).toString());
+
+        out.failure(0, SolveStatus.ZERO_DENOMINATOR);
+        assertEquals(SolveStatus.ZERO_DENOMINATOR.format(-1, Double.NaN), out.toMethodResult(0).getMessage());
+    }
+}
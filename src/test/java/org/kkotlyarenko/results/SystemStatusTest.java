@@ -0,0 +1,15 @@
+package org.kkotlyarenko.results;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SystemStatusTest {
+
+    @Test
+    void pointMessagesListEveryComponent() {
+        assertTrue(SystemStatus.UNDEFINED_FUNCTION_AT_POINT.format(3, new double[]{1.5}).endsWith("(1.5)"));
+        assertTrue(SystemStatus.UNDEFINED_FUNCTION_AT_POINT.format(3, new double[]{1.0, 2.0}).endsWith("(1.0, 2.0)"));
+        assertTrue(SystemStatus.UNDEFINED_DERIVATIVE_AT_POINT.format(3, new double[]{1.0, 2.0, 3.0}).endsWith("(1.0, 2.0, 3.0)"));
+    }
+}